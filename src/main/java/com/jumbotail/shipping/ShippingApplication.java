@@ -3,6 +3,7 @@ package com.jumbotail.shipping;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry point for the Shipping Charge Estimator application.
@@ -15,6 +16,7 @@ import org.springframework.cache.annotation.EnableCaching;
  */
 @SpringBootApplication
 @EnableCaching
+@EnableScheduling
 public class ShippingApplication {
 
     public static void main(String[] args) {
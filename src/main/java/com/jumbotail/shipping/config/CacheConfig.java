@@ -1,13 +1,23 @@
 package com.jumbotail.shipping.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Cache configuration using Caffeine for in-memory caching.
@@ -15,22 +25,176 @@ import java.util.concurrent.TimeUnit;
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(ShippingCacheProperties.class)
+@Slf4j
 public class CacheConfig {
 
     /**
-     * Creates a Caffeine cache manager with predefined cache settings.
-     * 
+     * Creates a Caffeine cache manager with per-region settings from
+     * {@code shipping.cache.regions}; other regions use
+     * {@code shipping.cache.defaults}.
+     *
      * Cache regions:
-     * - nearestWarehouse: Caches nearest warehouse lookups (10 min TTL)
-     * - shippingCharges: Caches shipping charge calculations (5 min TTL)
+     * - nearestWarehouse: Caches nearest warehouse lookups
+     * - shippingCharges: Caches complete shipping quotes
+     *
+     * Regions with {@code refresh-after-write} reload hot entries in the
+     * background through their {@link CacheRefresher} instead of letting them
+     * expire under load. With {@code shipping.cache.persistent.enabled},
+     * regions with {@code persistent-entries} and a
+     * {@link PersistentCacheCodec} also keep their entries in a
+     * memory-mapped file that is read on a miss and survives restarts.
      */
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(10, TimeUnit.MINUTES)
-                .maximumSize(500)
-                .recordStats());
+    public CacheManager cacheManager(ShippingCacheProperties properties, ObjectProvider<CacheRefresher> refreshers,
+            ObjectProvider<PersistentCacheCodec> codecs) {
+        TieredCaffeineCacheManager cacheManager = new TieredCaffeineCacheManager();
+        cacheManager.setCaffeine(builder(properties.getDefaults()));
+
+        properties.getRegions().forEach((name, region) -> {
+            log.info("Cache region '{}': maxSize={}, maxWeight={}, expireAfterWrite={}, refreshAfterWrite={}, "
+                    + "persistentEntries={}", name, region.getMaximumSize(), region.getMaximumWeight(),
+                    region.getExpireAfterWrite(), region.getRefreshAfterWrite(), region.getPersistentEntries());
+
+            if (properties.getPersistent().isEnabled() && region.getPersistentEntries() != null) {
+                cacheManager.openFile(name, properties.getPersistent().getDirectory(),
+                        region.getPersistentEntries(), codecs);
+            }
+
+            Caffeine<Object, Object> builder = builder(region);
+            if (region.getRefreshAfterWrite() != null) {
+                builder.refreshAfterWrite(region.getRefreshAfterWrite());
+                cacheManager.registerCustomCache(name, builder.build(new RefreshAheadLoader(name, refreshers)));
+            } else {
+                cacheManager.registerCustomCache(name, builder.build());
+            }
+        });
         return cacheManager;
     }
+
+    /**
+     * Creates a Caffeine builder for the given region settings.
+     */
+    static Caffeine<Object, Object> builder(ShippingCacheProperties.Region region) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (region.getMaximumWeight() != null) {
+            builder.maximumWeight(region.getMaximumWeight()).weigher(CacheConfig::weigh);
+        } else if (region.getMaximumSize() != null) {
+            builder.maximumSize(region.getMaximumSize());
+        }
+        if (region.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(region.getExpireAfterWrite());
+        }
+        return builder;
+    }
+
+    /**
+     * A collection or map weighs its element count, anything else weighs one.
+     */
+    static int weigh(Object key, Object value) {
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Math.max(1, map.size());
+        }
+        return 1;
+    }
+
+    /**
+     * Caffeine cache manager that layers regions with a persistent file over
+     * a {@link TieredCache}, and flushes the files on shutdown.
+     */
+    static final class TieredCaffeineCacheManager extends CaffeineCacheManager implements DisposableBean {
+
+        private final Map<String, TieredFile> files = new HashMap<>();
+
+        /**
+         * Opens the file for a region. A region without a codec, or whose
+         * file cannot be opened, stays in memory only.
+         */
+        void openFile(String region, Path directory, int entries, ObjectProvider<PersistentCacheCodec> codecs) {
+            PersistentCacheCodec codec = codecs.orderedStream()
+                    .filter(candidate -> region.equals(candidate.cacheRegion()))
+                    .findFirst()
+                    .orElse(null);
+            if (codec == null) {
+                log.warn("Cache region '{}' has persistent-entries but no codec; keeping it in memory only", region);
+                return;
+            }
+
+            try {
+                MappedCacheFile file = MappedCacheFile.open(directory.resolve(region + ".cache"),
+                        codec.keyBytes(), codec.valueBytes(), entries);
+                files.put(region, new TieredFile(file, codec));
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Cannot open cache file for region '{}'; keeping it in memory only: {}", region,
+                        e.getMessage());
+            }
+        }
+
+        @Override
+        protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+            Cache first = super.adaptCaffeineCache(name, cache);
+            TieredFile tiered = files.get(name);
+            return tiered == null ? first : new TieredCache(first, tiered.file(), tiered.codec());
+        }
+
+        @Override
+        public void destroy() {
+            files.values().forEach(tiered -> tiered.file().close());
+        }
+
+        private record TieredFile(MappedCacheFile file, PersistentCacheCodec codec) {
+        }
+    }
+
+    /**
+     * Loader for refresh-ahead regions.
+     *
+     * Loading on a miss returns nothing, so lookups behave like a plain cache
+     * and callers still compute and store missing entries themselves. Only
+     * reloads of existing entries are delegated to the region's refresher.
+     */
+    static final class RefreshAheadLoader implements CacheLoader<Object, Object> {
+
+        private final String region;
+        private final ObjectProvider<CacheRefresher> refreshers;
+        private volatile CacheRefresher refresher;
+
+        RefreshAheadLoader(String region, ObjectProvider<CacheRefresher> refreshers) {
+            this.region = region;
+            this.refreshers = refreshers;
+        }
+
+        @Override
+        public Object load(Object key) {
+            return null;
+        }
+
+        @Override
+        public Object reload(Object key, Object oldValue) {
+            CacheRefresher current = resolve();
+            if (current == null) {
+                return oldValue;
+            }
+            log.debug("Refreshing cache region '{}' entry {}", region, key);
+            return current.reload(key);
+        }
+
+        private CacheRefresher resolve() {
+            CacheRefresher current = refresher;
+            if (current == null) {
+                current = refreshers.orderedStream()
+                        .filter(candidate -> region.equals(candidate.cacheRegion()))
+                        .findFirst()
+                        .orElse(null);
+                if (current == null) {
+                    log.warn("Cache region '{}' has refresh-after-write but no refresher", region);
+                }
+                refresher = current;
+            }
+            return current;
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package com.jumbotail.shipping.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Selective eviction over the entries of a Spring {@link Cache}.
+ *
+ * The cache abstraction only evicts by exact key; this walks the native store
+ * of the Caffeine and concurrent-map caches used here so callers can evict
+ * every entry that depends on a changed entity.
+ */
+@Slf4j
+public final class CacheEntries {
+
+    private CacheEntries() {
+    }
+
+    /**
+     * Removes every entry matching the predicate. Caches that cannot be
+     * iterated are cleared instead.
+     *
+     * @param cache cache to evict from
+     * @param stale tested with each key and stored value
+     * @return number of entries removed
+     */
+    public static int removeIf(Cache cache, BiPredicate<Object, Object> stale) {
+        ConcurrentMap<Object, Object> entries = asMap(cache.getNativeCache());
+        if (entries == null) {
+            log.warn("Cache '{}' does not support selective eviction; clearing it", cache.getName());
+            cache.clear();
+            return 0;
+        }
+
+        int removed = 0;
+        Iterator<Map.Entry<Object, Object>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Object, Object> entry = iterator.next();
+            if (stale.test(entry.getKey(), entry.getValue())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<Object, Object> asMap(Object nativeCache) {
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return (ConcurrentMap<Object, Object>) caffeine.asMap();
+        }
+        if (nativeCache instanceof ConcurrentMap<?, ?> map) {
+            return (ConcurrentMap<Object, Object>) map;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.jumbotail.shipping.config;
+
+/**
+ * Recomputes entries of one cache region when they are due for a
+ * refresh-ahead reload.
+ *
+ * Reloads run on a background thread while callers keep being served the
+ * previous value, so implementations must not go through a caching proxy
+ * for the same region.
+ */
+public interface CacheRefresher {
+
+    /**
+     * Name of the cache region this refresher reloads.
+     */
+    String cacheRegion();
+
+    /**
+     * Recomputes the value for a key.
+     *
+     * @param key cache key
+     * @return the fresh value, or null to evict the entry
+     */
+    Object reload(Object key);
+}
@@ -0,0 +1,92 @@
+package com.jumbotail.shipping.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caffeine caches behind Hibernate's second-level and query caches.
+ *
+ * Hibernate reaches Caffeine through JCache. Every region named under
+ * {@code shipping.cache.entity-regions} (the entity regions and
+ * {@code default-query-results-region}) is created up front with its
+ * maximum size and expire-after-write; the query results region falls back
+ * to {@code shipping.cache.defaults}. The query cache's
+ * {@code default-update-timestamps-region} is never bounded or expired,
+ * since losing a timestamp would let stale query results through.
+ */
+@Configuration
+@EnableConfigurationProperties(ShippingCacheProperties.class)
+@Slf4j
+public class EntityCacheConfig {
+
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    /**
+     * JCache manager holding the Hibernate regions. Each application context
+     * gets its own manager, so contexts sharing a JVM (tests) do not share
+     * entries.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(ShippingCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shipping-entities-" + UUID.randomUUID()),
+                        EntityCacheConfig.class.getClassLoader());
+
+        properties.getEntityRegions().forEach((name, region) -> {
+            if (UPDATE_TIMESTAMPS_REGION.equals(name)) {
+                log.warn("Ignoring settings for entity cache region '{}'; it is never bounded", name);
+                return;
+            }
+            log.info("Entity cache region '{}': maxSize={}, expireAfterWrite={}", name, region.getMaximumSize(),
+                    region.getExpireAfterWrite());
+            cacheManager.createCache(name, configuration(region));
+        });
+        if (!properties.getEntityRegions().containsKey(QUERY_RESULTS_REGION)) {
+            cacheManager.createCache(QUERY_RESULTS_REGION, configuration(properties.getDefaults()));
+        }
+        ShippingCacheProperties.Region unbounded = new ShippingCacheProperties.Region();
+        unbounded.setMaximumSize(null);
+        unbounded.setExpireAfterWrite(null);
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, configuration(unbounded));
+        return cacheManager;
+    }
+
+    /**
+     * Hands the manager to Hibernate's JCache region factory. A cached
+     * entity whose region is not configured gets an unbounded cache and a
+     * startup warning.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    /**
+     * JCache configuration for the given region settings. Only
+     * maximum-size and expire-after-write apply to entity regions.
+     */
+    static CaffeineConfiguration<Object, Object> configuration(ShippingCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        if (region.getMaximumSize() != null) {
+            configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        }
+        if (region.getExpireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        }
+        return configuration;
+    }
+}
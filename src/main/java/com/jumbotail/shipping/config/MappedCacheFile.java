@@ -0,0 +1,302 @@
+package com.jumbotail.shipping.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Off-heap key/value table in a memory-mapped file, used as the second cache
+ * tier below Caffeine.
+ *
+ * Keys and values are fixed-size byte strings. The file is a header followed
+ * by buckets of {@value #BUCKET_SLOTS} slots; a key hashes to one bucket and
+ * may occupy any of its slots. A full bucket overwrites a slot, so the table
+ * is lossy like any cache and never grows past its file size. Entries live in
+ * the page cache rather than on the Java heap and are still in the file when
+ * the process restarts.
+ *
+ * Every slot carries the fingerprint of the data its value was derived from
+ * and a CRC of its contents. A lookup only returns a value stamped with the
+ * caller's current fingerprint, and slots torn by a crash fail their CRC and
+ * read as empty. A file whose header does not match the requested geometry
+ * is reset.
+ *
+ * Thread-safe: each bucket is guarded by one of a fixed set of lock stripes.
+ */
+@Slf4j
+public final class MappedCacheFile implements Closeable {
+
+    private static final int MAGIC = 0x53484331; // "SHC1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+
+    static final int BUCKET_SLOTS = 4;
+
+    /**
+     * Slot layout: fingerprint (8), key hash (8), CRC (4), key, value.
+     */
+    private static final int SLOT_HEADER_BYTES = 20;
+    private static final int LOCK_STRIPES = 256;
+
+    private final Path path;
+    private final int keyBytes;
+    private final int valueBytes;
+    private final int slotBytes;
+    private final int buckets;
+    private final MappedByteBuffer buffer;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private MappedCacheFile(Path path, int keyBytes, int valueBytes, int buckets, MappedByteBuffer buffer) {
+        this.path = path;
+        this.keyBytes = keyBytes;
+        this.valueBytes = valueBytes;
+        this.slotBytes = SLOT_HEADER_BYTES + keyBytes + valueBytes;
+        this.buckets = buckets;
+        this.buffer = buffer;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Opens or creates a table file. Entries already in a file with the same
+     * geometry are kept.
+     *
+     * @param path       file to map
+     * @param keyBytes   size of every key
+     * @param valueBytes size of every value
+     * @param entries    number of entries to make room for
+     * @throws IllegalArgumentException if the table would not fit one mapping
+     */
+    public static MappedCacheFile open(Path path, int keyBytes, int valueBytes, int entries) throws IOException {
+        if (keyBytes <= 0 || valueBytes <= 0 || entries <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid cache file geometry: key %d bytes, value %d bytes, %d entries",
+                    keyBytes, valueBytes, entries));
+        }
+
+        int buckets = (entries + BUCKET_SLOTS - 1) / BUCKET_SLOTS;
+        long size = HEADER_BYTES + (long) buckets * BUCKET_SLOTS * (SLOT_HEADER_BYTES + keyBytes + valueBytes);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cache file would exceed 2 GB: " + size + " bytes");
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        MappedByteBuffer buffer;
+        boolean reused;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            reused = channel.size() == size;
+            if (!reused) {
+                channel.truncate(0);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        MappedCacheFile file = new MappedCacheFile(path, keyBytes, valueBytes, buckets, buffer);
+        if (!reused || !file.headerMatches()) {
+            file.reset();
+            log.info("Created cache file {} ({} entries, {} KB)", path, buckets * BUCKET_SLOTS, size / 1024);
+        } else {
+            log.info("Reopened cache file {} ({} entries)", path, buckets * BUCKET_SLOTS);
+        }
+        return file;
+    }
+
+    /**
+     * Reads the value stored for a key.
+     *
+     * @param fingerprint current fingerprint; values stamped otherwise are
+     *                    ignored
+     * @param key         key of {@code keyBytes} bytes
+     * @param value       receives the value, {@code valueBytes} long
+     * @return whether a current value was found
+     */
+    public boolean get(long fingerprint, byte[] key, byte[] value) {
+        long keyHash = hash(key);
+        int bucket = bucketOf(keyHash);
+        byte[] storedKey = new byte[keyBytes];
+        synchronized (lockFor(bucket)) {
+            int slot = find(bucket, keyHash, key, storedKey);
+            if (slot < 0) {
+                return false;
+            }
+            int offset = offset(bucket, slot);
+            if (buffer.getLong(offset) != fingerprint) {
+                return false;
+            }
+            buffer.get(offset + SLOT_HEADER_BYTES + keyBytes, value, 0, valueBytes);
+            return buffer.getInt(offset + 16) == checksum(fingerprint, keyHash, key, value);
+        }
+    }
+
+    /**
+     * Stores a value for a key, replacing any value for the same key.
+     *
+     * @param fingerprint fingerprint of the data the value was derived from;
+     *                    must not be zero
+     */
+    public void put(long fingerprint, byte[] key, byte[] value) {
+        if (fingerprint == 0) {
+            throw new IllegalArgumentException("Fingerprint must not be zero");
+        }
+
+        long keyHash = hash(key);
+        int bucket = bucketOf(keyHash);
+        byte[] storedKey = new byte[keyBytes];
+        synchronized (lockFor(bucket)) {
+            int slot = find(bucket, keyHash, key, storedKey);
+            if (slot < 0) {
+                slot = victim(bucket, fingerprint, keyHash);
+            }
+            int offset = offset(bucket, slot);
+            buffer.putLong(offset, fingerprint);
+            buffer.putLong(offset + 8, keyHash);
+            buffer.putInt(offset + 16, checksum(fingerprint, keyHash, key, value));
+            buffer.put(offset + SLOT_HEADER_BYTES, key, 0, keyBytes);
+            buffer.put(offset + SLOT_HEADER_BYTES + keyBytes, value, 0, valueBytes);
+        }
+    }
+
+    /**
+     * Removes the value stored for a key, if any.
+     */
+    public void remove(byte[] key) {
+        long keyHash = hash(key);
+        int bucket = bucketOf(keyHash);
+        byte[] storedKey = new byte[keyBytes];
+        synchronized (lockFor(bucket)) {
+            int slot = find(bucket, keyHash, key, storedKey);
+            if (slot >= 0) {
+                buffer.putLong(offset(bucket, slot), 0L);
+            }
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            synchronized (lockFor(bucket)) {
+                for (int slot = 0; slot < BUCKET_SLOTS; slot++) {
+                    buffer.putLong(offset(bucket, slot), 0L);
+                }
+            }
+        }
+    }
+
+    public int keyBytes() {
+        return keyBytes;
+    }
+
+    public int valueBytes() {
+        return valueBytes;
+    }
+
+    /**
+     * Writes dirty pages back to the file.
+     */
+    @Override
+    public void close() {
+        buffer.force();
+        log.debug("Flushed cache file {}", path);
+    }
+
+    private boolean headerMatches() {
+        return buffer.getInt(0) == MAGIC
+                && buffer.getInt(4) == FORMAT_VERSION
+                && buffer.getInt(8) == keyBytes
+                && buffer.getInt(12) == valueBytes
+                && buffer.getInt(16) == buckets
+                && buffer.getInt(20) == BUCKET_SLOTS;
+    }
+
+    private void reset() {
+        buffer.putInt(0, 0);
+        clear();
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.putInt(8, keyBytes);
+        buffer.putInt(12, valueBytes);
+        buffer.putInt(16, buckets);
+        buffer.putInt(20, BUCKET_SLOTS);
+        buffer.putInt(0, MAGIC);
+    }
+
+    /**
+     * Returns the slot holding the key, or -1.
+     */
+    private int find(int bucket, long keyHash, byte[] key, byte[] storedKey) {
+        for (int slot = 0; slot < BUCKET_SLOTS; slot++) {
+            int offset = offset(bucket, slot);
+            if (buffer.getLong(offset) == 0L || buffer.getLong(offset + 8) != keyHash) {
+                continue;
+            }
+            buffer.get(offset + SLOT_HEADER_BYTES, storedKey, 0, keyBytes);
+            if (Arrays.equals(storedKey, key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Picks the slot a new key replaces: an empty one, else one stamped with
+     * another fingerprint, else one chosen by the key hash.
+     */
+    private int victim(int bucket, long fingerprint, long keyHash) {
+        int stale = -1;
+        for (int slot = 0; slot < BUCKET_SLOTS; slot++) {
+            long stamp = buffer.getLong(offset(bucket, slot));
+            if (stamp == 0L) {
+                return slot;
+            }
+            if (stale < 0 && stamp != fingerprint) {
+                stale = slot;
+            }
+        }
+        return stale >= 0 ? stale : (int) ((keyHash >>> 32) & (BUCKET_SLOTS - 1));
+    }
+
+    private int offset(int bucket, int slot) {
+        return HEADER_BYTES + (bucket * BUCKET_SLOTS + slot) * slotBytes;
+    }
+
+    private int bucketOf(long keyHash) {
+        return (int) Long.remainderUnsigned(keyHash, buckets);
+    }
+
+    private Object lockFor(int bucket) {
+        return locks[bucket & (LOCK_STRIPES - 1)];
+    }
+
+    private static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int checksum(long fingerprint, long keyHash, byte[] key, byte[] value) {
+        CRC32 crc = new CRC32();
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            crc.update((int) (fingerprint >>> shift));
+            crc.update((int) (keyHash >>> shift));
+        }
+        crc.update(key);
+        crc.update(value);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,51 @@
+package com.jumbotail.shipping.config;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts the entries of one cache region to and from the fixed-size
+ * records of its {@link MappedCacheFile}, and says which data they were
+ * derived from.
+ *
+ * A value is only read back while the codec's fingerprint is the one it was
+ * stored with, so the fingerprint must change whenever anything the values
+ * are computed from changes.
+ */
+public interface PersistentCacheCodec {
+
+    /**
+     * Name of the cache region this codec persists.
+     */
+    String cacheRegion();
+
+    /**
+     * Size of every encoded key.
+     */
+    int keyBytes();
+
+    /**
+     * Size of every encoded value.
+     */
+    int valueBytes();
+
+    /**
+     * Fingerprint of the data values are currently derived from, or zero if
+     * it is not known, in which case the file is neither read nor written.
+     */
+    long fingerprint();
+
+    /**
+     * Writes a key, or returns false if it cannot be persisted.
+     */
+    boolean encodeKey(Object key, ByteBuffer out);
+
+    /**
+     * Writes a value, or returns false if it cannot be persisted.
+     */
+    boolean encodeValue(Object value, ByteBuffer out);
+
+    /**
+     * Rebuilds a value, or returns null if it can no longer be rebuilt.
+     */
+    Object decodeValue(ByteBuffer in);
+}
@@ -0,0 +1,65 @@
+package com.jumbotail.shipping.config;
+
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.enums.TransportMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configured rates bound from {@code shipping.transport.*} and
+ * {@code shipping.delivery.*}.
+ *
+ * These form the rate card at startup; active rows in the rate tables
+ * replace them at runtime.
+ */
+@Data
+@ConfigurationProperties(prefix = "shipping")
+public class RateCardProperties {
+
+    /**
+     * Distance band by transport mode.
+     */
+    private Map<TransportMode, Transport> transport = new EnumMap<>(TransportMode.class);
+
+    /**
+     * Courier surcharge by delivery speed.
+     */
+    private Map<DeliverySpeed, Delivery> delivery = new EnumMap<>(DeliverySpeed.class);
+
+    /**
+     * Rate for shipments of at least a minimum distance.
+     */
+    @Data
+    public static class Transport {
+
+        /**
+         * Charge per kilometer per kilogram in INR.
+         */
+        private Double ratePerKmPerKg;
+
+        /**
+         * Shortest distance in kilometers the rate applies to.
+         */
+        private Double minDistanceKm;
+    }
+
+    /**
+     * Charge added for a delivery speed.
+     */
+    @Data
+    public static class Delivery {
+
+        /**
+         * Flat courier charge per shipment in INR.
+         */
+        private Double baseCourierCharge;
+
+        /**
+         * Additional charge per kilogram in INR.
+         */
+        private Double extraChargePerKg;
+    }
+}
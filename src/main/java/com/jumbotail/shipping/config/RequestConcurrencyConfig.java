@@ -0,0 +1,56 @@
+package com.jumbotail.shipping.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the API request concurrency limit when
+ * {@code shipping.request-concurrency.enabled} is set.
+ *
+ * Off by default: most quotes are answered from memory without touching the
+ * database or the blocking lookup pool, so a limit sized from either would
+ * reject cache hits that cost next to nothing. When enabled without an
+ * explicit limit it admits as many requests as the servlet container has
+ * request threads, which bounds requests on virtual threads
+ * ({@code spring.threads.virtual.enabled} on Java 21+) the way the thread
+ * pool bounds them on platform threads.
+ */
+@Configuration
+@EnableConfigurationProperties(RequestConcurrencyProperties.class)
+@ConditionalOnProperty(prefix = "shipping.request-concurrency", name = "enabled")
+@Slf4j
+public class RequestConcurrencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestConcurrencyFilter> requestConcurrencyFilter(
+            RequestConcurrencyProperties properties, ServerProperties serverProperties, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        int limit = limit(properties, serverProperties);
+        log.info("API request concurrency limit: {} (acquire timeout {})", limit, properties.getAcquireTimeout());
+
+        FilterRegistrationBean<RequestConcurrencyFilter> registration = new FilterRegistrationBean<>(
+                new RequestConcurrencyFilter(limit, properties.getAcquireTimeout(), objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Returns the configured limit, or the maximum number of servlet request
+     * threads ({@code server.tomcat.threads.max}, 200 by default).
+     */
+    static int limit(RequestConcurrencyProperties properties, ServerProperties serverProperties) {
+        if (properties.getMaxConcurrent() > 0) {
+            return properties.getMaxConcurrent();
+        }
+        return Math.max(1, serverProperties.getTomcat().getThreads().getMax());
+    }
+}
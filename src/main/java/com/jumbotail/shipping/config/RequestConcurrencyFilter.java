@@ -0,0 +1,141 @@
+package com.jumbotail.shipping.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jumbotail.shipping.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits at most a fixed number of API requests at once.
+ *
+ * Requests beyond the limit queue here for a bounded time instead of piling
+ * up on request threads; a request that cannot get a slot within the
+ * acquire timeout is rejected with 503 and {@code Retry-After}.
+ *
+ * Metrics: {@code shipping.requests.active} and
+ * {@code shipping.requests.waiting} gauges, the
+ * {@code shipping.requests.admission} timer of time spent waiting for a slot
+ * and the {@code shipping.requests.rejected} counter.
+ */
+@Slf4j
+public class RequestConcurrencyFilter extends OncePerRequestFilter {
+
+    private static final String METRIC_PREFIX = "shipping.requests.";
+
+    private final int limit;
+    private final long acquireTimeoutNanos;
+    private final Semaphore slots;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer admission;
+    private final Counter rejected;
+
+    public RequestConcurrencyFilter(int limit, Duration acquireTimeout, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Request concurrency limit must be positive: " + limit);
+        }
+        this.limit = limit;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.slots = new Semaphore(limit, true);
+        this.objectMapper = objectMapper;
+
+        Gauge.builder(METRIC_PREFIX + "active", this, RequestConcurrencyFilter::active)
+                .description("API requests being handled")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "waiting", waiting, AtomicInteger::get)
+                .description("API requests waiting for a slot")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "limit", () -> limit)
+                .description("Maximum API requests handled at once")
+                .register(meterRegistry);
+        this.admission = Timer.builder(METRIC_PREFIX + "admission")
+                .description("Time API requests waited for a slot")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(METRIC_PREFIX + "rejected")
+                .description("API requests rejected because no slot freed up in time")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Number of requests holding a slot.
+     */
+    public int active() {
+        return limit - slots.availablePermits();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            reject(request, response);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private boolean acquire() {
+        if (slots.tryAcquire()) {
+            admission.record(0, TimeUnit.NANOSECONDS);
+            return true;
+        }
+
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            return slots.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+            admission.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        rejected.increment();
+
+        String traceId = UUID.randomUUID().toString().substring(0, 8);
+        log.warn("Request rejected, {} requests in flight [traceId={}]: {} {}", limit, traceId,
+                request.getMethod(), request.getRequestURI());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message("Too many concurrent requests, please retry")
+                .path(request.getRequestURI())
+                .traceId(traceId)
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
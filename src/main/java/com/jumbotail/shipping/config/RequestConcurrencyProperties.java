@@ -0,0 +1,31 @@
+package com.jumbotail.shipping.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * API request concurrency limit bound from
+ * {@code shipping.request-concurrency.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "shipping.request-concurrency")
+public class RequestConcurrencyProperties {
+
+    /**
+     * Whether API requests are admitted through the limit.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum API requests handled at once. 0 uses the maximum number of
+     * servlet request threads.
+     */
+    private int maxConcurrent = 0;
+
+    /**
+     * How long a request waits for a slot before it is rejected with 503.
+     */
+    private Duration acquireTimeout = Duration.ofMillis(500);
+}
@@ -0,0 +1,100 @@
+package com.jumbotail.shipping.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-region cache settings bound from {@code shipping.cache.*}.
+ *
+ * Regions without an entry under {@code regions} use {@code defaults}.
+ */
+@Data
+@ConfigurationProperties(prefix = "shipping.cache")
+public class ShippingCacheProperties {
+
+    /**
+     * Settings for regions that are not configured explicitly.
+     */
+    private Region defaults = new Region();
+
+    /**
+     * Settings by region name.
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    /**
+     * Hibernate second-level and query cache regions by region name. Only
+     * maximum-size and expire-after-write apply.
+     */
+    private Map<String, Region> entityRegions = new LinkedHashMap<>();
+
+    /**
+     * Memory-mapped second tier for regions with {@code persistent-entries}.
+     */
+    private Persistent persistent = new Persistent();
+
+    /**
+     * Returns the settings for a region, falling back to the defaults.
+     */
+    public Region forRegion(String name) {
+        return regions.getOrDefault(name, defaults);
+    }
+
+    /**
+     * Size and freshness settings for one cache region.
+     */
+    @Data
+    public static class Region {
+
+        /**
+         * Maximum number of entries. Ignored when maximumWeight is set.
+         */
+        private Long maximumSize = 1000L;
+
+        /**
+         * Maximum total weight. A collection value weighs its element
+         * count, any other value weighs one.
+         */
+        private Long maximumWeight;
+
+        /**
+         * Time after which an entry expires.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        /**
+         * Time after which an accessed entry is reloaded in the background
+         * while the old value keeps being served. Needs a
+         * {@link CacheRefresher} for the region.
+         */
+        private Duration refreshAfterWrite;
+
+        /**
+         * Entries kept in the region's memory-mapped file below the
+         * in-heap cache. Unset keeps the region in memory only.
+         */
+        private Integer persistentEntries;
+    }
+
+    /**
+     * Settings for the memory-mapped second tier.
+     */
+    @Data
+    public static class Persistent {
+
+        /**
+         * Whether regions with {@code persistent-entries} get a file.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory holding one file per persistent region.
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "shipping-cache");
+    }
+}
@@ -0,0 +1,210 @@
+package com.jumbotail.shipping.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache region backed by an in-heap first tier and a memory-mapped second
+ * tier that survives restarts.
+ *
+ * Reads go to the first tier, then on a miss to the file; a value found there
+ * is promoted to the first tier. Writes go to both. Native-cache operations
+ * such as selective eviction only reach the first tier: the file relies on
+ * its fingerprints, which change with the data behind the values.
+ *
+ * A value is stamped with the fingerprint current when its key first missed,
+ * not when it was stored, so a value computed while the data changed is never
+ * read back under the new fingerprint. Misses whose value is never stored,
+ * e.g. because computing it failed, are forgotten after a while.
+ */
+@Slf4j
+public class TieredCache implements Cache {
+
+    /**
+     * Misses awaiting a put are tracked up to this many keys, each for at
+     * most PENDING_TTL; a put without a tracked miss is stamped with the
+     * fingerprint current at put time.
+     */
+    static final int MAX_PENDING = 100_000;
+    static final Duration PENDING_TTL = Duration.ofMinutes(1);
+
+    private final Cache first;
+    private final MappedCacheFile file;
+    private final PersistentCacheCodec codec;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Long> pendingStamps = Caffeine.newBuilder()
+            .maximumSize(MAX_PENDING)
+            .expireAfterWrite(PENDING_TTL)
+            .executor(Runnable::run)
+            .build();
+
+    /**
+     * @param first first-tier cache
+     * @param file  second-tier file, sized for the codec's keys and values
+     * @param codec the region's codec
+     */
+    public TieredCache(Cache first, MappedCacheFile file, PersistentCacheCodec codec) {
+        this.first = first;
+        this.file = file;
+        this.codec = codec;
+    }
+
+    @Override
+    public String getName() {
+        return first.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return first.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = first.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object value = readThrough(key);
+        return value != null ? new SimpleValueWrapper(value) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        T cached = first.get(key, type);
+        if (cached != null) {
+            return cached;
+        }
+        Object value = readThrough(key);
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return first.get(key, () -> {
+            long fingerprint = codec.fingerprint();
+            Object stored = read(fingerprint, key);
+            if (stored != null) {
+                return (T) stored;
+            }
+            T value = valueLoader.call();
+            write(fingerprint, key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        first.put(key, value);
+        writeStamped(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = first.putIfAbsent(key, value);
+        if (existing == null) {
+            writeStamped(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        first.evict(key);
+        removeFromFile(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        removeFromFile(key);
+        return first.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        first.clear();
+        file.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        file.clear();
+        return first.invalidate();
+    }
+
+    /**
+     * Reads a first-tier miss from the file and promotes a hit.
+     */
+    private Object readThrough(Object key) {
+        long fingerprint = codec.fingerprint();
+        Object value = read(fingerprint, key);
+        if (value != null) {
+            first.put(key, value);
+        } else if (fingerprint != 0) {
+            pendingStamps.asMap().putIfAbsent(key, fingerprint);
+        }
+        return value;
+    }
+
+    private Object read(long fingerprint, Object key) {
+        if (fingerprint == 0) {
+            return null;
+        }
+        byte[] encodedKey = encodeKey(key);
+        if (encodedKey == null) {
+            return null;
+        }
+        byte[] encodedValue = new byte[file.valueBytes()];
+        if (!file.get(fingerprint, encodedKey, encodedValue)) {
+            return null;
+        }
+        Object value = codec.decodeValue(ByteBuffer.wrap(encodedValue));
+        if (value != null) {
+            log.trace("Cache '{}' served {} from file", getName(), key);
+        }
+        return value;
+    }
+
+    private void writeStamped(Object key, Object value) {
+        Long pending = pendingStamps.asMap().remove(key);
+        write(pending != null ? pending : codec.fingerprint(), key, value);
+    }
+
+    private void write(long fingerprint, Object key, Object value) {
+        if (fingerprint == 0 || value == null) {
+            return;
+        }
+        byte[] encodedKey = encodeKey(key);
+        if (encodedKey == null) {
+            return;
+        }
+        ByteBuffer encodedValue = ByteBuffer.allocate(file.valueBytes());
+        if (codec.encodeValue(value, encodedValue)) {
+            file.put(fingerprint, encodedKey, encodedValue.array());
+        }
+    }
+
+    private void removeFromFile(Object key) {
+        pendingStamps.invalidate(key);
+        byte[] encodedKey = encodeKey(key);
+        if (encodedKey != null) {
+            file.remove(encodedKey);
+        }
+    }
+
+    private byte[] encodeKey(Object key) {
+        ByteBuffer encoded = ByteBuffer.allocate(file.keyBytes());
+        return codec.encodeKey(key, encoded) ? encoded.array() : null;
+    }
+}
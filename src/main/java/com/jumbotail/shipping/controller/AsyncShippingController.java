@@ -0,0 +1,120 @@
+package com.jumbotail.shipping.controller;
+
+import com.jumbotail.shipping.dto.response.LocationResponse;
+import com.jumbotail.shipping.dto.response.NearestWarehouseResponse;
+import com.jumbotail.shipping.dto.response.ShippingChargeResponse;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.service.AsyncQuoteService;
+import com.jumbotail.shipping.service.ShippingQuote;
+import com.jumbotail.shipping.service.WarehouseService.WarehouseDistance;
+import com.jumbotail.shipping.service.WarehouseSnapshot;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variants of the shipping charge and nearest-warehouse APIs,
+ * for high fan-out callers.
+ *
+ * Same parameters and response bodies as {@link ShippingController} and
+ * {@link WarehouseController}. Handlers return a future, so no request
+ * thread waits on the database: with reference data in memory the answer is
+ * computed directly, otherwise the lookup runs on a small bounded pool and
+ * the response is written when it completes.
+ */
+@RestController
+@RequestMapping("/api/v1/async")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+@Tag(name = "Async", description = "Non-blocking shipping charge and warehouse APIs")
+public class AsyncShippingController {
+
+    private final AsyncQuoteService asyncQuoteService;
+
+    /**
+     * Get shipping charge from a warehouse to a customer.
+     */
+    @GetMapping("/shipping-charge")
+    @Operation(summary = "Calculate shipping charge (async)", description = "Same contract as "
+            + "GET /api/v1/shipping-charge, served without blocking a request thread.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully calculated shipping charge", content = @Content(schema = @Schema(implementation = ShippingChargeResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+            @ApiResponse(responseCode = "404", description = "Warehouse or customer not found"),
+            @ApiResponse(responseCode = "503", description = "Too many requests waiting on the database")
+    })
+    public CompletableFuture<ResponseEntity<ShippingChargeResponse>> getShippingCharge(
+            @Parameter(description = "Warehouse database ID", required = true, example = "1") @RequestParam @NotNull(message = "Warehouse ID is required") Long warehouseId,
+
+            @Parameter(description = "Customer database ID", required = true, example = "1") @RequestParam @NotNull(message = "Customer ID is required") Long customerId,
+
+            @Parameter(description = "Delivery speed: STANDARD or EXPRESS", required = true, example = "STANDARD") @RequestParam @NotBlank(message = "Delivery speed is required") String deliverySpeed,
+
+            @Parameter(description = "Product ID for weight-based calculation", example = "1") @RequestParam(required = false) Long productId) {
+
+        DeliverySpeed speed = DeliverySpeed.fromString(deliverySpeed);
+
+        return asyncQuoteService.quoteFromWarehouse(warehouseId, customerId, speed, productId)
+                .thenApply(quote -> ResponseEntity.ok(toChargeResponse(quote, speed)));
+    }
+
+    /**
+     * Get the nearest warehouse for a seller.
+     */
+    @GetMapping("/warehouse/nearest")
+    @Operation(summary = "Find nearest warehouse (async)", description = "Same contract as "
+            + "GET /api/v1/warehouse/nearest, served without blocking a request thread.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully found nearest warehouse", content = @Content(schema = @Schema(implementation = NearestWarehouseResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+            @ApiResponse(responseCode = "404", description = "Seller not found or no warehouses available"),
+            @ApiResponse(responseCode = "503", description = "Too many requests waiting on the database")
+    })
+    public CompletableFuture<ResponseEntity<NearestWarehouseResponse>> getNearestWarehouse(
+            @Parameter(description = "Seller's database ID", required = true, example = "1") @RequestParam @NotNull(message = "Seller ID is required") Long sellerId,
+
+            @Parameter(description = "Product ID (optional, for future use)", example = "1") @RequestParam(required = false) Long productId) {
+
+        return asyncQuoteService.nearestWarehouse(sellerId)
+                .thenApply(nearest -> ResponseEntity.ok(toWarehouseResponse(nearest)));
+    }
+
+    private static ShippingChargeResponse toChargeResponse(ShippingQuote quote, DeliverySpeed speed) {
+        return ShippingChargeResponse.builder()
+                .shippingCharge(quote.shippingCharge())
+                .transportMode(quote.transportMode())
+                .deliverySpeed(speed)
+                .distanceKm(Math.round(quote.warehouseToCustomerKm() * 100.0) / 100.0)
+                .weightKg(quote.weightKg())
+                .currency("INR")
+                .build();
+    }
+
+    private static NearestWarehouseResponse toWarehouseResponse(WarehouseDistance nearest) {
+        WarehouseSnapshot warehouse = nearest.warehouse();
+        return NearestWarehouseResponse.builder()
+                .warehouseId(warehouse.id())
+                .warehouseCode(warehouse.code())
+                .warehouseName(warehouse.name())
+                .warehouseLocation(LocationResponse.builder()
+                        .lat(warehouse.latitude())
+                        .lng(warehouse.longitude())
+                        .build())
+                .distanceKm(Math.round(nearest.distanceKm() * 100.0) / 100.0) // Round to 2 decimals
+                .build();
+    }
+}
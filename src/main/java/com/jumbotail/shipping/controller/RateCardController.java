@@ -0,0 +1,71 @@
+package com.jumbotail.shipping.controller;
+
+import com.jumbotail.shipping.dto.response.RateCardResponse;
+import com.jumbotail.shipping.service.RateCard;
+import com.jumbotail.shipping.service.RateCardStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST Controller for the shipping rate card.
+ * Shows the rates in use and applies rate table changes on demand.
+ */
+@RestController
+@RequestMapping("/api/v1/rate-card")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Rate Card", description = "Shipping rate card APIs")
+public class RateCardController {
+
+    private final RateCardStore rateCardStore;
+
+    /**
+     * Get the rate card in use.
+     */
+    @GetMapping
+    @Operation(summary = "Get rate card", description = "Returns the distance bands and courier surcharges "
+            + "currently used for quoting")
+    public ResponseEntity<RateCardResponse> getRateCard() {
+        return ResponseEntity.ok(toResponse(rateCardStore.current()));
+    }
+
+    /**
+     * Apply rate table changes without waiting for the next refresh.
+     */
+    @PostMapping("/reload")
+    @Operation(summary = "Reload rate card", description = "Recompiles the rate card from config and the rate "
+            + "tables and swaps it in if any rate changed. An invalid card is rejected and the current one kept.")
+    public ResponseEntity<RateCardResponse> reloadRateCard() {
+        log.info("Request to reload rate card");
+        return ResponseEntity.ok(toResponse(rateCardStore.reload()));
+    }
+
+    private RateCardResponse toResponse(RateCard rateCard) {
+        Map<String, RateCardResponse.Surcharge> surcharges = new LinkedHashMap<>();
+        rateCard.surcharges().forEach((speed, surcharge) -> surcharges.put(speed.name(),
+                RateCardResponse.Surcharge.builder()
+                        .baseCourierCharge(surcharge.baseCourierCharge())
+                        .extraChargePerKg(surcharge.extraChargePerKg())
+                        .build()));
+
+        return RateCardResponse.builder()
+                .version(rateCard.version())
+                .source(rateCard.source())
+                .bands(rateCard.bands().stream()
+                        .map(band -> RateCardResponse.Band.builder()
+                                .minDistanceKm(band.minDistanceKm())
+                                .transportMode(band.transportMode().name())
+                                .ratePerKmPerKg(band.ratePerKmPerKg())
+                                .build())
+                        .toList())
+                .surcharges(surcharges)
+                .build();
+    }
+}
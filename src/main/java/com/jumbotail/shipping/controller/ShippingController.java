@@ -1,23 +1,35 @@
 package com.jumbotail.shipping.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jumbotail.shipping.dto.request.BatchShippingCalculateRequest;
+import com.jumbotail.shipping.dto.request.CartShippingRequest;
 import com.jumbotail.shipping.dto.request.ShippingCalculateRequest;
+import com.jumbotail.shipping.dto.response.BatchShippingCalculateResponse;
+import com.jumbotail.shipping.dto.response.BatchShippingItemResponse;
+import com.jumbotail.shipping.dto.response.CartShippingResponse;
+import com.jumbotail.shipping.dto.response.DistanceMatrixCellResponse;
 import com.jumbotail.shipping.dto.response.LocationResponse;
 import com.jumbotail.shipping.dto.response.NearestWarehouseResponse;
 import com.jumbotail.shipping.dto.response.ShippingCalculateResponse;
 import com.jumbotail.shipping.dto.response.ShippingChargeResponse;
-import com.jumbotail.shipping.entity.Customer;
-import com.jumbotail.shipping.entity.Product;
-import com.jumbotail.shipping.entity.Seller;
-import com.jumbotail.shipping.entity.Warehouse;
 import com.jumbotail.shipping.enums.DeliverySpeed;
-import com.jumbotail.shipping.enums.TransportMode;
+import com.jumbotail.shipping.exception.InvalidRequestException;
 import com.jumbotail.shipping.exception.ResourceNotFoundException;
-import com.jumbotail.shipping.repository.CustomerRepository;
-import com.jumbotail.shipping.repository.ProductRepository;
-import com.jumbotail.shipping.repository.SellerRepository;
-import com.jumbotail.shipping.service.GeoLocationService;
+import com.jumbotail.shipping.service.BatchShippingService;
+import com.jumbotail.shipping.service.BatchShippingService.BatchQuoteResult;
+import com.jumbotail.shipping.service.CartShippingService;
+import com.jumbotail.shipping.service.CartShippingService.CartLine;
+import com.jumbotail.shipping.service.CartShippingService.CartQuote;
+import com.jumbotail.shipping.service.CartShippingService.CartShipment;
+import com.jumbotail.shipping.service.DistanceMatrix;
+import com.jumbotail.shipping.service.DistanceMatrixStore;
+import com.jumbotail.shipping.service.Paise;
+import com.jumbotail.shipping.service.RateCard;
+import com.jumbotail.shipping.service.RateCardStore;
 import com.jumbotail.shipping.service.ShippingCalculatorService;
-import com.jumbotail.shipping.service.WarehouseService;
+import com.jumbotail.shipping.service.ShippingQuote;
+import com.jumbotail.shipping.service.StreamingShippingService;
+import com.jumbotail.shipping.service.WarehouseSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -27,14 +39,32 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for shipping charge calculation.
@@ -49,12 +79,18 @@ import java.math.BigDecimal;
 @Tag(name = "Shipping", description = "Shipping charge calculation APIs")
 public class ShippingController {
 
+    /**
+     * Most cells a distance matrix slice may hold.
+     */
+    private static final int MAX_MATRIX_CELLS = 10_000;
+
     private final ShippingCalculatorService shippingCalculatorService;
-    private final WarehouseService warehouseService;
-    private final CustomerRepository customerRepository;
-    private final SellerRepository sellerRepository;
-    private final ProductRepository productRepository;
-    private final GeoLocationService geoLocationService;
+    private final BatchShippingService batchShippingService;
+    private final CartShippingService cartShippingService;
+    private final StreamingShippingService streamingShippingService;
+    private final DistanceMatrixStore distanceMatrixStore;
+    private final RateCardStore rateCardStore;
+    private final ObjectMapper objectMapper;
 
     /**
      * Get shipping charge from a warehouse to a customer.
@@ -84,31 +120,18 @@ public class ShippingController {
         // Parse and validate delivery speed
         DeliverySpeed speed = DeliverySpeed.fromString(deliverySpeed);
 
-        // Calculate shipping charge
-        BigDecimal charge = shippingCalculatorService.calculateShippingCharge(
+        // Quote in a single pass
+        ShippingQuote quote = shippingCalculatorService.quoteFromWarehouse(
                 warehouseId, customerId, speed, productId);
-
-        // Get additional details for response
-        Warehouse warehouse = warehouseService.getWarehouseById(warehouseId);
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer", "id", customerId));
-
-        double distanceKm = geoLocationService.calculateDistanceInKm(
-                warehouse.getLocation(), customer.getLocation());
-
-        double weightKg = productId != null ? productRepository.findById(productId)
-                .map(Product::getChargeableWeight)
-                .orElse(1.0) : 1.0;
-
-        TransportMode transportMode = TransportMode.getByDistance(distanceKm);
+        BigDecimal charge = quote.shippingCharge();
 
         // Build response
         ShippingChargeResponse response = ShippingChargeResponse.builder()
                 .shippingCharge(charge)
-                .transportMode(transportMode)
+                .transportMode(quote.transportMode())
                 .deliverySpeed(speed)
-                .distanceKm(Math.round(distanceKm * 100.0) / 100.0)
-                .weightKg(weightKg)
+                .distanceKm(Math.round(quote.warehouseToCustomerKm() * 100.0) / 100.0)
+                .weightKg(quote.weightKg())
                 .currency("INR")
                 .build();
 
@@ -117,6 +140,65 @@ public class ShippingController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get a slice of the materialized warehouse-by-customer distance matrix.
+     */
+    @GetMapping("/matrix")
+    @Operation(summary = "Slice the distance matrix", description = "Returns materialized warehouse-to-customer "
+            +
+            "distances with per-speed unit charges for the given customers, from the given warehouses or from all "
+            +
+            "active warehouses. Pairs not yet in the matrix are omitted. A slice holds at most 10,000 cells.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matrix cells, by warehouse then customer"),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters or too many cells"),
+            @ApiResponse(responseCode = "404", description = "Distance matrix has not been built")
+    })
+    public ResponseEntity<List<DistanceMatrixCellResponse>> getDistanceMatrix(
+            @Parameter(description = "Warehouse database IDs (up to 100); all warehouses if omitted", example = "1,2") @RequestParam(required = false) @Size(max = 100, message = "At most 100 warehouse IDs are allowed") List<Long> warehouseIds,
+
+            @Parameter(description = "Customer database IDs (1-500)", required = true, example = "1,2,3") @RequestParam @NotEmpty(message = "At least one customer ID is required") @Size(max = 500, message = "At most 500 customer IDs are allowed") List<Long> customerIds) {
+
+        log.info("Request for distance matrix slice: warehouses={}, customers={}",
+                warehouseIds != null ? warehouseIds.size() : "all", customerIds.size());
+
+        if (warehouseIds != null && (long) warehouseIds.size() * customerIds.size() > MAX_MATRIX_CELLS) {
+            throw new InvalidRequestException(String.format(
+                    "At most %d cells are allowed per slice; request fewer warehouses or customers",
+                    MAX_MATRIX_CELLS));
+        }
+
+        DistanceMatrix matrix = distanceMatrixStore.current();
+        if (matrix == null) {
+            throw new ResourceNotFoundException("Distance matrix has not been built");
+        }
+
+        RateCard rateCard = rateCardStore.current();
+        List<Long> rows = warehouseIds != null
+                ? warehouseIds
+                : Arrays.stream(matrix.warehouseIds()).boxed().toList();
+        if (warehouseIds == null && (long) rows.size() * customerIds.size() > MAX_MATRIX_CELLS) {
+            throw new InvalidRequestException(String.format(
+                    "All %d warehouses exceed %d cells per slice; pass warehouseIds", rows.size(),
+                    MAX_MATRIX_CELLS));
+        }
+
+        List<DistanceMatrixCellResponse> cells = new ArrayList<>();
+        for (Long warehouseId : rows) {
+            for (Long customerId : customerIds) {
+                if (warehouseId == null || customerId == null) {
+                    continue;
+                }
+                double distanceKm = matrix.distanceKm(warehouseId, customerId);
+                if (!Double.isNaN(distanceKm)) {
+                    cells.add(toCellResponse(rateCard, warehouseId, customerId, distanceKm));
+                }
+            }
+        }
+
+        return ResponseEntity.ok(cells);
+    }
+
     /**
      * Calculate complete shipping charge from seller to customer via nearest
      * warehouse.
@@ -139,61 +221,220 @@ public class ShippingController {
         // Parse delivery speed
         DeliverySpeed speed = DeliverySpeed.fromString(request.getDeliverySpeed());
 
-        // Calculate shipping with warehouse lookup
-        ShippingCalculatorService.ShippingCalculationResult result = shippingCalculatorService
-                .calculateShippingForSellerAndCustomer(
-                        request.getSellerId(),
-                        request.getCustomerId(),
-                        speed,
-                        request.getProductId());
+        // Quote with warehouse lookup in a single pass
+        ShippingQuote quote = shippingCalculatorService.quoteShipping(
+                request.getSellerId(),
+                request.getCustomerId(),
+                speed,
+                request.getProductId());
 
-        Warehouse warehouse = result.warehouse();
+        ShippingCalculateResponse response = toCalculateResponse(quote);
 
-        // Get seller for distance calculation
-        Seller seller = sellerRepository.findById(request.getSellerId())
-                .orElseThrow(() -> new ResourceNotFoundException("Seller", "id", request.getSellerId()));
+        log.info("Complete shipping calculation result: {} INR via warehouse {}",
+                quote.shippingCharge(), quote.warehouse().code());
 
-        Customer customer = customerRepository.findById(request.getCustomerId())
-                .orElseThrow(() -> new ResourceNotFoundException("Customer", "id", request.getCustomerId()));
+        return ResponseEntity.ok(response);
+    }
 
-        // Calculate distances
-        double sellerToWarehouseKm = geoLocationService.calculateDistanceInKm(
-                seller.getLocation(), warehouse.getLocation());
-        double warehouseToCustomerKm = geoLocationService.calculateDistanceInKm(
-                warehouse.getLocation(), customer.getLocation());
+    /**
+     * Calculate consolidated shipping charges for a cart.
+     */
+    @PostMapping("/cart")
+    @Operation(summary = "Calculate shipping charges for a cart", description = "Quotes up to 500 (product, "
+            +
+            "quantity) lines to one customer. Products are loaded in one query; each seller drops its items at its "
+            +
+            "nearest warehouse, and the items at each warehouse are charged once on their consolidated chargeable "
+            +
+            "weight (the greater of total actual and total volumetric weight).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully calculated cart shipping charges", content = @Content(schema = @Schema(implementation = CartShippingResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "404", description = "Customer or product not found")
+    })
+    public ResponseEntity<CartShippingResponse> calculateCartShipping(
+            @Valid @RequestBody CartShippingRequest request) {
 
-        double weightKg = request.getProductId() != null ? productRepository.findById(request.getProductId())
-                .map(Product::getChargeableWeight)
-                .orElse(1.0) : 1.0;
+        log.info("Request for cart shipping calculation: customer={}, {} lines",
+                request.getCustomerId(), request.getItems().size());
 
-        TransportMode transportMode = TransportMode.getByDistance(warehouseToCustomerKm);
+        DeliverySpeed speed = DeliverySpeed.fromString(request.getDeliverySpeed());
+        List<CartLine> lines = request.getItems().stream()
+                .map(item -> new CartLine(item.getProductId(), item.getQuantity()))
+                .toList();
 
-        // Build warehouse response
-        NearestWarehouseResponse warehouseResponse = NearestWarehouseResponse.builder()
-                .warehouseId(warehouse.getId())
-                .warehouseCode(warehouse.getWarehouseCode())
-                .warehouseName(warehouse.getName())
-                .warehouseLocation(LocationResponse.builder()
-                        .lat(warehouse.getLocation().getLatitude())
-                        .lng(warehouse.getLocation().getLongitude())
-                        .build())
-                .distanceKm(Math.round(sellerToWarehouseKm * 100.0) / 100.0)
-                .build();
+        CartQuote quote = cartShippingService.quoteCart(request.getCustomerId(), speed, lines);
 
-        // Build complete response
-        ShippingCalculateResponse response = ShippingCalculateResponse.builder()
-                .shippingCharge(result.shippingCharge())
-                .nearestWarehouse(warehouseResponse)
-                .transportMode(transportMode)
+        CartShippingResponse response = CartShippingResponse.builder()
+                .totalCharge(Paise.toRupees(quote.totalChargePaise()))
                 .deliverySpeed(speed)
-                .distanceKm(Math.round(warehouseToCustomerKm * 100.0) / 100.0)
-                .weightKg(weightKg)
+                .shipments(quote.shipments().stream()
+                        .map(this::toShipmentResponse)
+                        .toList())
                 .currency("INR")
                 .build();
 
-        log.info("Complete shipping calculation result: {} INR via warehouse {}",
-                result.shippingCharge(), warehouse.getWarehouseCode());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Calculate shipping charges for many seller-to-customer shipments in one
+     * request.
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Calculate shipping charges in batch", description = "Calculates complete shipping charges "
+            +
+            "for up to 10000 (seller, customer, product, delivery speed) items. Repeated IDs are loaded once and "
+            +
+            "items are evaluated in parallel. Results come back in request order; a failing item reports its own "
+            +
+            "status and error without failing the batch.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch evaluated", content = @Content(schema = @Schema(implementation = BatchShippingCalculateResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request body")
+    })
+    public ResponseEntity<BatchShippingCalculateResponse> calculateShippingChargeBatch(
+            @Valid @RequestBody BatchShippingCalculateRequest request) {
+
+        log.info("Request for batch shipping calculation: {} items", request.getItems().size());
+
+        List<BatchShippingItemResponse> results = batchShippingService.calculateBatch(request.getItems())
+                .stream()
+                .map(this::toItemResponse)
+                .toList();
+
+        int successCount = (int) results.stream().filter(r -> r.getQuote() != null).count();
+
+        BatchShippingCalculateResponse response = BatchShippingCalculateResponse.builder()
+                .totalCount(results.size())
+                .successCount(successCount)
+                .errorCount(results.size() - successCount)
+                .results(results)
+                .build();
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Calculate shipping charges for a newline-delimited stream of requests.
+     */
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream shipping charges", description = "Reads one shipping calculation request per line "
+            +
+            "(NDJSON) and writes one batch item result per line as soon as each chunk is quoted. Memory use stays "
+            +
+            "constant regardless of the number of lines, so this suits bulk re-rating jobs. Lines longer than "
+            +
+            "shipping.stream.max-line-length characters yield a 400 result.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Results streamed, one JSON object per line", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = BatchShippingItemResponse.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> streamShippingCharges(InputStream body) {
+        log.info("Request for streaming shipping calculation");
+
+        StreamingResponseBody stream = output -> {
+            Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            streamingShippingService.process(reader, chunk -> writeChunk(writer, chunk));
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(stream);
+    }
+
+    /**
+     * Writes one result per line and flushes, so the client receives each
+     * chunk before the next is read.
+     */
+    private void writeChunk(Writer writer, List<BatchQuoteResult> chunk) {
+        try {
+            for (BatchQuoteResult result : chunk) {
+                writer.write(objectMapper.writeValueAsString(toItemResponse(result)));
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write quote stream", e);
+        }
+    }
+
+    private DistanceMatrixCellResponse toCellResponse(RateCard rateCard, long warehouseId, long customerId,
+            double distanceKm) {
+        Map<String, DistanceMatrixCellResponse.UnitCharge> unitCharges = new LinkedHashMap<>();
+        for (DeliverySpeed speed : DeliverySpeed.values()) {
+            unitCharges.put(speed.name(), DistanceMatrixCellResponse.UnitCharge.builder()
+                    .baseCharge(rateCard.surcharge(speed).baseCourierCharge())
+                    .chargePerKg(Math.round(rateCard.chargePerKg(distanceKm, speed) * 100.0) / 100.0)
+                    .build());
+        }
+
+        return DistanceMatrixCellResponse.builder()
+                .warehouseId(warehouseId)
+                .customerId(customerId)
+                .distanceKm(Math.round(distanceKm * 100.0) / 100.0)
+                .transportMode(rateCard.transportMode(distanceKm).name())
+                .unitCharges(unitCharges)
+                .build();
+    }
+
+    private BatchShippingItemResponse toItemResponse(BatchQuoteResult result) {
+        return BatchShippingItemResponse.builder()
+                .index(result.index())
+                .status(result.status().value())
+                .quote(result.isSuccess() ? toCalculateResponse(result.quote()) : null)
+                .error(result.errorMessage())
+                .build();
+    }
+
+    /**
+     * Builds the API response for a complete quote breakdown.
+     */
+    private ShippingCalculateResponse toCalculateResponse(ShippingQuote quote) {
+        return ShippingCalculateResponse.builder()
+                .shippingCharge(quote.shippingCharge())
+                .nearestWarehouse(toWarehouseResponse(quote))
+                .transportMode(quote.transportMode())
+                .deliverySpeed(quote.deliverySpeed())
+                .distanceKm(Math.round(quote.warehouseToCustomerKm() * 100.0) / 100.0)
+                .weightKg(quote.weightKg())
+                .currency("INR")
+                .build();
+    }
+
+    private CartShippingResponse.Shipment toShipmentResponse(CartShipment shipment) {
+        ShippingQuote quote = shipment.quote();
+
+        return CartShippingResponse.Shipment.builder()
+                .shippingCharge(quote.shippingCharge())
+                .warehouse(toWarehouseResponse(quote))
+                .sellerIds(shipment.sellerIds())
+                .productIds(shipment.productIds())
+                .unitCount(shipment.unitCount())
+                .actualWeightKg(Math.round(shipment.actualWeightKg() * 1000.0) / 1000.0)
+                .volumetricWeightKg(Math.round(shipment.volumetricWeightKg() * 1000.0) / 1000.0)
+                .chargeableWeightKg(Math.round(quote.weightKg() * 1000.0) / 1000.0)
+                .transportMode(quote.transportMode())
+                .distanceKm(Math.round(quote.warehouseToCustomerKm() * 100.0) / 100.0)
+                .build();
+    }
+
+    /**
+     * Warehouse of a quote, with the seller-to-warehouse distance.
+     */
+    private NearestWarehouseResponse toWarehouseResponse(ShippingQuote quote) {
+        WarehouseSnapshot warehouse = quote.warehouse();
+
+        return NearestWarehouseResponse.builder()
+                .warehouseId(warehouse.id())
+                .warehouseCode(warehouse.code())
+                .warehouseName(warehouse.name())
+                .warehouseLocation(LocationResponse.builder()
+                        .lat(warehouse.latitude())
+                        .lng(warehouse.longitude())
+                        .build())
+                .distanceKm(Math.round(quote.sellerToWarehouseKm() * 100.0) / 100.0)
+                .build();
+    }
 }
@@ -2,12 +2,16 @@ package com.jumbotail.shipping.controller;
 
 import com.jumbotail.shipping.dto.response.LocationResponse;
 import com.jumbotail.shipping.dto.response.NearestWarehouseResponse;
+import com.jumbotail.shipping.entity.Customer;
 import com.jumbotail.shipping.entity.Seller;
-import com.jumbotail.shipping.entity.Warehouse;
-import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.exception.InvalidRequestException;
+import com.jumbotail.shipping.repository.CustomerRepository;
 import com.jumbotail.shipping.repository.SellerRepository;
 import com.jumbotail.shipping.service.GeoLocationService;
+import com.jumbotail.shipping.service.KnownIds;
 import com.jumbotail.shipping.service.WarehouseService;
+import com.jumbotail.shipping.service.WarehouseSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,16 +19,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * REST Controller for warehouse-related operations.
- * Provides API to find the nearest warehouse for a seller.
+ * Provides APIs to find the nearest warehouses for a seller or customer.
  */
 @RestController
 @RequestMapping("/api/v1/warehouse")
@@ -36,7 +46,9 @@ public class WarehouseController {
 
     private final WarehouseService warehouseService;
     private final SellerRepository sellerRepository;
+    private final CustomerRepository customerRepository;
     private final GeoLocationService geoLocationService;
+    private final KnownIds knownIds;
 
     /**
      * Get the nearest warehouse for a seller.
@@ -62,34 +74,134 @@ public class WarehouseController {
         log.info("Request to find nearest warehouse for seller ID: {}", sellerId);
 
         // Get seller for distance calculation
-        Seller seller = sellerRepository.findById(sellerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Seller", "id", sellerId));
+        Seller seller = knownIds.sellers().find(sellerId, sellerRepository::findById);
 
         // Find nearest warehouse
-        Warehouse warehouse = warehouseService.findNearestWarehouse(sellerId);
+        WarehouseSnapshot warehouse = warehouseService.findNearestWarehouse(sellerId);
 
         // Calculate distance for response
         double distanceKm = 0.0;
-        if (seller.getLocation() != null && warehouse.getLocation() != null) {
+        if (seller.getLocation() != null) {
             distanceKm = geoLocationService.calculateDistanceInKm(
-                    seller.getLocation(), warehouse.getLocation());
+                    seller.getLocation(), warehouse.location());
         }
 
         // Build response
-        NearestWarehouseResponse response = NearestWarehouseResponse.builder()
-                .warehouseId(warehouse.getId())
-                .warehouseCode(warehouse.getWarehouseCode())
-                .warehouseName(warehouse.getName())
-                .warehouseLocation(LocationResponse.builder()
-                        .lat(warehouse.getLocation().getLatitude())
-                        .lng(warehouse.getLocation().getLongitude())
-                        .build())
-                .distanceKm(Math.round(distanceKm * 100.0) / 100.0) // Round to 2 decimals
-                .build();
+        NearestWarehouseResponse response = toResponse(warehouse, distanceKm);
 
         log.info("Found nearest warehouse: {} at distance: {} km",
-                warehouse.getWarehouseCode(), response.getDistanceKm());
+                warehouse.code(), response.getDistanceKm());
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Get the k nearest active warehouses to a seller or customer.
+     * 
+     * @param sellerId   the seller's database ID
+     * @param customerId the customer's database ID
+     * @param k          number of warehouses to return
+     * @return warehouses ordered by distance, closest first
+     */
+    @GetMapping("/top-nearest")
+    @Operation(summary = "Find k nearest warehouses", description = "Returns the k closest active warehouses to a seller "
+            +
+            "or customer location, ordered by distance. Exactly one of sellerId or customerId is required.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully found nearest warehouses"),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+            @ApiResponse(responseCode = "404", description = "Seller or customer not found")
+    })
+    public ResponseEntity<List<NearestWarehouseResponse>> getTopNearestWarehouses(
+            @Parameter(description = "Seller's database ID", example = "1") @RequestParam(required = false) Long sellerId,
+
+            @Parameter(description = "Customer's database ID", example = "1") @RequestParam(required = false) Long customerId,
+
+            @Parameter(description = "Number of warehouses to return (1-100)", example = "5") @RequestParam(defaultValue = "5") @Min(value = 1, message = "k must be at least 1") @Max(value = 100, message = "k cannot exceed 100") int k) {
+
+        log.info("Request for {} nearest warehouses: seller={}, customer={}", k, sellerId, customerId);
+
+        GeoLocation origin = resolveOrigin(sellerId, customerId);
+
+        List<NearestWarehouseResponse> response = warehouseService.findNearestWarehouses(origin, k).stream()
+                .map(wd -> toResponse(wd.warehouse(), wd.distanceKm()))
+                .toList();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get all active warehouses within a radius of a seller or customer.
+     * 
+     * @param sellerId   the seller's database ID
+     * @param customerId the customer's database ID
+     * @param radiusKm   search radius in kilometers
+     * @param limit      maximum number of warehouses to return
+     * @return warehouses ordered by distance, closest first
+     */
+    @GetMapping("/within-radius")
+    @Operation(summary = "Find warehouses within radius", description = "Returns active warehouses within the given "
+            +
+            "distance of a seller or customer location, ordered by distance. Exactly one of sellerId or customerId is required.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully found warehouses"),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+            @ApiResponse(responseCode = "404", description = "Seller or customer not found")
+    })
+    public ResponseEntity<List<NearestWarehouseResponse>> getWarehousesWithinRadius(
+            @Parameter(description = "Seller's database ID", example = "1") @RequestParam(required = false) Long sellerId,
+
+            @Parameter(description = "Customer's database ID", example = "1") @RequestParam(required = false) Long customerId,
+
+            @Parameter(description = "Search radius in kilometers", required = true, example = "300") @RequestParam @NotNull(message = "Radius is required") @Positive(message = "Radius must be positive") @DecimalMax(value = "20038", message = "Radius cannot exceed half the Earth's circumference") Double radiusKm,
+
+            @Parameter(description = "Maximum number of warehouses to return (1-500)", example = "50") @RequestParam(defaultValue = "50") @Min(value = 1, message = "limit must be at least 1") @Max(value = 500, message = "limit cannot exceed 500") int limit) {
+
+        log.info("Request for warehouses within {} km: seller={}, customer={}", radiusKm, sellerId, customerId);
+
+        GeoLocation origin = resolveOrigin(sellerId, customerId);
+
+        List<NearestWarehouseResponse> response = warehouseService
+                .findWarehousesWithinRadius(origin, radiusKm, limit).stream()
+                .map(wd -> toResponse(wd.warehouse(), wd.distanceKm()))
+                .toList();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Resolves the query origin from exactly one of a seller or customer ID.
+     */
+    private GeoLocation resolveOrigin(Long sellerId, Long customerId) {
+        if ((sellerId == null) == (customerId == null)) {
+            throw new InvalidRequestException("Exactly one of 'sellerId' or 'customerId' must be provided");
+        }
+
+        GeoLocation location;
+        if (sellerId != null) {
+            Seller seller = knownIds.sellers().find(sellerId, sellerRepository::findById);
+            location = seller.getLocation();
+        } else {
+            Customer customer = knownIds.customers().find(customerId, customerRepository::findById);
+            location = customer.getLocation();
+        }
+
+        if (location == null) {
+            throw new InvalidRequestException("The requested seller or customer does not have location information");
+        }
+        return location;
+    }
+
+    private NearestWarehouseResponse toResponse(WarehouseSnapshot warehouse, double distanceKm) {
+        return NearestWarehouseResponse.builder()
+                .warehouseId(warehouse.id())
+                .warehouseCode(warehouse.code())
+                .warehouseName(warehouse.name())
+                .warehouseLocation(LocationResponse.builder()
+                        .lat(warehouse.latitude())
+                        .lng(warehouse.longitude())
+                        .build())
+                .distanceKm(Math.round(distanceKm * 100.0) / 100.0) // Round to 2 decimals
+                .build();
+    }
 }
@@ -0,0 +1,28 @@
+package com.jumbotail.shipping.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for batch shipping charge calculation.
+ * Items are validated individually so one bad line does not reject the batch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request for calculating many seller-to-customer shipping charges at once")
+public class BatchShippingCalculateRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 10000, message = "A batch cannot contain more than 10000 items")
+    @Schema(description = "Quote requests, evaluated independently", required = true)
+    private List<ShippingCalculateRequest> items;
+}
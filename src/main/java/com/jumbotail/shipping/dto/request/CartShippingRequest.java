@@ -0,0 +1,65 @@
+package com.jumbotail.shipping.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for quoting a whole cart to one customer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request for calculating consolidated shipping charges for a cart")
+public class CartShippingRequest {
+
+    @NotNull(message = "Customer ID is required")
+    @Schema(description = "Customer's database ID", example = "1", required = true)
+    private Long customerId;
+
+    @NotBlank(message = "Delivery speed is required")
+    @Pattern(regexp = "^(STANDARD|EXPRESS|standard|express)$", message = "Delivery speed must be either 'STANDARD' or 'EXPRESS'")
+    @Schema(description = "Delivery speed option", example = "STANDARD", allowableValues = { "STANDARD",
+            "EXPRESS" }, required = true)
+    private String deliverySpeed;
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 500, message = "A cart cannot contain more than 500 lines")
+    @Valid
+    @Schema(description = "Cart lines; repeated products are merged", required = true)
+    private List<Item> items;
+
+    /**
+     * One cart line.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Product and quantity in a cart")
+    public static class Item {
+
+        @NotNull(message = "Product ID is required")
+        @Schema(description = "Product's database ID", example = "1", required = true)
+        private Long productId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        @Max(value = 10000, message = "Quantity cannot exceed 10000")
+        @Schema(description = "Number of units", example = "12", required = true)
+        private Integer quantity;
+    }
+}
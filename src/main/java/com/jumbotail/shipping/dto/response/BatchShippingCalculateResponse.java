@@ -0,0 +1,32 @@
+package com.jumbotail.shipping.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for the batch shipping calculation API.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch shipping calculation response, one result per request item")
+public class BatchShippingCalculateResponse {
+
+    @Schema(description = "Number of items in the request", example = "3")
+    private Integer totalCount;
+
+    @Schema(description = "Number of items quoted successfully", example = "2")
+    private Integer successCount;
+
+    @Schema(description = "Number of items that failed", example = "1")
+    private Integer errorCount;
+
+    @Schema(description = "Per-item results in request order")
+    private List<BatchShippingItemResponse> results;
+}
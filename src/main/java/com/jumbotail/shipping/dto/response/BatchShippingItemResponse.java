@@ -0,0 +1,32 @@
+package com.jumbotail.shipping.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for a single item of a batch shipping calculation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one batch item: a quote or an error")
+public class BatchShippingItemResponse {
+
+    @Schema(description = "Position of the item in the request", example = "0")
+    private Long index;
+
+    @Schema(description = "HTTP status describing the item outcome", example = "200")
+    private Integer status;
+
+    @Schema(description = "Calculated quote, present when status is 200")
+    private ShippingCalculateResponse quote;
+
+    @Schema(description = "Error message, present when the item failed", example = "Seller not found with id: '99'")
+    private String error;
+}
@@ -0,0 +1,78 @@
+package com.jumbotail.shipping.dto.response;
+
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.enums.TransportMode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Response DTO for a cart quote.
+ * One shipment per warehouse the cart's sellers drop their items at.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Consolidated shipping charges for a cart")
+public class CartShippingResponse {
+
+    @Schema(description = "Total shipping charge over all shipments in INR", example = "3120.00")
+    private BigDecimal totalCharge;
+
+    @Schema(description = "Delivery speed used for calculation", example = "STANDARD")
+    private DeliverySpeed deliverySpeed;
+
+    @Schema(description = "One consolidated shipment per warehouse")
+    private List<Shipment> shipments;
+
+    @Schema(description = "Currency code", example = "INR")
+    @Builder.Default
+    private String currency = "INR";
+
+    /**
+     * Items consolidated at one warehouse and shipped together.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Items consolidated at one warehouse and shipped together")
+    public static class Shipment {
+
+        @Schema(description = "Shipping charge for the shipment in INR", example = "2510.00")
+        private BigDecimal shippingCharge;
+
+        @Schema(description = "Warehouse the shipment leaves from; distanceKm is the longest seller leg")
+        private NearestWarehouseResponse warehouse;
+
+        @Schema(description = "Sellers dropping items at the warehouse", example = "[1, 4]")
+        private List<Long> sellerIds;
+
+        @Schema(description = "Products in the shipment", example = "[1, 2]")
+        private List<Long> productIds;
+
+        @Schema(description = "Total number of units", example = "12")
+        private Integer unitCount;
+
+        @Schema(description = "Total actual weight in kg", example = "12.5")
+        private Double actualWeightKg;
+
+        @Schema(description = "Total volumetric weight in kg", example = "9.6")
+        private Double volumetricWeightKg;
+
+        @Schema(description = "Weight charged: the greater of actual and volumetric", example = "12.5")
+        private Double chargeableWeightKg;
+
+        @Schema(description = "Transport mode selected based on distance", example = "AEROPLANE")
+        private TransportMode transportMode;
+
+        @Schema(description = "Distance from warehouse to customer in km", example = "845.32")
+        private Double distanceKm;
+    }
+}
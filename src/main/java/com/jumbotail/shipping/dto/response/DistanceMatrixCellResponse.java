@@ -0,0 +1,52 @@
+package com.jumbotail.shipping.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Response DTO for one warehouse-customer cell of the distance matrix.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Materialized distance and unit charges between a warehouse and a customer")
+public class DistanceMatrixCellResponse {
+
+    @Schema(description = "Warehouse database ID", example = "1")
+    private Long warehouseId;
+
+    @Schema(description = "Customer database ID", example = "1")
+    private Long customerId;
+
+    @Schema(description = "Distance from warehouse to customer in kilometers", example = "845.32")
+    private Double distanceKm;
+
+    @Schema(description = "Transport mode used for this distance", example = "AEROPLANE")
+    private String transportMode;
+
+    @Schema(description = "Unit charges per delivery speed; charge = baseCharge + chargePerKg x weight")
+    private Map<String, UnitCharge> unitCharges;
+
+    /**
+     * Linear charge for one delivery speed.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Fixed and per-kilogram charge for one delivery speed")
+    public static class UnitCharge {
+
+        @Schema(description = "Fixed charge in INR", example = "10.0")
+        private Double baseCharge;
+
+        @Schema(description = "Charge per kilogram in INR", example = "846.52")
+        private Double chargePerKg;
+    }
+}
@@ -0,0 +1,70 @@
+package com.jumbotail.shipping.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response DTO for the rate card in use.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Distance bands and courier surcharges used for quoting")
+public class RateCardResponse {
+
+    @Schema(description = "Rate card version, incremented on every change", example = "1")
+    private Long version;
+
+    @Schema(description = "Where the rates were read from: config or database", example = "config")
+    private String source;
+
+    @Schema(description = "Distance bands in ascending order of minimum distance")
+    private List<Band> bands;
+
+    @Schema(description = "Courier surcharges per delivery speed")
+    private Map<String, Surcharge> surcharges;
+
+    /**
+     * Rate for shipments of at least a minimum distance.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Rate for shipments of at least a minimum distance")
+    public static class Band {
+
+        @Schema(description = "Shortest distance in kilometers the band covers", example = "100.0")
+        private Double minDistanceKm;
+
+        @Schema(description = "Transport mode for the band", example = "TRUCK")
+        private String transportMode;
+
+        @Schema(description = "Charge per kilometer per kilogram in INR", example = "2.0")
+        private Double ratePerKmPerKg;
+    }
+
+    /**
+     * Charge added for a delivery speed.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Charge added for a delivery speed")
+    public static class Surcharge {
+
+        @Schema(description = "Flat courier charge in INR", example = "10.0")
+        private Double baseCourierCharge;
+
+        @Schema(description = "Additional charge per kilogram in INR", example = "1.2")
+        private Double extraChargePerKg;
+    }
+}
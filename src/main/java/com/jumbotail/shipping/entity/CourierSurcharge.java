@@ -0,0 +1,76 @@
+package com.jumbotail.shipping.entity;
+
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the courier surcharge for a delivery speed.
+ * An active surcharge replaces the configured {@code shipping.delivery.*}
+ * rates for its speed.
+ */
+@Entity
+@Table(name = "courier_surcharges")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class CourierSurcharge {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    /**
+     * Delivery speed the surcharge applies to.
+     */
+    @NotNull(message = "Delivery speed is required")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, unique = true, length = 20)
+    private DeliverySpeed deliverySpeed;
+
+    /**
+     * Flat courier charge per shipment in INR.
+     */
+    @NotNull(message = "Base courier charge is required")
+    @DecimalMin(value = "0.0", message = "Base courier charge cannot be negative")
+    @Column(nullable = false)
+    private Double baseCourierCharge;
+
+    /**
+     * Additional charge per kilogram in INR.
+     */
+    @NotNull(message = "Extra charge per kg is required")
+    @DecimalMin(value = "0.0", message = "Extra charge per kg cannot be negative")
+    @Column(nullable = false)
+    private Double extraChargePerKg;
+
+    /**
+     * Whether the surcharge is part of the rate card.
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean isActive = true;
+
+    /**
+     * Timestamp of record creation.
+     */
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Timestamp of last update.
+     */
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
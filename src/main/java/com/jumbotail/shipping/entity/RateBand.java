@@ -0,0 +1,78 @@
+package com.jumbotail.shipping.entity;
+
+import com.jumbotail.shipping.enums.TransportMode;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a distance band of the shipping rate card.
+ * When any band is active, the active bands replace the configured
+ * {@code shipping.transport.*} rates.
+ */
+@Entity
+@Table(name = "rate_bands", indexes = {
+        @Index(name = "idx_rate_band_min_distance", columnList = "minDistanceKm")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RateBand {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    /**
+     * Shortest distance in kilometers the band covers.
+     */
+    @NotNull(message = "Minimum distance is required")
+    @DecimalMin(value = "0.0", message = "Minimum distance cannot be negative")
+    @Column(nullable = false)
+    private Double minDistanceKm;
+
+    /**
+     * Transport mode shipments in the band travel by.
+     */
+    @NotNull(message = "Transport mode is required")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TransportMode transportMode;
+
+    /**
+     * Charge per kilometer per kilogram in INR.
+     */
+    @NotNull(message = "Rate is required")
+    @DecimalMin(value = "0.0", message = "Rate cannot be negative")
+    @Column(nullable = false)
+    private Double ratePerKmPerKg;
+
+    /**
+     * Whether the band is part of the rate card.
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean isActive = true;
+
+    /**
+     * Timestamp of record creation.
+     */
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Timestamp of last update.
+     */
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
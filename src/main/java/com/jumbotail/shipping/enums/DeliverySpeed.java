@@ -4,46 +4,30 @@ import lombok.Getter;
 
 /**
  * Enum representing delivery speed options.
- * Each speed has a base courier charge and an additional per-kg charge.
+ * The courier charges for each speed come from the rate card
+ * ({@code shipping.delivery.*} or the rate tables).
  */
 @Getter
 public enum DeliverySpeed {
 
     /**
      * Standard delivery with normal processing time.
-     * Rs 10 standard courier charge + calculated shipping charge.
      */
-    STANDARD("Standard", 10.0, 0.0, "Regular delivery (3-5 business days)"),
+    STANDARD("Standard", "Regular delivery (3-5 business days)"),
 
     /**
      * Express delivery with priority processing.
-     * Rs 10 standard courier charge + Rs 1.2 per kg extra + calculated shipping
-     * charge.
      */
-    EXPRESS("Express", 10.0, 1.2, "Priority delivery (1-2 business days)");
+    EXPRESS("Express", "Priority delivery (1-2 business days)");
 
     private final String displayName;
-    private final double baseCourierCharge;
-    private final double extraChargePerKg;
     private final String description;
 
-    DeliverySpeed(String displayName, double baseCourierCharge, double extraChargePerKg, String description) {
+    DeliverySpeed(String displayName, String description) {
         this.displayName = displayName;
-        this.baseCourierCharge = baseCourierCharge;
-        this.extraChargePerKg = extraChargePerKg;
         this.description = description;
     }
 
-    /**
-     * Calculates the delivery speed surcharge based on weight.
-     * 
-     * @param weightKg weight of the package in kilograms
-     * @return total delivery speed charge (base + weight-based extra)
-     */
-    public double calculateDeliveryCharge(double weightKg) {
-        return baseCourierCharge + (extraChargePerKg * weightKg);
-    }
-
     /**
      * Parses a string value to DeliverySpeed enum (case-insensitive).
      * 
@@ -0,0 +1,37 @@
+package com.jumbotail.shipping.enums;
+
+import lombok.Getter;
+
+/**
+ * Enum representing the accuracy/speed trade-off of a distance calculation.
+ * Each level is served by a different distance engine.
+ */
+@Getter
+public enum DistanceAccuracy {
+
+    /**
+     * Equirectangular projection on a sphere.
+     * Cheapest option, intended for ranking candidates.
+     */
+    APPROXIMATE("Approximate", "Equirectangular approximation for ranking candidates"),
+
+    /**
+     * Haversine great-circle distance on a sphere.
+     * Default for shipping quotes.
+     */
+    STANDARD("Standard", "Spherical Haversine distance for shipping quotes"),
+
+    /**
+     * Vincenty inverse solution on the WGS84 ellipsoid.
+     * Audit-grade accuracy at a higher CPU cost.
+     */
+    GEODESIC("Geodesic", "WGS84 ellipsoidal geodesic for audit-grade distances");
+
+    private final String displayName;
+    private final String description;
+
+    DistanceAccuracy(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+}
@@ -3,66 +3,33 @@ package com.jumbotail.shipping.enums;
 import lombok.Getter;
 
 /**
- * Enum representing different transport modes based on distance.
- * Each mode has a specific rate per km per kg and minimum applicable distance.
+ * Enum representing different transport modes.
+ * The distance band and rate for each mode come from the rate card
+ * ({@code shipping.transport.*} or the rate tables).
  */
 @Getter
 public enum TransportMode {
 
     /**
-     * Air transport for long distances (500+ km).
-     * Rate: Rs 1 per km per kg
+     * Air transport for long distances.
      */
-    AEROPLANE("Aeroplane", 1.0, 500.0, "Air freight for long-distance shipping"),
+    AEROPLANE("Aeroplane", "Air freight for long-distance shipping"),
 
     /**
-     * Truck transport for medium distances (100-500 km).
-     * Rate: Rs 2 per km per kg
+     * Truck transport for medium distances.
      */
-    TRUCK("Truck", 2.0, 100.0, "Road freight via truck for medium distances"),
+    TRUCK("Truck", "Road freight via truck for medium distances"),
 
     /**
-     * Mini van transport for short distances (0-100 km).
-     * Rate: Rs 3 per km per kg
+     * Mini van transport for short distances.
      */
-    MINI_VAN("Mini Van", 3.0, 0.0, "Local delivery via mini van for short distances");
+    MINI_VAN("Mini Van", "Local delivery via mini van for short distances");
 
     private final String displayName;
-    private final double ratePerKmPerKg;
-    private final double minDistanceKm;
     private final String description;
 
-    TransportMode(String displayName, double ratePerKmPerKg, double minDistanceKm, String description) {
+    TransportMode(String displayName, String description) {
         this.displayName = displayName;
-        this.ratePerKmPerKg = ratePerKmPerKg;
-        this.minDistanceKm = minDistanceKm;
         this.description = description;
     }
-
-    /**
-     * Determines the appropriate transport mode based on distance.
-     * 
-     * @param distanceKm the distance in kilometers
-     * @return the appropriate TransportMode
-     */
-    public static TransportMode getByDistance(double distanceKm) {
-        if (distanceKm >= AEROPLANE.minDistanceKm) {
-            return AEROPLANE;
-        } else if (distanceKm >= TRUCK.minDistanceKm) {
-            return TRUCK;
-        } else {
-            return MINI_VAN;
-        }
-    }
-
-    /**
-     * Calculates the transport charge for given distance and weight.
-     * 
-     * @param distanceKm distance in kilometers
-     * @param weightKg   weight in kilograms
-     * @return calculated charge in Rs
-     */
-    public double calculateCharge(double distanceKm, double weightKg) {
-        return ratePerKmPerKg * distanceKm * weightKg;
-    }
 }
@@ -0,0 +1,33 @@
+package com.jumbotail.shipping.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener that publishes an {@link EntityChangedEvent} for every
+ * insert and update of the entities it is registered on.
+ *
+ * Instantiated by Hibernate through Spring's bean container, so it is not a
+ * component itself. Events are published inside the writing transaction;
+ * transactional listeners receive them after commit, and not at all on
+ * rollback.
+ */
+@Slf4j
+public class EntityChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntityChangePublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onChange(Object entity) {
+        EntityChangedEvent<Object> event = EntityChangedEvent.of(entity);
+        log.debug("Publishing {} change", event.type().getSimpleName());
+        eventPublisher.publishEvent(event);
+    }
+}
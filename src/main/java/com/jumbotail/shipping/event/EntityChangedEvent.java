@@ -0,0 +1,34 @@
+package com.jumbotail.shipping.event;
+
+import org.hibernate.Hibernate;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+/**
+ * Published when a warehouse, seller, customer or product has been inserted
+ * or updated.
+ *
+ * The entity type is exposed as the event's generic type, so a listener can
+ * subscribe to a single type, e.g. {@code EntityChangedEvent<Warehouse>}.
+ * Subscribers use {@code @TransactionalEventListener} so that they only see
+ * changes once the writing transaction has committed.
+ *
+ * @param type   the entity class
+ * @param entity the saved entity
+ * @param <T>    the entity type
+ */
+public record EntityChangedEvent<T>(Class<T> type, T entity) implements ResolvableTypeProvider {
+
+    /**
+     * Creates an event typed by the entity's persistent class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityChangedEvent<T> of(T entity) {
+        return new EntityChangedEvent<>((Class<T>) Hibernate.getClass(entity), entity);
+    }
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(EntityChangedEvent.class, type);
+    }
+}
@@ -0,0 +1,12 @@
+package com.jumbotail.shipping.event;
+
+import com.jumbotail.shipping.service.RateCard;
+
+/**
+ * Published after a new rate card has replaced the previous one.
+ *
+ * @param previous the card that was in use
+ * @param current  the card now in use
+ */
+public record RateCardChangedEvent(RateCard previous, RateCard current) {
+}
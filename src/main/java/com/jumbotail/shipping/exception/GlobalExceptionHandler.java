@@ -4,6 +4,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -19,6 +20,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -228,6 +230,31 @@ public class GlobalExceptionHandler {
                 return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
         }
 
+        /**
+         * Handles work rejected by a saturated executor (503 Service
+         * Unavailable).
+         */
+        @ExceptionHandler(RejectedExecutionException.class)
+        public ResponseEntity<ErrorResponse> handleRejectedExecutionException(
+                        RejectedExecutionException ex, HttpServletRequest request) {
+
+                String traceId = generateTraceId();
+                log.warn("Request rejected, executor saturated [traceId={}]: {}", traceId, ex.getMessage());
+
+                ErrorResponse error = ErrorResponse.builder()
+                                .timestamp(LocalDateTime.now())
+                                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                                .message("Too many concurrent requests, please retry")
+                                .path(request.getRequestURI())
+                                .traceId(traceId)
+                                .build();
+
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body(error);
+        }
+
         /**
          * Handles all other unhandled exceptions (500 Internal Server Error).
          */
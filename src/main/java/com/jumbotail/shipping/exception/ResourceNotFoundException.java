@@ -4,6 +4,10 @@ import org.springframework.http.HttpStatus;
 
 /**
  * Exception thrown when a requested resource is not found.
+ *
+ * Carries no stack trace: it reports a client error, is always handled, and
+ * unknown-ID request storms would otherwise spend most of their time filling
+ * in traces nobody reads.
  */
 public class ResourceNotFoundException extends RuntimeException {
 
@@ -12,14 +16,14 @@ public class ResourceNotFoundException extends RuntimeException {
     private final Object fieldValue;
 
     public ResourceNotFoundException(String resourceName, String fieldName, Object fieldValue) {
-        super(String.format("%s not found with %s: '%s'", resourceName, fieldName, fieldValue));
+        super(String.format("%s not found with %s: '%s'", resourceName, fieldName, fieldValue), null, false, false);
         this.resourceName = resourceName;
         this.fieldName = fieldName;
         this.fieldValue = fieldValue;
     }
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
         this.resourceName = null;
         this.fieldName = null;
         this.fieldValue = null;
@@ -0,0 +1,36 @@
+package com.jumbotail.shipping.geo;
+
+import com.jumbotail.shipping.enums.DistanceAccuracy;
+
+/**
+ * Strategy for computing the distance between two points given in degrees.
+ *
+ * Implementations trade accuracy for speed; each one reports how far its
+ * result may deviate from the WGS84 ellipsoidal distance so callers can
+ * decide when a cheap answer is good enough.
+ */
+public interface DistanceEngine {
+
+    /**
+     * Computes the distance between two points.
+     *
+     * @param lat1 latitude of the first point in degrees
+     * @param lon1 longitude of the first point in degrees
+     * @param lat2 latitude of the second point in degrees
+     * @param lon2 longitude of the second point in degrees
+     * @return distance in kilometers
+     */
+    double distanceKm(double lat1, double lon1, double lat2, double lon2);
+
+    /**
+     * Returns the accuracy level this engine serves.
+     */
+    DistanceAccuracy accuracy();
+
+    /**
+     * Upper bound on the relative error of {@link #distanceKm} against the
+     * WGS84 geodesic, for distances within the Indian subcontinent.
+     * For example, 0.005 means the result is within ±0.5%.
+     */
+    double maxRelativeError();
+}
@@ -0,0 +1,44 @@
+package com.jumbotail.shipping.geo;
+
+import com.jumbotail.shipping.enums.DistanceAccuracy;
+
+/**
+ * Equirectangular approximation on a sphere.
+ *
+ * Treats the short path between two points as a straight line on a plane
+ * scaled by the cosine of the mean latitude. Needs a single cosine and a
+ * square root per pair, which makes it suitable for ranking candidates, but
+ * the error grows with distance and latitude span.
+ */
+public final class EquirectangularDistanceEngine implements DistanceEngine {
+
+    @Override
+    public double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
+        double deltaLonRad = Math.toRadians(lon2 - lon1);
+
+        // Take the short way around the antimeridian
+        if (deltaLonRad > Math.PI) {
+            deltaLonRad -= 2 * Math.PI;
+        } else if (deltaLonRad < -Math.PI) {
+            deltaLonRad += 2 * Math.PI;
+        }
+
+        double x = deltaLonRad * Math.cos((lat1Rad + lat2Rad) / 2);
+        double y = lat2Rad - lat1Rad;
+        return Math.sqrt(x * x + y * y) * GeoPointArray.EARTH_RADIUS_KM;
+    }
+
+    @Override
+    public DistanceAccuracy accuracy() {
+        return DistanceAccuracy.APPROXIMATE;
+    }
+
+    @Override
+    public double maxRelativeError() {
+        // The spherical error above plus the flattening error, which peaks
+        // on the diagonal across India at 1.061% in total, with margin
+        return 0.015;
+    }
+}
@@ -0,0 +1,355 @@
+package com.jumbotail.shipping.geo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable 3-dimensional k-d tree over points on the unit sphere.
+ *
+ * Latitude/longitude pairs are projected to unit vectors, so the straight-line
+ * (chord) distance between two points grows monotonically with their
+ * great-circle distance. A nearest-neighbour search on chord distance
+ * therefore picks the same point as a Haversine scan, but visits only
+ * O(log n) nodes on average and needs no trigonometry per visited node.
+ *
+ * The tree is stored implicitly: the node for the index range [lo, hi) sits at
+ * the midpoint of the range and splits on axis {@code depth % 3}.
+ *
+ * @param <T> payload stored with each point
+ */
+public final class GeoKdTree<T> {
+
+    private static final int DIMENSIONS = 3;
+
+    private final Object[] values;
+
+    /**
+     * Unit-vector coordinates in tree order, interleaved as x, y, z.
+     */
+    private final double[] coords;
+
+    private GeoKdTree(Object[] values, double[] coords) {
+        this.values = values;
+        this.coords = coords;
+    }
+
+    /**
+     * Builds a balanced tree from the given items.
+     *
+     * @param items     items to index
+     * @param latitude  extracts the latitude in degrees
+     * @param longitude extracts the longitude in degrees
+     * @return a new immutable tree
+     */
+    public static <T> GeoKdTree<T> build(Collection<? extends T> items,
+            ToDoubleFunction<? super T> latitude, ToDoubleFunction<? super T> longitude) {
+        int size = items.size();
+        Object[] values = new Object[size];
+        double[] coords = new double[size * DIMENSIONS];
+
+        int i = 0;
+        for (T item : items) {
+            values[i] = item;
+            toUnitVector(latitude.applyAsDouble(item), longitude.applyAsDouble(item), coords, i * DIMENSIONS);
+            i++;
+        }
+
+        arrange(values, coords, 0, size, 0);
+        return new GeoKdTree<>(values, coords);
+    }
+
+    /**
+     * Returns an empty tree.
+     */
+    public static <T> GeoKdTree<T> empty() {
+        return new GeoKdTree<>(new Object[0], new double[0]);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    /**
+     * Finds the item closest to the given coordinates.
+     *
+     * @param latitude  query latitude in degrees
+     * @param longitude query longitude in degrees
+     * @return the nearest item, or empty if the tree has no items
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<T> nearest(double latitude, double longitude) {
+        if (isEmpty()) {
+            return Optional.empty();
+        }
+
+        double[] query = new double[DIMENSIONS];
+        toUnitVector(latitude, longitude, query, 0);
+
+        Best best = new Best();
+        searchNearest(0, values.length, 0, query, best);
+        return Optional.of((T) values[best.index]);
+    }
+
+    /**
+     * Finds the k items closest to the given coordinates.
+     *
+     * Candidates are kept in a max-heap bounded to k entries; subtrees that
+     * cannot beat the current k-th best are skipped, so only a small part of
+     * the tree is scored.
+     *
+     * @param latitude  query latitude in degrees
+     * @param longitude query longitude in degrees
+     * @param k         maximum number of results
+     * @return up to k items ordered by ascending distance
+     */
+    public List<Neighbor<T>> nearest(double latitude, double longitude, int k) {
+        return search(latitude, longitude, k, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds items within a great-circle radius of the given coordinates.
+     *
+     * @param latitude  query latitude in degrees
+     * @param longitude query longitude in degrees
+     * @param radiusKm  search radius in kilometers
+     * @param limit     maximum number of results; the closest are kept
+     * @return matching items ordered by ascending distance
+     */
+    public List<Neighbor<T>> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        return search(latitude, longitude, limit, GeoPointArray.squaredChordForKm(radiusKm));
+    }
+
+    /**
+     * Returns all items in tree order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> values() {
+        List<T> result = new ArrayList<>(values.length);
+        for (Object value : values) {
+            result.add((T) value);
+        }
+        return result;
+    }
+
+    private void searchNearest(int lo, int hi, int depth, double[] query, Best best) {
+        if (lo >= hi) {
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        double distance = squaredChord(mid, query);
+        if (distance < best.squaredChord) {
+            best.squaredChord = distance;
+            best.index = mid;
+        }
+
+        int axis = depth % DIMENSIONS;
+        double delta = query[axis] - coords[mid * DIMENSIONS + axis];
+
+        // Descend into the side containing the query first, then visit the
+        // other side only if the splitting plane is closer than the best hit.
+        if (delta < 0) {
+            searchNearest(lo, mid, depth + 1, query, best);
+            if (delta * delta < best.squaredChord) {
+                searchNearest(mid + 1, hi, depth + 1, query, best);
+            }
+        } else {
+            searchNearest(mid + 1, hi, depth + 1, query, best);
+            if (delta * delta < best.squaredChord) {
+                searchNearest(lo, mid, depth + 1, query, best);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Neighbor<T>> search(double latitude, double longitude, int k, double maxSquaredChord) {
+        if (isEmpty() || k <= 0) {
+            return Collections.emptyList();
+        }
+
+        double[] query = new double[DIMENSIONS];
+        toUnitVector(latitude, longitude, query, 0);
+
+        Bounded bounded = new Bounded(Math.min(k, values.length), maxSquaredChord);
+        searchBounded(0, values.length, 0, query, bounded);
+
+        List<Neighbor<T>> result = new ArrayList<>(bounded.heap.size());
+        while (!bounded.heap.isEmpty()) {
+            Candidate candidate = bounded.heap.poll();
+            result.add(new Neighbor<>((T) values[candidate.index], GeoPointArray.chordToKm(candidate.squaredChord)));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void searchBounded(int lo, int hi, int depth, double[] query, Bounded bounded) {
+        if (lo >= hi) {
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        bounded.offer(mid, squaredChord(mid, query));
+
+        int axis = depth % DIMENSIONS;
+        double delta = query[axis] - coords[mid * DIMENSIONS + axis];
+
+        if (delta < 0) {
+            searchBounded(lo, mid, depth + 1, query, bounded);
+            if (delta * delta <= bounded.bound()) {
+                searchBounded(mid + 1, hi, depth + 1, query, bounded);
+            }
+        } else {
+            searchBounded(mid + 1, hi, depth + 1, query, bounded);
+            if (delta * delta <= bounded.bound()) {
+                searchBounded(lo, mid, depth + 1, query, bounded);
+            }
+        }
+    }
+
+    private double squaredChord(int node, double[] query) {
+        int offset = node * DIMENSIONS;
+        double dx = coords[offset] - query[0];
+        double dy = coords[offset + 1] - query[1];
+        double dz = coords[offset + 2] - query[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Converts latitude/longitude in degrees to a unit vector written at the
+     * given offset.
+     */
+    static void toUnitVector(double latitude, double longitude, double[] target, int offset) {
+        double latRad = Math.toRadians(latitude);
+        double lonRad = Math.toRadians(longitude);
+        double cosLat = Math.cos(latRad);
+        target[offset] = cosLat * Math.cos(lonRad);
+        target[offset + 1] = cosLat * Math.sin(lonRad);
+        target[offset + 2] = Math.sin(latRad);
+    }
+
+    /**
+     * Recursively places the median of each range at its midpoint so that the
+     * implicit layout forms a balanced tree.
+     */
+    private static void arrange(Object[] values, double[] coords, int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(values, coords, lo, hi - 1, mid, depth % DIMENSIONS);
+        arrange(values, coords, lo, mid, depth + 1);
+        arrange(values, coords, mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Quickselect: partially orders [left, right] so that position k holds the
+     * element it would hold if the range were sorted on the given axis.
+     */
+    private static void select(Object[] values, double[] coords, int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coords[((left + right) >>> 1) * DIMENSIONS + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coords[i * DIMENSIONS + axis] < pivot) {
+                    i++;
+                }
+                while (coords[j * DIMENSIONS + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, coords, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(Object[] values, double[] coords, int a, int b) {
+        Object value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double coord = coords[a * DIMENSIONS + d];
+            coords[a * DIMENSIONS + d] = coords[b * DIMENSIONS + d];
+            coords[b * DIMENSIONS + d] = coord;
+        }
+    }
+
+    /**
+     * Mutable holder for the best candidate found during a search.
+     */
+    private static final class Best {
+        private int index = -1;
+        private double squaredChord = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Max-heap of the best candidates seen so far, bounded by count and by
+     * radius.
+     */
+    private static final class Bounded {
+        private final int capacity;
+        private final double maxSquaredChord;
+        private final PriorityQueue<Candidate> heap;
+
+        private Bounded(int capacity, double maxSquaredChord) {
+            this.capacity = capacity;
+            this.maxSquaredChord = maxSquaredChord;
+            this.heap = new PriorityQueue<>(capacity + 1,
+                    Comparator.comparingDouble((Candidate c) -> c.squaredChord).reversed());
+        }
+
+        private void offer(int index, double squaredChord) {
+            if (squaredChord > maxSquaredChord) {
+                return;
+            }
+            if (heap.size() < capacity) {
+                heap.add(new Candidate(index, squaredChord));
+            } else if (squaredChord < heap.peek().squaredChord) {
+                heap.poll();
+                heap.add(new Candidate(index, squaredChord));
+            }
+        }
+
+        /**
+         * Squared chord distance a subtree must beat to contribute a result.
+         */
+        private double bound() {
+            if (heap.size() < capacity) {
+                return maxSquaredChord;
+            }
+            return Math.min(maxSquaredChord, heap.peek().squaredChord);
+        }
+    }
+
+    private record Candidate(int index, double squaredChord) {
+    }
+
+    /**
+     * A search result with its great-circle distance from the query point.
+     *
+     * @param value      the indexed item
+     * @param distanceKm distance from the query in kilometers
+     */
+    public record Neighbor<T>(T value, double distanceKm) {
+    }
+}
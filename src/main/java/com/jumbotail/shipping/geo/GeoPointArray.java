@@ -0,0 +1,178 @@
+package com.jumbotail.shipping.geo;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable structure-of-arrays batch of points on the unit sphere, with
+ * kernels that compute distances from one origin to every point.
+ *
+ * Each point is stored once as the unit vector (cos φ cos λ, cos φ sin λ,
+ * sin φ), so the per-point trigonometry is paid at construction time. The
+ * Haversine term for a pair is then a quarter of the squared chord between
+ * their unit vectors:
+ *
+ * <pre>
+ * a = sin²(Δφ/2) + cos φ1 cos φ2 sin²(Δλ/2) = |p1 - p2|² / 4
+ * </pre>
+ *
+ * The inner loops only multiply and add over flat {@code double[]} arrays, so
+ * HotSpot can compile them to SIMD instructions, and ranking needs no
+ * trigonometry at all. Only distances that are actually returned pay for the
+ * final {@code asin}.
+ */
+public final class GeoPointArray {
+
+    /**
+     * Mean Earth radius in kilometers used by the spherical model.
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+
+    private GeoPointArray(double[] xs, double[] ys, double[] zs) {
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+    }
+
+    /**
+     * Creates a batch from parallel latitude and longitude arrays in degrees.
+     *
+     * @param latitudes  latitudes in degrees
+     * @param longitudes longitudes in degrees
+     * @return a new batch
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static GeoPointArray of(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Latitude and longitude arrays must have the same length");
+        }
+
+        int size = latitudes.length;
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        double[] zs = new double[size];
+        for (int i = 0; i < size; i++) {
+            double latRad = Math.toRadians(latitudes[i]);
+            double lonRad = Math.toRadians(longitudes[i]);
+            double cosLat = Math.cos(latRad);
+            xs[i] = cosLat * Math.cos(lonRad);
+            ys[i] = cosLat * Math.sin(lonRad);
+            zs[i] = Math.sin(latRad);
+        }
+        return new GeoPointArray(xs, ys, zs);
+    }
+
+    /**
+     * Creates a batch from a list of items.
+     *
+     * @param items     items in the order their distances should be reported
+     * @param latitude  extracts the latitude in degrees
+     * @param longitude extracts the longitude in degrees
+     * @return a new batch
+     */
+    public static <T> GeoPointArray of(List<? extends T> items,
+            ToDoubleFunction<? super T> latitude, ToDoubleFunction<? super T> longitude) {
+        double[] latitudes = new double[items.size()];
+        double[] longitudes = new double[items.size()];
+        for (int i = 0; i < latitudes.length; i++) {
+            T item = items.get(i);
+            latitudes[i] = latitude.applyAsDouble(item);
+            longitudes[i] = longitude.applyAsDouble(item);
+        }
+        return of(latitudes, longitudes);
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * Writes the squared chord from the origin to every point into
+     * {@code out}. Smaller values are closer.
+     *
+     * @param latitude  origin latitude in degrees
+     * @param longitude origin longitude in degrees
+     * @param out       destination, at least {@link #size()} long
+     */
+    public void squaredChordsFrom(double latitude, double longitude, double[] out) {
+        double latRad = Math.toRadians(latitude);
+        double lonRad = Math.toRadians(longitude);
+        double cosLat = Math.cos(latRad);
+        double qx = cosLat * Math.cos(lonRad);
+        double qy = cosLat * Math.sin(lonRad);
+        double qz = Math.sin(latRad);
+
+        double[] x = xs;
+        double[] y = ys;
+        double[] z = zs;
+        for (int i = 0; i < x.length; i++) {
+            double dx = x[i] - qx;
+            double dy = y[i] - qy;
+            double dz = z[i] - qz;
+            out[i] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    /**
+     * Computes the great-circle distance from the origin to every point.
+     *
+     * @param latitude  origin latitude in degrees
+     * @param longitude origin longitude in degrees
+     * @return distances in kilometers, in point order
+     */
+    public double[] distancesKmFrom(double latitude, double longitude) {
+        double[] result = new double[size()];
+        squaredChordsFrom(latitude, longitude, result);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = chordToKm(result[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the point closest to the origin.
+     *
+     * @param latitude  origin latitude in degrees
+     * @param longitude origin longitude in degrees
+     * @return index of the nearest point, or -1 if the batch is empty
+     */
+    public int nearestTo(double latitude, double longitude) {
+        double[] chords = new double[size()];
+        squaredChordsFrom(latitude, longitude, chords);
+
+        int best = -1;
+        double bestChord = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < chords.length; i++) {
+            if (chords[i] < bestChord) {
+                bestChord = chords[i];
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Converts a squared chord on the unit sphere to a great-circle distance.
+     */
+    public static double chordToKm(double squaredChord) {
+        double halfChord = Math.min(1.0, Math.sqrt(squaredChord) / 2);
+        return 2 * Math.asin(halfChord) * EARTH_RADIUS_KM;
+    }
+
+    /**
+     * Converts a great-circle distance to a squared chord on the unit sphere.
+     * Negative distances map to a negative value that no point can match.
+     */
+    public static double squaredChordForKm(double distanceKm) {
+        if (distanceKm < 0) {
+            return -1;
+        }
+        double angle = Math.min(Math.PI, distanceKm / EARTH_RADIUS_KM);
+        double chord = 2 * Math.sin(angle / 2);
+        return chord * chord;
+    }
+}
@@ -0,0 +1,167 @@
+package com.jumbotail.shipping.geo;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable lookup table from a latitude/longitude grid cell to the item
+ * nearest to every point of that cell.
+ *
+ * Each cell is classified once at build time. With the nearest item at d1 and
+ * the runner-up at d2 from the cell centre, and r the distance from the
+ * centre to the farthest corner, every point of the cell is within d1 + r of
+ * the nearest item and at least d2 - r from any other. If d2 - d1 > 2r the
+ * cell is conclusive and a lookup is a single array read; otherwise the cell
+ * lies near a boundary between items and callers fall back to an exact
+ * search.
+ *
+ * @param <T> payload stored with each point
+ */
+public final class NearestCellGrid<T> {
+
+    private static final int INCONCLUSIVE = -1;
+
+    /**
+     * Safety margin for floating-point error in the conclusiveness test.
+     */
+    private static final double MARGIN_KM = 1e-6;
+
+    private static final DistanceEngine HAVERSINE = new HaversineDistanceEngine();
+
+    private final Bounds bounds;
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+    private final Object[] values;
+
+    /**
+     * Index into {@link #values} per cell, row-major, or {@link #INCONCLUSIVE}.
+     */
+    private final int[] cells;
+
+    private NearestCellGrid(Bounds bounds, double cellDegrees, int rows, int columns, Object[] values,
+            int[] cells) {
+        this.bounds = bounds;
+        this.cellDegrees = cellDegrees;
+        this.rows = rows;
+        this.columns = columns;
+        this.values = values;
+        this.cells = cells;
+    }
+
+    /**
+     * Classifies every cell of the grid against the items of a tree. Rows are
+     * classified in parallel.
+     *
+     * @param tree        items to resolve cells against
+     * @param bounds      area covered by the grid
+     * @param cellDegrees cell edge length in degrees
+     * @return a new immutable grid
+     */
+    public static <T> NearestCellGrid<T> build(GeoKdTree<T> tree, Bounds bounds, double cellDegrees) {
+        if (!(cellDegrees > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellDegrees);
+        }
+
+        int rows = (int) Math.ceil((bounds.maxLatitude() - bounds.minLatitude()) / cellDegrees);
+        int columns = (int) Math.ceil((bounds.maxLongitude() - bounds.minLongitude()) / cellDegrees);
+        int[] cells = new int[rows * columns];
+
+        List<T> items = tree.values();
+        Map<T, Integer> positions = new IdentityHashMap<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            positions.put(items.get(i), i);
+        }
+
+        IntStream.range(0, rows).parallel().forEach(row -> {
+            double south = bounds.minLatitude() + row * cellDegrees;
+            for (int column = 0; column < columns; column++) {
+                double west = bounds.minLongitude() + column * cellDegrees;
+                cells[row * columns + column] = classify(tree, positions, south, west, cellDegrees);
+            }
+        });
+
+        return new NearestCellGrid<>(bounds, cellDegrees, rows, columns, items.toArray(), cells);
+    }
+
+    /**
+     * Returns the item nearest to every point of the cell containing the
+     * coordinates.
+     *
+     * @param latitude  query latitude in degrees
+     * @param longitude query longitude in degrees
+     * @return the nearest item, or null if the point is outside the grid or
+     *         its cell is inconclusive
+     */
+    @SuppressWarnings("unchecked")
+    public T nearest(double latitude, double longitude) {
+        int row = (int) Math.floor((latitude - bounds.minLatitude()) / cellDegrees);
+        int column = (int) Math.floor((longitude - bounds.minLongitude()) / cellDegrees);
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return null;
+        }
+
+        int value = cells[row * columns + column];
+        return value == INCONCLUSIVE ? null : (T) values[value];
+    }
+
+    public int cellCount() {
+        return cells.length;
+    }
+
+    /**
+     * Number of cells answered without an exact search.
+     */
+    public int conclusiveCount() {
+        int count = 0;
+        for (int cell : cells) {
+            if (cell != INCONCLUSIVE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static <T> int classify(GeoKdTree<T> tree, Map<T, Integer> positions, double south, double west,
+            double cellDegrees) {
+        double centreLatitude = south + cellDegrees / 2;
+        double centreLongitude = west + cellDegrees / 2;
+
+        List<GeoKdTree.Neighbor<T>> neighbors = tree.nearest(centreLatitude, centreLongitude, 2);
+        if (neighbors.isEmpty()) {
+            return INCONCLUSIVE;
+        }
+
+        int nearest = positions.get(neighbors.get(0).value());
+        if (neighbors.size() == 1) {
+            return nearest;
+        }
+
+        double radiusKm = cornerRadiusKm(centreLatitude, centreLongitude, south, west, cellDegrees);
+        double gapKm = neighbors.get(1).distanceKm() - neighbors.get(0).distanceKm();
+        return gapKm > 2 * radiusKm + MARGIN_KM ? nearest : INCONCLUSIVE;
+    }
+
+    /**
+     * Distance from a cell's centre to its farthest point, which for a
+     * latitude/longitude cell is one of its corners.
+     */
+    private static double cornerRadiusKm(double centreLatitude, double centreLongitude, double south,
+            double west, double cellDegrees) {
+        double north = south + cellDegrees;
+        double east = west + cellDegrees;
+        return Math.max(
+                Math.max(HAVERSINE.distanceKm(centreLatitude, centreLongitude, south, west),
+                        HAVERSINE.distanceKm(centreLatitude, centreLongitude, south, east)),
+                Math.max(HAVERSINE.distanceKm(centreLatitude, centreLongitude, north, west),
+                        HAVERSINE.distanceKm(centreLatitude, centreLongitude, north, east)));
+    }
+
+    /**
+     * Area covered by a grid, in degrees.
+     */
+    public record Bounds(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.jumbotail.shipping.geo;
+
+import com.jumbotail.shipping.enums.DistanceAccuracy;
+
+/**
+ * Geodesic distance on the WGS84 ellipsoid using Vincenty's inverse formula.
+ *
+ * Accurate to well under a millimetre for any pair that converges. Vincenty
+ * can fail to converge for nearly antipodal points, which never occur within
+ * India; in that case the spherical Haversine result is returned instead.
+ */
+public final class VincentyDistanceEngine implements DistanceEngine {
+
+    /**
+     * WGS84 semi-major axis in meters.
+     */
+    private static final double SEMI_MAJOR_AXIS_M = 6378137.0;
+
+    /**
+     * WGS84 flattening.
+     */
+    private static final double FLATTENING = 1 / 298.257223563;
+
+    /**
+     * WGS84 semi-minor axis in meters.
+     */
+    private static final double SEMI_MINOR_AXIS_M = (1 - FLATTENING) * SEMI_MAJOR_AXIS_M;
+
+    private static final int MAX_ITERATIONS = 200;
+
+    private static final double CONVERGENCE_THRESHOLD = 1e-12;
+
+    private final HaversineDistanceEngine fallback = new HaversineDistanceEngine();
+
+    @Override
+    public double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double l = Math.toRadians(lon2 - lon1);
+        double u1 = Math.atan((1 - FLATTENING) * Math.tan(Math.toRadians(lat1)));
+        double u2 = Math.atan((1 - FLATTENING) * Math.tan(Math.toRadians(lat2)));
+        double sinU1 = Math.sin(u1);
+        double cosU1 = Math.cos(u1);
+        double sinU2 = Math.sin(u2);
+        double cosU2 = Math.cos(u2);
+
+        double lambda = l;
+        double sinSigma;
+        double cosSigma;
+        double sigma;
+        double cosSqAlpha;
+        double cos2SigmaM;
+
+        int iterations = 0;
+        double previousLambda;
+        do {
+            double sinLambda = Math.sin(lambda);
+            double cosLambda = Math.cos(lambda);
+            double t1 = cosU2 * sinLambda;
+            double t2 = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+            sinSigma = Math.sqrt(t1 * t1 + t2 * t2);
+            if (sinSigma == 0) {
+                // Coincident points
+                return 0.0;
+            }
+            cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            cosSqAlpha = 1 - sinAlpha * sinAlpha;
+            // Both points on the equator: cos2SigmaM is undefined and unused
+            cos2SigmaM = cosSqAlpha != 0 ? cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha : 0;
+            double c = FLATTENING / 16 * cosSqAlpha * (4 + FLATTENING * (4 - 3 * cosSqAlpha));
+            previousLambda = lambda;
+            lambda = l + (1 - c) * FLATTENING * sinAlpha
+                    * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+        } while (Math.abs(lambda - previousLambda) > CONVERGENCE_THRESHOLD && ++iterations < MAX_ITERATIONS);
+
+        if (iterations >= MAX_ITERATIONS) {
+            return fallback.distanceKm(lat1, lon1, lat2, lon2);
+        }
+
+        double aSq = SEMI_MAJOR_AXIS_M * SEMI_MAJOR_AXIS_M;
+        double bSq = SEMI_MINOR_AXIS_M * SEMI_MINOR_AXIS_M;
+        double uSq = cosSqAlpha * (aSq - bSq) / bSq;
+        double a = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+        double b = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+        double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+                - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+
+        double distanceM = SEMI_MINOR_AXIS_M * a * (sigma - deltaSigma);
+        return distanceM / 1000.0;
+    }
+
+    @Override
+    public DistanceAccuracy accuracy() {
+        return DistanceAccuracy.GEODESIC;
+    }
+
+    @Override
+    public double maxRelativeError() {
+        return 1e-6;
+    }
+}
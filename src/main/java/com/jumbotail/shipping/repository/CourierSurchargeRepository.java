@@ -0,0 +1,19 @@
+package com.jumbotail.shipping.repository;
+
+import com.jumbotail.shipping.entity.CourierSurcharge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for CourierSurcharge entity CRUD operations.
+ */
+@Repository
+public interface CourierSurchargeRepository extends JpaRepository<CourierSurcharge, Long> {
+
+    /**
+     * Find all active courier surcharges.
+     */
+    List<CourierSurcharge> findByIsActiveTrue();
+}
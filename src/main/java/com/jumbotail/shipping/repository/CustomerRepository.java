@@ -2,8 +2,10 @@ package com.jumbotail.shipping.repository;
 
 import com.jumbotail.shipping.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -31,4 +33,15 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      * Find all active customers.
      */
     java.util.List<Customer> findByIsActiveTrue();
+
+    /**
+     * Find customers updated at or after the given time, active or not.
+     */
+    java.util.List<Customer> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    /**
+     * Find the IDs of all customers, active or not.
+     */
+    @Query("SELECT c.id FROM Customer c")
+    java.util.List<Long> findAllIds();
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,4 +41,10 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * Find all active products.
      */
     List<Product> findByIsActiveTrue();
+
+    /**
+     * Find products by database ID together with their sellers, in one query.
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.seller WHERE p.id IN :ids")
+    List<Product> findAllWithSellerByIdIn(@Param("ids") Collection<Long> ids);
 }
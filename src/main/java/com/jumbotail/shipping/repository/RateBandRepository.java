@@ -0,0 +1,19 @@
+package com.jumbotail.shipping.repository;
+
+import com.jumbotail.shipping.entity.RateBand;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for RateBand entity CRUD operations.
+ */
+@Repository
+public interface RateBandRepository extends JpaRepository<RateBand, Long> {
+
+    /**
+     * Find all active distance bands.
+     */
+    List<RateBand> findByIsActiveTrue();
+}
@@ -2,6 +2,7 @@ package com.jumbotail.shipping.repository;
 
 import com.jumbotail.shipping.entity.Seller;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -26,4 +27,10 @@ public interface SellerRepository extends JpaRepository<Seller, Long> {
      * Find all active sellers.
      */
     java.util.List<Seller> findByIsActiveTrue();
+
+    /**
+     * Find the IDs of all sellers, active or not.
+     */
+    @Query("SELECT s.id FROM Seller s")
+    java.util.List<Long> findAllIds();
 }
@@ -1,9 +1,13 @@
 package com.jumbotail.shipping.repository;
 
 import com.jumbotail.shipping.entity.Warehouse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,8 +23,10 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
     Optional<Warehouse> findByWarehouseCode(String warehouseCode);
 
     /**
-     * Find all active warehouses.
+     * Find all active warehouses. The result is held in the query cache
+     * until a warehouse is written.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Warehouse> findByIsActiveTrue();
 
     /**
@@ -32,4 +38,9 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
      * Check if warehouse exists by code.
      */
     boolean existsByWarehouseCode(String warehouseCode);
+
+    /**
+     * Find warehouses updated at or after the given time, active or not.
+     */
+    List<Warehouse> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
 }
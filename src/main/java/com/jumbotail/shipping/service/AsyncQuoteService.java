@@ -0,0 +1,152 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.repository.SellerRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking variants of the warehouse quote and nearest-warehouse lookups
+ * for asynchronous endpoints.
+ *
+ * Once the reference data store and the warehouse index are loaded, both
+ * lookups are pure in-memory computations: they complete on the calling
+ * thread without ever waiting on I/O. Until then they read the database, and
+ * that work is handed to a bounded pool
+ * ({@code shipping.async-quote.blocking-threads}, by default as many threads
+ * as the database connection pool has connections) so request threads are
+ * released rather than parked; when its queue is full the returned future
+ * fails with {@link RejectedExecutionException}.
+ *
+ * Callers inside a transaction are always served on their own thread, since
+ * other threads cannot see the transaction's uncommitted rows.
+ */
+@Service
+@Slf4j
+public class AsyncQuoteService {
+
+    /**
+     * Queued database lookups allowed per pool thread.
+     */
+    private static final int QUEUE_PER_THREAD = 256;
+
+    private final ShippingCalculatorService shippingCalculatorService;
+    private final WarehouseService warehouseService;
+    private final GeoLocationService geoLocationService;
+    private final ReferenceDataStore referenceDataStore;
+    private final WarehouseSpatialIndex warehouseIndex;
+    private final SellerRepository sellerRepository;
+    private final KnownIds knownIds;
+    private final ThreadPoolExecutor blockingExecutor;
+
+    public AsyncQuoteService(ShippingCalculatorService shippingCalculatorService, WarehouseService warehouseService,
+            GeoLocationService geoLocationService, ReferenceDataStore referenceDataStore,
+            WarehouseSpatialIndex warehouseIndex, SellerRepository sellerRepository, KnownIds knownIds,
+            @Value("${shipping.async-quote.blocking-threads:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int blockingThreads) {
+        this.shippingCalculatorService = shippingCalculatorService;
+        this.warehouseService = warehouseService;
+        this.geoLocationService = geoLocationService;
+        this.referenceDataStore = referenceDataStore;
+        this.warehouseIndex = warehouseIndex;
+        this.sellerRepository = sellerRepository;
+        this.knownIds = knownIds;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.blockingExecutor = new ThreadPoolExecutor(blockingThreads, blockingThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(blockingThreads * QUEUE_PER_THREAD),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "async-quote-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.blockingExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Quotes a shipment from a warehouse to a customer.
+     *
+     * @see ShippingCalculatorService#quoteFromWarehouse
+     */
+    public CompletableFuture<ShippingQuote> quoteFromWarehouse(Long warehouseId, Long customerId,
+            DeliverySpeed deliverySpeed, Long productId) {
+        return submit(() -> shippingCalculatorService.quoteFromWarehouse(
+                warehouseId, customerId, deliverySpeed, productId));
+    }
+
+    /**
+     * Finds the nearest active warehouse to a seller, through the same
+     * nearest-warehouse cache as {@link WarehouseService#findNearestWarehouse}.
+     *
+     * @return the warehouse and the seller's distance to it
+     * @throws ResourceNotFoundException (through the future) if the seller does
+     *                                   not exist, has no location, or no
+     *                                   warehouse is active
+     */
+    public CompletableFuture<WarehouseService.WarehouseDistance> nearestWarehouse(Long sellerId) {
+        return submit(() -> {
+            WarehouseSnapshot warehouse = warehouseService.findNearestWarehouse(sellerId,
+                    () -> sellerLocation(sellerId));
+            GeoLocation sellerLocation = sellerLocation(sellerId);
+            return new WarehouseService.WarehouseDistance(warehouse,
+                    geoLocationService.calculateDistanceInKm(sellerLocation, warehouse.location()));
+        });
+    }
+
+    /**
+     * Whether lookups are answered from memory without blocking.
+     */
+    public boolean isInMemory() {
+        return referenceDataStore.current() != null && warehouseIndex.current() != null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        blockingExecutor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> lookup) {
+        if (isInMemory() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                return CompletableFuture.completedFuture(lookup.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        log.debug("Reference data not in memory, offloading lookup");
+        try {
+            return CompletableFuture.supplyAsync(lookup, blockingExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private GeoLocation sellerLocation(Long sellerId) {
+        ReferenceData data = referenceDataStore.current();
+        if (data != null) {
+            return data.sellerLocation(sellerId);
+        }
+
+        Seller seller = knownIds.sellers().find(sellerId, sellerRepository::findById);
+        if (seller.getLocation() == null) {
+            throw QuoteReferenceData.sellerWithoutLocation(sellerId);
+        }
+        return seller.getLocation();
+    }
+}
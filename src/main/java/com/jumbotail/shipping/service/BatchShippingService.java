@@ -0,0 +1,252 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.dto.request.ShippingCalculateRequest;
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Product;
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.exception.InvalidRequestException;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.repository.CustomerRepository;
+import com.jumbotail.shipping.repository.ProductRepository;
+import com.jumbotail.shipping.repository.SellerRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Service for quoting many seller-to-customer shipments in one call.
+ *
+ * Repeated entity IDs are deduplicated. Every distinct seller, customer and
+ * product is read from the reference data store, or, when it is not loaded,
+ * with a single {@code findAllById} per type. Nearest warehouses are resolved
+ * once per distinct seller from the in-memory index. The quotes themselves
+ * need no further database access and are evaluated in parallel.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BatchShippingService {
+
+    /**
+     * Batches smaller than this are evaluated on the calling thread; the
+     * fork/join overhead outweighs the gain.
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final SellerRepository sellerRepository;
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseService warehouseService;
+    private final GeoLocationService geoLocationService;
+    private final ShippingCalculatorService shippingCalculatorService;
+    private final ReferenceDataStore referenceDataStore;
+    private final Validator validator;
+
+    /**
+     * Calculates shipping quotes for a batch of seller-to-customer requests.
+     * A failing item does not fail the batch; its error is reported in place.
+     *
+     * @param requests quote requests
+     * @return one result per request, in request order
+     */
+    @Transactional(readOnly = true)
+    public List<BatchQuoteResult> calculateBatch(List<ShippingCalculateRequest> requests) {
+        log.info("Calculating batch of {} shipping quotes", requests.size());
+
+        BatchContext context = loadContext(requests);
+
+        BatchQuoteResult[] results = new BatchQuoteResult[requests.size()];
+        IntStream indexes = IntStream.range(0, results.length);
+        if (results.length >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> results[i] = evaluate(i, requests.get(i), context));
+
+        log.info("Batch complete: {} quotes from {} distinct sellers", results.length, context.sellerCount());
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Resolves every distinct entity referenced by the batch, from the
+     * reference data store when it is loaded and otherwise with one
+     * {@code findAllById} per type.
+     */
+    private BatchContext loadContext(List<ShippingCalculateRequest> requests) {
+        Set<Long> sellerIds = new HashSet<>();
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (ShippingCalculateRequest request : requests) {
+            if (request == null) {
+                continue;
+            }
+            addIfPresent(sellerIds, request.getSellerId());
+            addIfPresent(customerIds, request.getCustomerId());
+            addIfPresent(productIds, request.getProductId());
+        }
+
+        QuoteParties data = referenceDataStore.current();
+        if (data == null) {
+            data = new PreloadedReferenceData(
+                    byId(sellerRepository.findAllById(sellerIds), Seller::getId),
+                    byId(customerRepository.findAllById(customerIds), Customer::getId),
+                    byId(productRepository.findAllById(productIds), Product::getId));
+        }
+
+        Map<Long, WarehouseSnapshot> nearestWarehouses = new HashMap<>();
+        for (Long sellerId : sellerIds) {
+            GeoLocation location;
+            try {
+                location = data.sellerLocation(sellerId);
+            } catch (ResourceNotFoundException e) {
+                // Reported per item
+                continue;
+            }
+            nearestWarehouses.put(sellerId, warehouseService.findNearestWarehouseToLocation(location));
+        }
+
+        return new BatchContext(data, nearestWarehouses, sellerIds.size());
+    }
+
+    private BatchQuoteResult evaluate(int index, ShippingCalculateRequest request, BatchContext context) {
+        try {
+            return BatchQuoteResult.success(index, quote(request, context));
+        } catch (ResourceNotFoundException e) {
+            return BatchQuoteResult.failure(index, HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (InvalidRequestException | IllegalArgumentException e) {
+            return BatchQuoteResult.failure(index, HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private ShippingQuote quote(ShippingCalculateRequest request, BatchContext context) {
+        if (request == null) {
+            throw new InvalidRequestException("Batch item cannot be null");
+        }
+
+        Set<ConstraintViolation<ShippingCalculateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        DeliverySpeed speed = DeliverySpeed.fromString(request.getDeliverySpeed());
+        QuoteParties data = context.data();
+
+        GeoLocation sellerLocation = data.sellerLocation(request.getSellerId());
+        GeoLocation customerLocation = data.customerLocation(request.getCustomerId());
+
+        double weightKg = request.getProductId() != null
+                ? data.chargeableWeight(request.getProductId())
+                : ShippingCalculatorService.DEFAULT_WEIGHT_KG;
+
+        WarehouseSnapshot warehouse = context.nearestWarehouses().get(request.getSellerId());
+        double sellerToWarehouseKm = geoLocationService.calculateDistanceInKm(sellerLocation, warehouse.location());
+
+        return shippingCalculatorService.buildQuote(warehouse, request.getCustomerId(), customerLocation,
+                sellerToWarehouseKm, weightKg, speed);
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> idOf) {
+        return entities.stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+
+    /**
+     * Reference data and nearest warehouses resolved for a batch.
+     */
+    private record BatchContext(
+            QuoteParties data,
+            Map<Long, WarehouseSnapshot> nearestWarehouses,
+            int sellerCount) {
+    }
+
+    /**
+     * Sellers, customers and products loaded up front for one batch.
+     * Warehouses come from the nearest-warehouse index instead.
+     */
+    private record PreloadedReferenceData(
+            Map<Long, Seller> sellers,
+            Map<Long, Customer> customers,
+            Map<Long, Product> products) implements QuoteParties {
+
+        @Override
+        public GeoLocation sellerLocation(Long sellerId) {
+            Seller seller = sellers.get(sellerId);
+            if (seller == null) {
+                throw new ResourceNotFoundException("Seller", "id", sellerId);
+            }
+            if (seller.getLocation() == null) {
+                throw QuoteReferenceData.sellerWithoutLocation(sellerId);
+            }
+            return seller.getLocation();
+        }
+
+        @Override
+        public GeoLocation customerLocation(Long customerId) {
+            Customer customer = customers.get(customerId);
+            if (customer == null) {
+                throw new ResourceNotFoundException("Customer", "id", customerId);
+            }
+            if (customer.getLocation() == null) {
+                throw QuoteReferenceData.customerWithoutLocation(customer.getCustomerId());
+            }
+            return customer.getLocation();
+        }
+
+        @Override
+        public double chargeableWeight(Long productId) {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+            return product.getChargeableWeight();
+        }
+    }
+
+    /**
+     * Outcome of a single batch item: either a quote or an error.
+     *
+     * @param index        position of the item in the request
+     * @param quote        the quote, or null on failure
+     * @param status       HTTP status describing the outcome
+     * @param errorMessage error description, or null on success
+     */
+    public record BatchQuoteResult(long index, ShippingQuote quote, HttpStatus status, String errorMessage) {
+
+        static BatchQuoteResult success(long index, ShippingQuote quote) {
+            return new BatchQuoteResult(index, Objects.requireNonNull(quote), HttpStatus.OK, null);
+        }
+
+        static BatchQuoteResult failure(long index, HttpStatus status, String errorMessage) {
+            return new BatchQuoteResult(index, null, status, errorMessage);
+        }
+
+        public boolean isSuccess() {
+            return quote != null;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Product;
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.enums.DistanceAccuracy;
+import com.jumbotail.shipping.event.EntityChangedEvent;
+import com.jumbotail.shipping.event.RateCardChangedEvent;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.geo.DistanceEngine;
+import com.jumbotail.shipping.service.QuoteCache.Flow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts exactly the cached nearest-warehouse lookups and quotes that a
+ * committed entity change makes stale, so those regions can run long TTLs.
+ * A new rate card reprices every quote and drops them all.
+ *
+ * Runs after the reference data store and the warehouse index have applied
+ * the same change, so evicted entries are recomputed from current data.
+ * Entries computed from the old data while an eviction runs are not stored
+ * after it.
+ */
+@Component
+@Slf4j
+public class CacheInvalidator {
+
+    private final NearestWarehouseCache nearestWarehouses;
+    private final QuoteCache quoteCache;
+    private final ReferenceDataStore referenceDataStore;
+
+    /**
+     * Haversine. The warehouse spatial index ranks by chord distance, which
+     * orders warehouses the same way: both grow with the central angle.
+     */
+    private final DistanceEngine distanceEngine;
+
+    public CacheInvalidator(NearestWarehouseCache nearestWarehouses, QuoteCache quoteCache,
+            ReferenceDataStore referenceDataStore, GeoLocationService geoLocationService) {
+        this.nearestWarehouses = nearestWarehouses;
+        this.quoteCache = quoteCache;
+        this.referenceDataStore = referenceDataStore;
+        this.distanceEngine = geoLocationService.getEngine(DistanceAccuracy.STANDARD);
+    }
+
+    /**
+     * A warehouse change affects sellers whose cached nearest warehouse is
+     * that warehouse, and sellers it is now at least as close to. Direct
+     * quotes from it are evicted too.
+     */
+    @TransactionalEventListener
+    public void onWarehouseChanged(EntityChangedEvent<Warehouse> event) {
+        Warehouse warehouse = event.entity();
+        long warehouseId = warehouse.getId();
+        WarehouseSnapshot candidate = WarehouseSpatialIndex.isIndexable(warehouse)
+                ? WarehouseSnapshot.of(warehouse)
+                : null;
+        ReferenceData data = referenceDataStore.current();
+
+        int lookups = nearestWarehouses.evictIf((sellerId, nearest) ->
+                displaces(data, sellerId, nearest, warehouseId, candidate));
+        int quotes = quoteCache.evictIf((key, quote) -> key.flow() == Flow.WAREHOUSE
+                ? key.originId() == warehouseId
+                : displaces(data, key.originId(), quote.warehouse(), warehouseId, candidate));
+
+        log.debug("Warehouse {} changed: evicted {} nearest-warehouse lookups and {} quotes",
+                warehouseId, lookups, quotes);
+    }
+
+    /**
+     * A seller change affects its nearest warehouse and its quotes.
+     */
+    @TransactionalEventListener
+    public void onSellerChanged(EntityChangedEvent<Seller> event) {
+        Long sellerId = event.entity().getId();
+        nearestWarehouses.evict(sellerId);
+        int quotes = quoteCache.evictIf((key, quote) -> key.flow() == Flow.SELLER
+                && sellerId.equals(key.originId()));
+
+        log.debug("Seller {} changed: evicted {} quotes", sellerId, quotes);
+    }
+
+    /**
+     * A customer change affects every quote to that customer.
+     */
+    @TransactionalEventListener
+    public void onCustomerChanged(EntityChangedEvent<Customer> event) {
+        Long customerId = event.entity().getId();
+        int quotes = quoteCache.evictIf((key, quote) -> customerId.equals(key.customerId()));
+
+        log.debug("Customer {} changed: evicted {} quotes", customerId, quotes);
+    }
+
+    /**
+     * A product change affects every quote for that product.
+     */
+    @TransactionalEventListener
+    public void onProductChanged(EntityChangedEvent<Product> event) {
+        Long productId = event.entity().getId();
+        int quotes = quoteCache.evictIf((key, quote) -> productId.equals(key.productId()));
+
+        log.debug("Product {} changed: evicted {} quotes", productId, quotes);
+    }
+
+    /**
+     * A new rate card affects every quote; nearest-warehouse lookups do not
+     * depend on rates.
+     */
+    @EventListener
+    public void onRateCardChanged(RateCardChangedEvent event) {
+        quoteCache.clear();
+
+        log.debug("Rate card v{} replaced v{}: cleared quotes", event.current().version(),
+                event.previous().version());
+    }
+
+    /**
+     * Whether a changed warehouse may replace a seller's nearest warehouse.
+     * Errs towards eviction when the seller's location is not in memory.
+     */
+    private boolean displaces(ReferenceData data, Long sellerId, WarehouseSnapshot nearest,
+            long changedId, WarehouseSnapshot candidate) {
+        if (nearest.id() == changedId) {
+            return true;
+        }
+        if (candidate == null) {
+            return false;
+        }
+        if (data == null) {
+            return true;
+        }
+
+        GeoLocation seller;
+        try {
+            seller = data.sellerLocation(sellerId);
+        } catch (ResourceNotFoundException e) {
+            return true;
+        }
+        return distanceKm(seller, candidate) <= distanceKm(seller, nearest);
+    }
+
+    private double distanceKm(GeoLocation from, WarehouseSnapshot to) {
+        return distanceEngine.distanceKm(from.getLatitude(), from.getLongitude(), to.latitude(), to.longitude());
+    }
+}
@@ -0,0 +1,207 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Product;
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.repository.CustomerRepository;
+import com.jumbotail.shipping.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for quoting a whole cart to one customer.
+ *
+ * All products of the cart are loaded with their sellers in one query. Each
+ * seller drops its items at its nearest warehouse, and the items meeting at
+ * the same warehouse travel to the customer as one shipment, priced once on
+ * its consolidated chargeable weight: the greater of the summed actual and
+ * summed volumetric weights of its units.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CartShippingService {
+
+    private final ProductRepository productRepository;
+    private final CustomerRepository customerRepository;
+    private final WarehouseService warehouseService;
+    private final GeoLocationService geoLocationService;
+    private final ShippingCalculatorService shippingCalculatorService;
+    private final ReferenceDataStore referenceDataStore;
+    private final KnownIds knownIds;
+
+    /**
+     * Quotes a cart to a customer.
+     *
+     * @param customerId    customer database ID
+     * @param deliverySpeed delivery speed option
+     * @param lines         cart lines; repeated products are merged
+     * @return one priced shipment per warehouse and the total charge
+     * @throws ResourceNotFoundException if the customer, a product or a
+     *                                   seller's location is missing
+     */
+    @Transactional(readOnly = true)
+    public CartQuote quoteCart(Long customerId, DeliverySpeed deliverySpeed, List<CartLine> lines) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartLine line : lines) {
+            quantities.merge(line.productId(), line.quantity(), Math::addExact);
+        }
+
+        log.info("Calculating cart shipping: customer={}, speed={}, {} products, {} lines",
+                customerId, deliverySpeed, quantities.size(), lines.size());
+
+        GeoLocation customerLocation = customerLocation(customerId);
+
+        Map<Long, Product> products = productRepository.findAllWithSellerByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Group lines by the nearest warehouse of their seller, resolved once per seller
+        Map<Long, WarehouseSnapshot> nearestWarehouses = new HashMap<>();
+        Map<Long, ShipmentBuilder> shipments = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", entry.getKey());
+            }
+
+            Seller seller = product.getSeller();
+            WarehouseSnapshot warehouse = nearestWarehouses.computeIfAbsent(seller.getId(),
+                    id -> warehouseService.findNearestWarehouseToLocation(sellerLocation(seller)));
+            shipments.computeIfAbsent(warehouse.id(), id -> new ShipmentBuilder(warehouse))
+                    .add(seller, product, entry.getValue());
+        }
+
+        List<CartShipment> priced = new ArrayList<>(shipments.size());
+        long totalChargePaise = 0;
+        for (ShipmentBuilder shipment : shipments.values()) {
+            CartShipment cartShipment = shipment.price(customerId, customerLocation, deliverySpeed);
+            priced.add(cartShipment);
+            totalChargePaise = Math.addExact(totalChargePaise, cartShipment.quote().chargePaise());
+        }
+
+        log.info("Cart quote: {} INR over {} shipments", Paise.toRupees(totalChargePaise), priced.size());
+
+        return new CartQuote(priced, totalChargePaise);
+    }
+
+    private GeoLocation customerLocation(Long customerId) {
+        ReferenceData data = referenceDataStore.current();
+        if (data != null) {
+            return data.customerLocation(customerId);
+        }
+
+        Customer customer = knownIds.customers().find(customerId, customerRepository::findById);
+        if (customer.getLocation() == null) {
+            throw QuoteReferenceData.customerWithoutLocation(customer.getCustomerId());
+        }
+        return customer.getLocation();
+    }
+
+    private static GeoLocation sellerLocation(Seller seller) {
+        if (seller.getLocation() == null) {
+            throw QuoteReferenceData.sellerWithoutLocation(seller.getId());
+        }
+        return seller.getLocation();
+    }
+
+    /**
+     * Volumetric weight of one unit. A product without dimensions is
+     * charged on its actual weight, so that is its volumetric share too.
+     */
+    private static double unitVolumetricWeightKg(Product product) {
+        return product.getDimensions() != null
+                ? product.getDimensions().calculateVolumetricWeightKg()
+                : product.getWeightInKg();
+    }
+
+    /**
+     * Items accumulated for one warehouse.
+     */
+    private final class ShipmentBuilder {
+        private final WarehouseSnapshot warehouse;
+        private final Map<Long, Seller> sellers = new LinkedHashMap<>();
+        private final List<Long> productIds = new ArrayList<>();
+        private int unitCount;
+        private double actualWeightKg;
+        private double volumetricWeightKg;
+
+        ShipmentBuilder(WarehouseSnapshot warehouse) {
+            this.warehouse = warehouse;
+        }
+
+        void add(Seller seller, Product product, int quantity) {
+            sellers.putIfAbsent(seller.getId(), seller);
+            productIds.add(product.getId());
+            unitCount = Math.addExact(unitCount, quantity);
+            actualWeightKg += quantity * product.getWeightInKg();
+            volumetricWeightKg += quantity * unitVolumetricWeightKg(product);
+        }
+
+        CartShipment price(Long customerId, GeoLocation customerLocation, DeliverySpeed deliverySpeed) {
+            double longestSellerLegKm = 0.0;
+            for (Seller seller : sellers.values()) {
+                longestSellerLegKm = Math.max(longestSellerLegKm,
+                        geoLocationService.calculateDistanceInKm(sellerLocation(seller), warehouse.location()));
+            }
+
+            double chargeableWeightKg = Math.max(actualWeightKg, volumetricWeightKg);
+            ShippingQuote quote = shippingCalculatorService.buildQuote(warehouse, customerId, customerLocation,
+                    longestSellerLegKm, chargeableWeightKg, deliverySpeed);
+
+            return new CartShipment(quote, List.copyOf(sellers.keySet()), List.copyOf(productIds), unitCount,
+                    actualWeightKg, volumetricWeightKg);
+        }
+    }
+
+    /**
+     * One cart line.
+     *
+     * @param productId product database ID
+     * @param quantity  number of units
+     */
+    public record CartLine(Long productId, int quantity) {
+    }
+
+    /**
+     * Priced shipments of a cart.
+     *
+     * @param shipments        one shipment per warehouse, in cart order
+     * @param totalChargePaise sum of the shipment charges in paise
+     */
+    public record CartQuote(List<CartShipment> shipments, long totalChargePaise) {
+    }
+
+    /**
+     * Items shipped together from one warehouse.
+     *
+     * @param quote              priced shipment; its seller leg is the longest
+     *                           seller-to-warehouse distance and its weight
+     *                           the consolidated chargeable weight
+     * @param sellerIds          sellers dropping items at the warehouse
+     * @param productIds         products in the shipment
+     * @param unitCount          total number of units
+     * @param actualWeightKg     summed actual weight of the units
+     * @param volumetricWeightKg summed volumetric weight of the units
+     */
+    public record CartShipment(
+            ShippingQuote quote,
+            List<Long> sellerIds,
+            List<Long> productIds,
+            int unitCount,
+            double actualWeightKg,
+            double volumetricWeightKg) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.enums.DistanceAccuracy;
+import com.jumbotail.shipping.geo.DistanceEngine;
+import com.jumbotail.shipping.geo.GeoPointArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable warehouse × customer distance table.
+ *
+ * Warehouses are rows and customers are columns, each kept as a sorted
+ * {@code long[]} of database IDs with parallel coordinate columns; distances
+ * are one row-major {@code double[]}. A lookup is two binary searches and an
+ * array read.
+ *
+ * Every cell remembers the coordinates it was measured between: a lookup
+ * whose coordinates differ from the stored ones misses instead of returning a
+ * stale distance, and a rebuild reuses exactly the cells whose endpoints have
+ * not moved.
+ */
+public final class DistanceMatrix {
+
+    private static final DistanceMatrix EMPTY = new DistanceMatrix(Points.of(List.of()), Points.of(List.of()),
+            new double[0], 0);
+
+    private final Points warehouses;
+    private final Points customers;
+    private final double[] distancesKm;
+
+    /**
+     * Number of cells measured when this version was built; the rest were
+     * copied from the previous version.
+     */
+    private final int measuredCells;
+
+    private DistanceMatrix(Points warehouses, Points customers, double[] distancesKm, int measuredCells) {
+        this.warehouses = warehouses;
+        this.customers = customers;
+        this.distancesKm = distancesKm;
+        this.measuredCells = measuredCells;
+    }
+
+    public static DistanceMatrix empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a matrix over the given endpoints, measuring only cells that the
+     * previous version does not hold for the same coordinates. Rows are built
+     * in parallel. With the Haversine engine, the row of a new or moved
+     * warehouse is measured in one pass over the customers' precomputed unit
+     * vectors ({@link GeoPointArray}) instead of pair by pair.
+     *
+     * @param previous   previous version to reuse cells from
+     * @param warehouses row endpoints
+     * @param customers  column endpoints
+     * @param engine     distance engine for new cells
+     * @return a new immutable matrix
+     */
+    public static DistanceMatrix build(DistanceMatrix previous, Collection<Point> warehouses,
+            Collection<Point> customers, DistanceEngine engine) {
+        Points rows = Points.of(warehouses);
+        Points columns = Points.of(customers);
+        int width = columns.size();
+        double[] distances = new double[rows.size() * width];
+
+        // Previous column per new column, or -1 when the customer is new or moved
+        int[] previousColumns = new int[width];
+        for (int column = 0; column < width; column++) {
+            previousColumns[column] = previous.customers.sameAt(columns, column);
+        }
+
+        GeoPointArray columnPoints = engine.accuracy() == DistanceAccuracy.STANDARD
+                ? GeoPointArray.of(columns.latitudes, columns.longitudes)
+                : null;
+
+        AtomicInteger measured = new AtomicInteger();
+        IntStream.range(0, rows.size()).parallel().forEach(row -> {
+            int previousRow = previous.warehouses.sameAt(rows, row);
+            if (previousRow < 0 && columnPoints != null) {
+                double[] rowKm = columnPoints.distancesKmFrom(rows.latitudes[row], rows.longitudes[row]);
+                System.arraycopy(rowKm, 0, distances, row * width, width);
+                measured.addAndGet(width);
+                return;
+            }
+
+            int rowMeasured = 0;
+            for (int column = 0; column < width; column++) {
+                int previousColumn = previousColumns[column];
+                if (previousRow >= 0 && previousColumn >= 0) {
+                    distances[row * width + column] =
+                            previous.distancesKm[previousRow * previous.customers.size() + previousColumn];
+                } else {
+                    distances[row * width + column] = engine.distanceKm(
+                            rows.latitudes[row], rows.longitudes[row],
+                            columns.latitudes[column], columns.longitudes[column]);
+                    rowMeasured++;
+                }
+            }
+            measured.addAndGet(rowMeasured);
+        });
+
+        return new DistanceMatrix(rows, columns, distances, measured.get());
+    }
+
+    /**
+     * Returns the stored distance between a warehouse and a customer at the
+     * given coordinates.
+     *
+     * @return distance in kilometers, or NaN if either endpoint is not in the
+     *         matrix or has moved since it was measured
+     */
+    public double distanceKm(long warehouseId, double warehouseLatitude, double warehouseLongitude,
+            long customerId, double customerLatitude, double customerLongitude) {
+        int row = warehouses.rowAt(warehouseId, warehouseLatitude, warehouseLongitude);
+        int column = customers.rowAt(customerId, customerLatitude, customerLongitude);
+        if (row < 0 || column < 0) {
+            return Double.NaN;
+        }
+        return distancesKm[row * customers.size() + column];
+    }
+
+    /**
+     * Returns the stored distance between a warehouse and a customer.
+     *
+     * @return distance in kilometers, or NaN if either is not in the matrix
+     */
+    public double distanceKm(long warehouseId, long customerId) {
+        int row = Arrays.binarySearch(warehouses.ids, warehouseId);
+        int column = Arrays.binarySearch(customers.ids, customerId);
+        if (row < 0 || column < 0) {
+            return Double.NaN;
+        }
+        return distancesKm[row * customers.size() + column];
+    }
+
+    /**
+     * Warehouse IDs in row order.
+     */
+    public long[] warehouseIds() {
+        return warehouses.ids.clone();
+    }
+
+    /**
+     * Customer IDs in column order.
+     */
+    public long[] customerIds() {
+        return customers.ids.clone();
+    }
+
+    public int warehouseCount() {
+        return warehouses.size();
+    }
+
+    public int customerCount() {
+        return customers.size();
+    }
+
+    public int measuredCells() {
+        return measuredCells;
+    }
+
+    /**
+     * An endpoint of the matrix.
+     *
+     * @param id        database ID
+     * @param latitude  latitude in degrees
+     * @param longitude longitude in degrees
+     */
+    public record Point(long id, double latitude, double longitude) {
+    }
+
+    /**
+     * Endpoints sorted by ID in parallel primitive columns.
+     */
+    private static final class Points {
+        private final long[] ids;
+        private final double[] latitudes;
+        private final double[] longitudes;
+
+        private Points(long[] ids, double[] latitudes, double[] longitudes) {
+            this.ids = ids;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+        }
+
+        static Points of(Collection<Point> points) {
+            List<Point> sorted = new ArrayList<>(points);
+            sorted.sort(Comparator.comparingLong(Point::id));
+
+            Points result = new Points(new long[sorted.size()], new double[sorted.size()],
+                    new double[sorted.size()]);
+            for (int i = 0; i < sorted.size(); i++) {
+                Point point = sorted.get(i);
+                result.ids[i] = point.id();
+                result.latitudes[i] = point.latitude();
+                result.longitudes[i] = point.longitude();
+            }
+            return result;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        /**
+         * Position of the ID if it is stored with exactly these coordinates,
+         * otherwise -1.
+         */
+        int rowAt(long id, double latitude, double longitude) {
+            int row = Arrays.binarySearch(ids, id);
+            if (row < 0 || latitudes[row] != latitude || longitudes[row] != longitude) {
+                return -1;
+            }
+            return row;
+        }
+
+        /**
+         * Position in this set of the endpoint at {@code index} of another set,
+         * if it is stored here unmoved, otherwise -1.
+         */
+        int sameAt(Points other, int index) {
+            return rowAt(other.ids[index], other.latitudes[index], other.longitudes[index]);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.repository.CustomerRepository;
+import com.jumbotail.shipping.repository.WarehouseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Keeps a materialized {@link DistanceMatrix} between active warehouses and
+ * active customers.
+ *
+ * A background job re-reads only the warehouses and customers whose
+ * {@code updatedAt} has moved since its last run and rebuilds the matrix when
+ * any of them changed, re-measuring only the rows and columns of endpoints
+ * that were added or moved. The quote path reads the current version with no
+ * locking.
+ *
+ * Each table keeps its own watermark, and every run re-reads rows from
+ * {@code watermark-overlap} before it: {@code updatedAt} is stamped when a row
+ * is written, not when it commits, so a transaction that commits after a run
+ * has seen later rows is still picked up by the next one.
+ *
+ * When disabled (e.g. in tests that roll back their data), no matrix is built
+ * and quotes measure every distance.
+ */
+@Component
+@Slf4j
+public class DistanceMatrixStore {
+
+    private final boolean enabled;
+    private final long maxCells;
+    private final Duration overlap;
+    private final WarehouseRepository warehouseRepository;
+    private final CustomerRepository customerRepository;
+    private final GeoLocationService geoLocationService;
+
+    /**
+     * Active located endpoints by database ID. Guarded by {@code this}.
+     */
+    private final Map<Long, DistanceMatrix.Point> warehouses = new HashMap<>();
+    private final Map<Long, DistanceMatrix.Point> customers = new HashMap<>();
+
+    /**
+     * Latest {@code updatedAt} read from each table; the next run re-reads
+     * rows updated at or after it less the overlap. Guarded by {@code this}.
+     */
+    private LocalDateTime warehouseWatermark;
+    private LocalDateTime customerWatermark;
+
+    /**
+     * Whether a build has been attempted. Guarded by {@code this}.
+     */
+    private boolean attempted;
+
+    private volatile DistanceMatrix current;
+
+    public DistanceMatrixStore(@Value("${shipping.distance-matrix.enabled:true}") boolean enabled,
+            @Value("${shipping.distance-matrix.max-cells:2000000}") long maxCells,
+            @Value("${shipping.distance-matrix.watermark-overlap:PT5M}") Duration overlap,
+            WarehouseRepository warehouseRepository, CustomerRepository customerRepository,
+            GeoLocationService geoLocationService) {
+        this.enabled = enabled;
+        this.maxCells = maxCells;
+        this.overlap = overlap;
+        this.warehouseRepository = warehouseRepository;
+        this.customerRepository = customerRepository;
+        this.geoLocationService = geoLocationService;
+    }
+
+    /**
+     * Returns the current matrix, or null if none has been built.
+     */
+    public DistanceMatrix current() {
+        return current;
+    }
+
+    /**
+     * Builds the first matrix once the application has started, ahead of the
+     * startup warm-up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Applies warehouse and customer changes since the last run and rebuilds
+     * the matrix if any endpoint was added, moved or removed.
+     */
+    @Scheduled(initialDelayString = "${shipping.distance-matrix.refresh-interval:PT1M}",
+            fixedDelayString = "${shipping.distance-matrix.refresh-interval:PT1M}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Warehouse> changedWarehouses = warehouseWatermark == null
+                ? warehouseRepository.findByIsActiveTrue()
+                : warehouseRepository.findByUpdatedAtGreaterThanEqual(warehouseWatermark.minus(overlap));
+        List<Customer> changedCustomers = customerWatermark == null
+                ? customerRepository.findByIsActiveTrue()
+                : customerRepository.findByUpdatedAtGreaterThanEqual(customerWatermark.minus(overlap));
+
+        boolean changed = apply(warehouses, changedWarehouses, Warehouse::getId, Warehouse::getIsActive,
+                Warehouse::getLocation);
+        changed |= apply(customers, changedCustomers, Customer::getId, Customer::getIsActive,
+                Customer::getLocation);
+        warehouseWatermark = advance(warehouseWatermark, changedWarehouses, Warehouse::getUpdatedAt);
+        customerWatermark = advance(customerWatermark, changedCustomers, Customer::getUpdatedAt);
+
+        if (!changed && attempted) {
+            return;
+        }
+        attempted = true;
+
+        long cells = (long) warehouses.size() * customers.size();
+        if (cells > maxCells) {
+            log.warn("Distance matrix of {} warehouses x {} customers exceeds {} cells; quotes will measure distances",
+                    warehouses.size(), customers.size(), maxCells);
+            current = null;
+            return;
+        }
+
+        long start = System.nanoTime();
+        DistanceMatrix previous = current != null ? current : DistanceMatrix.empty();
+        DistanceMatrix built = DistanceMatrix.build(previous, warehouses.values(), customers.values(),
+                geoLocationService.getDefaultEngine());
+        current = built;
+
+        log.info("Built distance matrix of {} warehouses x {} customers in {} ms, {} cells measured",
+                built.warehouseCount(), built.customerCount(), (System.nanoTime() - start) / 1_000_000,
+                built.measuredCells());
+    }
+
+    /**
+     * Applies changed rows to an endpoint map.
+     *
+     * @return whether the map changed
+     */
+    private static <T> boolean apply(Map<Long, DistanceMatrix.Point> points, List<T> rows, Function<T, Long> id,
+            Function<T, Boolean> active, Function<T, GeoLocation> location) {
+        boolean changed = false;
+        for (T row : rows) {
+            Long key = id.apply(row);
+            GeoLocation point = location.apply(row);
+            if (Boolean.TRUE.equals(active.apply(row))
+                    && point != null && point.getLatitude() != null && point.getLongitude() != null) {
+                DistanceMatrix.Point next = new DistanceMatrix.Point(key, point.getLatitude(), point.getLongitude());
+                changed |= !next.equals(points.put(key, next));
+            } else {
+                changed |= points.remove(key) != null;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the later of a watermark and the latest {@code updatedAt} among
+     * the rows read.
+     */
+    private static <T> LocalDateTime advance(LocalDateTime watermark, List<T> rows,
+            Function<T, LocalDateTime> updatedAt) {
+        return rows.stream()
+                .map(updatedAt)
+                .filter(Objects::nonNull)
+                .filter(latest -> watermark == null || latest.isAfter(watermark))
+                .max(LocalDateTime::compareTo)
+                .orElse(watermark);
+    }
+}
@@ -0,0 +1,60 @@
+package com.jumbotail.shipping.service;
+
+/**
+ * 64-bit FNV-1a hash over a sequence of values, stable across JVM restarts.
+ *
+ * Used to stamp data that outlives the process with the content it was
+ * derived from; unlike {@link Object#hashCode()}, enums are hashed by name and
+ * nothing depends on identity.
+ */
+final class Fingerprint {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+
+    Fingerprint add(long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * PRIME;
+        }
+        return this;
+    }
+
+    Fingerprint add(double value) {
+        return add(Double.doubleToLongBits(value));
+    }
+
+    Fingerprint add(String value) {
+        if (value == null) {
+            return add(-1L);
+        }
+        add(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * PRIME;
+        }
+        return this;
+    }
+
+    Fingerprint add(Enum<?> value) {
+        return add(value == null ? null : value.name());
+    }
+
+    /**
+     * Adds the names of an enum's constants in declaration order, so data
+     * encoding the constants by ordinal is invalidated when they change.
+     */
+    Fingerprint addConstants(Class<? extends Enum<?>> type) {
+        for (Enum<?> constant : type.getEnumConstants()) {
+            add(constant);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the hash; never zero, which callers use for "no fingerprint".
+     */
+    long value() {
+        return hash == 0 ? 1 : hash;
+    }
+}
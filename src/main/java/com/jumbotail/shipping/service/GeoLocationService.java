@@ -1,29 +1,78 @@
 package com.jumbotail.shipping.service;
 
 import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.enums.DistanceAccuracy;
+import com.jumbotail.shipping.geo.DistanceEngine;
+import com.jumbotail.shipping.geo.EquirectangularDistanceEngine;
+import com.jumbotail.shipping.geo.HaversineDistanceEngine;
+import com.jumbotail.shipping.geo.VincentyDistanceEngine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
 /**
  * Service for geographical calculations.
- * Uses the Haversine formula to calculate distances between two points on
- * Earth.
+ * Delegates distance calculations to pluggable {@link DistanceEngine}s, using
+ * the Haversine formula by default.
  */
 @Service
 @Slf4j
 public class GeoLocationService {
 
+    private final Map<DistanceAccuracy, DistanceEngine> engines;
+
     /**
-     * Earth's radius in kilometers.
+     * Engine used when no accuracy is requested explicitly.
      */
-    private static final double EARTH_RADIUS_KM = 6371.0;
+    private final DistanceEngine defaultEngine;
 
     /**
-     * Calculates the great-circle distance between two geographical points
-     * using the Haversine formula.
+     * Creates a service that uses the Haversine engine by default.
+     */
+    public GeoLocationService() {
+        this(DistanceAccuracy.STANDARD);
+    }
+
+    @Autowired
+    public GeoLocationService(
+            @Value("${shipping.distance.default-accuracy:STANDARD}") DistanceAccuracy defaultAccuracy) {
+        this.engines = new EnumMap<>(DistanceAccuracy.class);
+        register(new EquirectangularDistanceEngine());
+        register(new HaversineDistanceEngine());
+        register(new VincentyDistanceEngine());
+        this.defaultEngine = getEngine(defaultAccuracy);
+    }
+
+    /**
+     * Returns the engine serving the given accuracy level.
      * 
-     * The Haversine formula determines the great-circle distance between two points
-     * on a sphere given their longitudes and latitudes.
+     * @param accuracy requested accuracy
+     * @return the matching engine
+     */
+    public DistanceEngine getEngine(DistanceAccuracy accuracy) {
+        return engines.get(accuracy);
+    }
+
+    /**
+     * Returns the engine used when no accuracy is requested explicitly.
+     */
+    public DistanceEngine getDefaultEngine() {
+        return defaultEngine;
+    }
+
+    /**
+     * Calculates the distance between two geographical points using the
+     * default engine (Haversine great-circle distance unless configured
+     * otherwise).
      * 
      * @param from starting location
      * @param to   destination location
@@ -31,6 +80,24 @@ public class GeoLocationService {
      * @throws IllegalArgumentException if either location is null
      */
     public double calculateDistanceInKm(GeoLocation from, GeoLocation to) {
+        return calculateDistanceInKm(from, to, defaultEngine);
+    }
+
+    /**
+     * Calculates the distance between two geographical points with the engine
+     * for the requested accuracy.
+     * 
+     * @param from     starting location
+     * @param to       destination location
+     * @param accuracy requested accuracy
+     * @return distance in kilometers
+     * @throws IllegalArgumentException if either location is null
+     */
+    public double calculateDistanceInKm(GeoLocation from, GeoLocation to, DistanceAccuracy accuracy) {
+        return calculateDistanceInKm(from, to, getEngine(accuracy));
+    }
+
+    private double calculateDistanceInKm(GeoLocation from, GeoLocation to, DistanceEngine engine) {
         if (from == null || to == null) {
             throw new IllegalArgumentException("Both locations must be provided for distance calculation");
         }
@@ -40,27 +107,81 @@ public class GeoLocationService {
             throw new IllegalArgumentException("Location coordinates cannot be null");
         }
 
-        // Convert degrees to radians
-        double lat1Rad = Math.toRadians(from.getLatitude());
-        double lat2Rad = Math.toRadians(to.getLatitude());
-        double deltaLatRad = Math.toRadians(to.getLatitude() - from.getLatitude());
-        double deltaLonRad = Math.toRadians(to.getLongitude() - from.getLongitude());
+        double distance = engine.distanceKm(
+                from.getLatitude(), from.getLongitude(),
+                to.getLatitude(), to.getLongitude());
+
+        if (log.isDebugEnabled()) {
+            log.debug("Calculated distance from ({}, {}) to ({}, {}): {} km",
+                    from.getLatitude(), from.getLongitude(),
+                    to.getLatitude(), to.getLongitude(),
+                    String.format("%.2f", distance));
+        }
 
-        // Haversine formula
-        double a = Math.sin(deltaLatRad / 2) * Math.sin(deltaLatRad / 2) +
-                Math.cos(lat1Rad) * Math.cos(lat2Rad) *
-                        Math.sin(deltaLonRad / 2) * Math.sin(deltaLonRad / 2);
+        return distance;
+    }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    /**
+     * Finds the candidate closest to the origin, ranking with the cheap
+     * approximate engine and measuring only the winner with the precise one.
+     * 
+     * Candidates whose approximate distance is within the engines' combined
+     * error bound of the best are re-measured too, so the cheap ranking can
+     * never pick the wrong winner. In practice that shortlist is a single
+     * candidate.
+     * 
+     * @param origin     reference location
+     * @param candidates candidates to rank; those without a location are
+     *                   skipped
+     * @param locationOf extracts a candidate's location
+     * @param accuracy   accuracy of the reported distance
+     * @return the closest candidate and its distance, or empty if none has a
+     *         location
+     */
+    public <T> Optional<ClosestMatch<T>> findClosest(GeoLocation origin, Collection<T> candidates,
+            Function<? super T, GeoLocation> locationOf, DistanceAccuracy accuracy) {
+        if (origin == null || origin.getLatitude() == null || origin.getLongitude() == null) {
+            throw new IllegalArgumentException("Origin location coordinates must be provided");
+        }
 
-        double distance = EARTH_RADIUS_KM * c;
+        DistanceEngine ranking = getEngine(DistanceAccuracy.APPROXIMATE);
+        DistanceEngine precise = getEngine(accuracy);
+
+        List<T> located = new ArrayList<>(candidates.size());
+        double[] approximate = new double[candidates.size()];
+        double bestApproximate = Double.POSITIVE_INFINITY;
+        for (T candidate : candidates) {
+            GeoLocation location = locationOf.apply(candidate);
+            if (location == null || location.getLatitude() == null || location.getLongitude() == null) {
+                continue;
+            }
+            double distance = ranking.distanceKm(origin.getLatitude(), origin.getLongitude(),
+                    location.getLatitude(), location.getLongitude());
+            approximate[located.size()] = distance;
+            located.add(candidate);
+            bestApproximate = Math.min(bestApproximate, distance);
+        }
 
-        log.debug("Calculated distance from ({}, {}) to ({}, {}): {} km",
-                from.getLatitude(), from.getLongitude(),
-                to.getLatitude(), to.getLongitude(),
-                String.format("%.2f", distance));
+        if (located.isEmpty()) {
+            return Optional.empty();
+        }
 
-        return distance;
+        // True distance lies within approximate * (1 ± error); anything that
+        // cannot undercut the best candidate's upper bound is discarded
+        double rankingError = ranking.maxRelativeError() + precise.maxRelativeError();
+        double cutoff = bestApproximate * (1 + rankingError) / (1 - rankingError);
+
+        ClosestMatch<T> best = null;
+        for (int i = 0; i < located.size(); i++) {
+            if (approximate[i] > cutoff) {
+                continue;
+            }
+            double distance = calculateDistanceInKm(origin, locationOf.apply(located.get(i)), precise);
+            if (best == null || distance < best.distanceKm()) {
+                best = new ClosestMatch<>(located.get(i), distance);
+            }
+        }
+        return Optional.of(best);
     }
 
     /**
@@ -101,4 +222,14 @@ public class GeoLocationService {
         // Normalize to 0-360 range
         return (bearing + 360) % 360;
     }
+
+    private void register(DistanceEngine engine) {
+        engines.put(engine.accuracy(), engine);
+    }
+
+    /**
+     * Result of a closest-candidate search.
+     */
+    public record ClosestMatch<T>(T candidate, double distanceKm) {
+    }
 }
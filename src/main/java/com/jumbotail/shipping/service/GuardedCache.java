@@ -0,0 +1,118 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.config.CacheEntries;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache region whose misses are computed once per key and whose computed
+ * values are never stored past an eviction that overtook them.
+ *
+ * Every eviction advances an epoch before it removes entries. A computation
+ * reads the epoch before it starts; its value is not stored if the epoch has
+ * moved since, and is removed again if the epoch moves while it is being
+ * stored. A value computed from data a concurrent eviction was meant to drop
+ * therefore never outlives that eviction. The epoch covers the whole region,
+ * so any eviction during a computation skips its store and the next lookup
+ * computes the value again.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class GuardedCache<K, V> {
+
+    private final Cache cache;
+    private final Class<K> keyType;
+    private final Class<V> valueType;
+    private final SingleFlight<K, V> flights;
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * @param cache         the region
+     * @param keyType       type of the region's keys
+     * @param valueType     type of the region's values
+     * @param meterRegistry registry for the coalescing metrics
+     */
+    GuardedCache(Cache cache, Class<K> keyType, Class<V> valueType, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.keyType = keyType;
+        this.valueType = valueType;
+        this.flights = new SingleFlight<>(cache.getName(), meterRegistry);
+    }
+
+    /**
+     * Returns the cached value for the key, or null.
+     */
+    V getIfPresent(K key) {
+        return cache.get(key, valueType);
+    }
+
+    /**
+     * Computes and stores the value of a key that missed. Callers missing on
+     * a key whose value is already being computed wait for that computation
+     * instead of running the loader. The cache is read again once the key's
+     * computation is this caller's, so a caller that missed just before
+     * another caller's computation stored its value gets that value.
+     * Exceptions from the loader propagate unchanged, to every waiting
+     * caller, and nothing is stored.
+     *
+     * @param key    the key that missed
+     * @param loader computes the value
+     * @return the value
+     */
+    V load(K key, Supplier<V> loader) {
+        return flights.run(key, () -> {
+            long started = epoch.get();
+            V cached = getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+            V value = loader.get();
+            store(key, value, started);
+            return value;
+        });
+    }
+
+    /**
+     * Evicts the key.
+     */
+    void evict(K key) {
+        epoch.incrementAndGet();
+        cache.evict(key);
+    }
+
+    /**
+     * Evicts every entry matching the predicate.
+     *
+     * @param stale tested with each key and value
+     * @return number of entries evicted
+     */
+    int evictIf(BiPredicate<K, V> stale) {
+        epoch.incrementAndGet();
+        return CacheEntries.removeIf(cache, (key, value) -> keyType.isInstance(key)
+                && valueType.isInstance(value)
+                && stale.test(keyType.cast(key), valueType.cast(value)));
+    }
+
+    /**
+     * Evicts every entry.
+     */
+    void clear() {
+        epoch.incrementAndGet();
+        cache.clear();
+    }
+
+    private void store(K key, V value, long started) {
+        if (epoch.get() != started) {
+            return;
+        }
+        cache.put(key, value);
+        if (epoch.get() != started) {
+            cache.evict(key);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.jumbotail.shipping.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.event.EntityChangedEvent;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.repository.CustomerRepository;
+import com.jumbotail.shipping.repository.SellerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Answers lookups of seller and customer IDs that do not exist without a
+ * database round trip.
+ *
+ * Each entity type keeps a Bloom filter of the IDs that existed at the last
+ * load, and an expiring, bounded cache of IDs that were recently looked up
+ * and not found. An ID the filter rules out is unknown if it is no higher
+ * than the highest loaded ID; higher IDs may have been created since, on
+ * this node or another, and are looked up. Only misses no higher than the
+ * highest loaded ID enter the negative cache, so an ID created elsewhere
+ * after a client probed it is found on the next lookup. Committed inserts
+ * are added to the filter and drop the ID from the negative cache; the
+ * filters are rebuilt every refresh-interval, keeping inserts committed
+ * while the rebuild reads the IDs.
+ *
+ * When disabled (e.g. in tests that roll back their data), every lookup goes
+ * to the database.
+ */
+@Component
+@Slf4j
+public class KnownIds {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+     * Filters are sized for this many times the loaded IDs, leaving room for
+     * inserts until the next rebuild.
+     */
+    private static final int GROWTH_HEADROOM = 2;
+    private static final int MIN_FILTER_SIZE = 1024;
+
+    private final boolean enabled;
+    private final SellerRepository sellerRepository;
+    private final CustomerRepository customerRepository;
+    private final IdSet sellers;
+    private final IdSet customers;
+
+    public KnownIds(@Value("${shipping.known-ids.enabled:true}") boolean enabled,
+            @Value("${shipping.known-ids.unknown-maximum-size:100000}") long unknownMaximumSize,
+            @Value("${shipping.known-ids.unknown-ttl:PT10M}") Duration unknownTtl,
+            SellerRepository sellerRepository, CustomerRepository customerRepository,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.sellerRepository = sellerRepository;
+        this.customerRepository = customerRepository;
+        this.sellers = new IdSet("Seller", enabled, unknownMaximumSize, unknownTtl, meterRegistry);
+        this.customers = new IdSet("Customer", enabled, unknownMaximumSize, unknownTtl, meterRegistry);
+    }
+
+    /**
+     * Seller IDs.
+     */
+    public IdSet sellers() {
+        return sellers;
+    }
+
+    /**
+     * Customer IDs.
+     */
+    public IdSet customers() {
+        return customers;
+    }
+
+    /**
+     * Loads the ID filters once the application has started, ahead of the
+     * startup warm-up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Rebuilds the ID filters, picking up inserts made by other nodes.
+     */
+    @Scheduled(initialDelayString = "${shipping.known-ids.refresh-interval:PT10M}",
+            fixedDelayString = "${shipping.known-ids.refresh-interval:PT10M}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        sellers.load(sellerRepository::findAllIds);
+        customers.load(customerRepository::findAllIds);
+    }
+
+    /**
+     * Registers a committed seller insert or update.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSellerChanged(EntityChangedEvent<Seller> event) {
+        sellers.changed(event.entity().getId());
+    }
+
+    /**
+     * Registers a committed customer insert or update.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCustomerChanged(EntityChangedEvent<Customer> event) {
+        customers.changed(event.entity().getId());
+    }
+
+    /**
+     * Known and recently missed IDs of one entity type. Counts lookups
+     * answered without the database as
+     * {@code shipping.unknown-ids.rejected{entity}}.
+     */
+    public static final class IdSet {
+
+        private final String resourceName;
+        private final boolean enabled;
+        private final Cache<Long, Boolean> unknown;
+        private final Counter rejected;
+
+        /**
+         * Incremented on every registered change, so a miss read before a
+         * concurrent insert is not cached after it.
+         */
+        private final AtomicLong changes = new AtomicLong();
+
+        private volatile Loaded loaded;
+
+        /**
+         * IDs changed while a load is reading the IDs, or null between loads.
+         */
+        private volatile Queue<Long> changedDuringLoad;
+
+        IdSet(String resourceName, boolean enabled, long unknownMaximumSize, Duration unknownTtl,
+                MeterRegistry meterRegistry) {
+            this.resourceName = resourceName;
+            this.enabled = enabled;
+            this.unknown = Caffeine.newBuilder()
+                    .maximumSize(unknownMaximumSize)
+                    .expireAfterWrite(unknownTtl)
+                    .build();
+            this.rejected = Counter.builder("shipping.unknown-ids.rejected")
+                    .description("ID lookups answered as not found without the database")
+                    .tag("entity", resourceName.toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Looks up an entity, failing fast for IDs known not to exist.
+         *
+         * @param id     the entity's database ID
+         * @param loader reads the entity, typically {@code repository::findById}
+         * @return the entity
+         * @throws ResourceNotFoundException if no entity has the ID
+         */
+        public <T> T find(Long id, Function<Long, Optional<T>> loader) {
+            if (!enabled || id == null) {
+                return loader.apply(id).orElseThrow(() -> notFound(id));
+            }
+            if (isUnknown(id)) {
+                rejected.increment();
+                throw notFound(id);
+            }
+
+            long changesBefore = changes.get();
+            Optional<T> entity = loader.apply(id);
+            if (entity.isPresent()) {
+                return entity.get();
+            }
+            // Higher IDs may be created by another node without an event here
+            Loaded current = loaded;
+            if (current != null && id <= current.highestId()) {
+                unknown.put(id, Boolean.TRUE);
+                if (changes.get() != changesBefore) {
+                    unknown.invalidate(id);
+                }
+            }
+            throw notFound(id);
+        }
+
+        /**
+         * Whether the ID is known not to exist.
+         */
+        boolean isUnknown(long id) {
+            Loaded current = loaded;
+            if (current != null && id <= current.highestId() && !current.filter().mightContain(id)) {
+                return true;
+            }
+            return unknown.getIfPresent(id) != null;
+        }
+
+        /**
+         * Rebuilds the filter from the IDs the query returns. IDs changed
+         * after the query started are added to the new filter too, whether
+         * the query saw them or not.
+         */
+        void load(Supplier<? extends Collection<Long>> query) {
+            Queue<Long> changed = new ConcurrentLinkedQueue<>();
+            changedDuringLoad = changed;
+            LongBloomFilter filter;
+            try {
+                Collection<Long> ids = query.get();
+                filter = new LongBloomFilter(
+                        Math.max(MIN_FILTER_SIZE, ids.size() * GROWTH_HEADROOM), FALSE_POSITIVE_RATE);
+                long highestId = Long.MIN_VALUE;
+                for (Long id : ids) {
+                    filter.add(id);
+                    highestId = Math.max(highestId, id);
+                }
+                loaded = new Loaded(filter, highestId);
+                log.debug("Loaded {} {} IDs up to {}", ids.size(), resourceName.toLowerCase(Locale.ROOT), highestId);
+            } finally {
+                changedDuringLoad = null;
+            }
+            // A change that saw the old filter was queued before the new one
+            // was published; later changes reach the new filter themselves
+            changed.forEach(filter::add);
+        }
+
+        void changed(Long id) {
+            if (id == null) {
+                return;
+            }
+            changes.incrementAndGet();
+            Queue<Long> loading = changedDuringLoad;
+            if (loading != null) {
+                loading.add(id);
+            }
+            Loaded current = loaded;
+            if (current != null) {
+                current.filter().add(id);
+            }
+            unknown.invalidate(id);
+        }
+
+        private ResourceNotFoundException notFound(Long id) {
+            return new ResourceNotFoundException(resourceName, "id", id);
+        }
+    }
+
+    private record Loaded(LongBloomFilter filter, long highestId) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.jumbotail.shipping.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over long values.
+ *
+ * Answers "definitely absent" or "possibly present" in constant time and a
+ * few bits per value: a value that was added is always reported present, and
+ * a value that was not is reported present with roughly the configured
+ * false-positive rate while the filter holds no more than its expected
+ * number of values. Adding is thread-safe and never blocks readers.
+ */
+final class LongBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedValues    number of values the filter is sized for
+     * @param falsePositiveRate false-positive rate at that many values
+     */
+    LongBloomFilter(int expectedValues, double falsePositiveRate) {
+        if (expectedValues <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid Bloom filter sizing: %d values at false-positive rate %s",
+                    expectedValues, falsePositiveRate));
+        }
+        long bits = (long) Math.ceil(-expectedValues * Math.log(falsePositiveRate) / (LN2 * LN2));
+        this.words = new AtomicLongArray((int) Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE));
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedValues * LN2));
+    }
+
+    void add(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1) | 1;
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            combined += hash2;
+            long bit = (combined & Long.MAX_VALUE) % bitCount;
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    boolean mightContain(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1) | 1;
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            combined += hash2;
+            long bit = (combined & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * SplitMix64 finalizer: spreads sequential IDs over the whole bit range.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
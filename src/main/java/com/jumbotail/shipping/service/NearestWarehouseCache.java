@@ -0,0 +1,61 @@
+package com.jumbotail.shipping.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache of nearest-warehouse lookups keyed by seller database ID.
+ *
+ * Lookups and {@link CacheInvalidator} evictions go through the same bean, so
+ * a lookup computed while a seller or warehouse change was being applied is
+ * not stored after that change evicted it. Concurrent misses for the same
+ * seller share one lookup.
+ */
+@Component
+public class NearestWarehouseCache {
+
+    private final GuardedCache<Long, WarehouseSnapshot> lookups;
+
+    public NearestWarehouseCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(WarehouseService.NEAREST_WAREHOUSE_REGION),
+                "Cache region not configured: " + WarehouseService.NEAREST_WAREHOUSE_REGION);
+        this.lookups = new GuardedCache<>(cache, Long.class, WarehouseSnapshot.class, meterRegistry);
+    }
+
+    /**
+     * Returns the cached nearest warehouse of a seller, computing and storing
+     * it on a miss. Exceptions from the loader propagate unchanged and
+     * nothing is cached.
+     *
+     * @param sellerId seller database ID
+     * @param loader   resolves the nearest warehouse on a miss
+     * @return the nearest warehouse
+     */
+    public WarehouseSnapshot get(Long sellerId, Supplier<WarehouseSnapshot> loader) {
+        WarehouseSnapshot cached = lookups.getIfPresent(sellerId);
+        return cached != null ? cached : lookups.load(sellerId, loader);
+    }
+
+    /**
+     * Evicts a seller's cached nearest warehouse.
+     */
+    public void evict(Long sellerId) {
+        lookups.evict(sellerId);
+    }
+
+    /**
+     * Evicts every cached lookup matching the predicate.
+     *
+     * @param stale tested with each seller ID and nearest warehouse
+     * @return number of lookups evicted
+     */
+    public int evictIf(BiPredicate<Long, WarehouseSnapshot> stale) {
+        return lookups.evictIf(stale);
+    }
+}
@@ -0,0 +1,81 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.config.PersistentCacheCodec;
+import com.jumbotail.shipping.exception.InvalidRequestException;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Persists the nearest-warehouse cache region: seller ID to warehouse ID,
+ * with the warehouse read back from the reference data. The fingerprint
+ * covers the seller locations and the indexed warehouses.
+ */
+@Component
+@RequiredArgsConstructor
+public class NearestWarehouseCodec implements PersistentCacheCodec {
+
+    private final ReferenceDataStore referenceDataStore;
+    private final WarehouseSpatialIndex warehouseIndex;
+
+    @Override
+    public String cacheRegion() {
+        return WarehouseService.NEAREST_WAREHOUSE_REGION;
+    }
+
+    @Override
+    public int keyBytes() {
+        return 8;
+    }
+
+    @Override
+    public int valueBytes() {
+        return 8;
+    }
+
+    @Override
+    public long fingerprint() {
+        ReferenceData data = referenceDataStore.current();
+        long warehouses = warehouseIndex.contentHash();
+        if (data == null || warehouses == 0) {
+            return 0;
+        }
+        return new Fingerprint()
+                .add(data.contentHash())
+                .add(warehouses)
+                .value();
+    }
+
+    @Override
+    public boolean encodeKey(Object key, ByteBuffer out) {
+        if (!(key instanceof Long sellerId)) {
+            return false;
+        }
+        out.putLong(sellerId);
+        return true;
+    }
+
+    @Override
+    public boolean encodeValue(Object value, ByteBuffer out) {
+        if (!(value instanceof WarehouseSnapshot warehouse)) {
+            return false;
+        }
+        out.putLong(warehouse.id());
+        return true;
+    }
+
+    @Override
+    public Object decodeValue(ByteBuffer in) {
+        ReferenceData data = referenceDataStore.current();
+        if (data == null) {
+            return null;
+        }
+        try {
+            return data.warehouse(in.getLong());
+        } catch (ResourceNotFoundException | InvalidRequestException e) {
+            return null;
+        }
+    }
+}
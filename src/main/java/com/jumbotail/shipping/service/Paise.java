@@ -0,0 +1,71 @@
+package com.jumbotail.shipping.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversions between rupee amounts and whole paise.
+ *
+ * Pricing runs on {@code long} paise end to end; a {@link BigDecimal} is only
+ * created when an amount leaves the service.
+ */
+public final class Paise {
+
+    public static final long PER_RUPEE = 100;
+
+    /**
+     * Tolerance for binary floating-point error when reading configured
+     * rupee amounts, e.g. 1.2 is stored as 1.19999...
+     */
+    private static final double EPSILON = 1e-6;
+
+    private Paise() {
+    }
+
+    /**
+     * Converts a configured rupee amount to paise.
+     *
+     * @throws IllegalArgumentException if the amount is not a whole number of
+     *                                  paise
+     */
+    public static long ofRupees(double rupees) {
+        double paise = rupees * PER_RUPEE;
+        long rounded = Math.round(paise);
+        if (Math.abs(paise - rounded) > EPSILON) {
+            throw new IllegalArgumentException("Amount is not a whole number of paise: " + rupees);
+        }
+        return rounded;
+    }
+
+    /**
+     * Converts paise to rupees with two decimal places.
+     */
+    public static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    /**
+     * Divides a non-negative amount by a power-of-ten scale, rounding half up.
+     */
+    static long divideHalfUp(long amount, long scale) {
+        return (amount + scale / 2) / scale;
+    }
+
+    /**
+     * Divides a non-negative 128-bit amount, given as its high and low
+     * halves, by a power-of-ten scale below 2^31, rounding half up. Works in
+     * 32-bit digits so that nothing allocates.
+     *
+     * @throws ArithmeticException if the result does not fit in a long
+     */
+    static long divideHalfUp(long high, long low, long scale) {
+        if (high < 0 || high >= scale / 2) {
+            throw new ArithmeticException("long overflow");
+        }
+        long upper = (high << 32) | (low >>> 32);
+        long quotient = upper / scale;
+        long lower = ((upper % scale) << 32) | (low & 0xFFFFFFFFL);
+        long remainder = lower % scale;
+        long result = (quotient << 32) + lower / scale;
+        return remainder >= scale - remainder ? Math.addExact(result, 1) : result;
+    }
+}
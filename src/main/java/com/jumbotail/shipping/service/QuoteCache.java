@@ -0,0 +1,135 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache of complete shipping quotes keyed by a typed composite key.
+ *
+ * Lives in its own bean so that lookups from {@link ShippingCalculatorService}
+ * go through a real call instead of a self-invoked {@code @Cacheable} method,
+ * which the Spring proxy never sees. Hits and misses are counted per flow as
+ * {@code shipping.quote.cache{flow, result}}. Concurrent misses for the same
+ * key share one computation, and a quote computed while an eviction ran is
+ * not stored.
+ */
+@Component
+@Slf4j
+public class QuoteCache {
+
+    /**
+     * Cache region holding the quotes.
+     */
+    public static final String REGION = "shippingCharges";
+
+    private static final String METRIC_NAME = "shipping.quote.cache";
+
+    private final Map<Flow, Counter> hits = new EnumMap<>(Flow.class);
+    private final Map<Flow, Counter> misses = new EnumMap<>(Flow.class);
+    private final GuardedCache<QuoteKey, ShippingQuote> quotes;
+
+    public QuoteCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(REGION), "Cache region not configured: " + REGION);
+        this.quotes = new GuardedCache<>(cache, QuoteKey.class, ShippingQuote.class, meterRegistry);
+        for (Flow flow : Flow.values()) {
+            String tag = flow.name().toLowerCase(Locale.ROOT);
+            hits.put(flow, Counter.builder(METRIC_NAME)
+                    .description("Shipping quote cache lookups")
+                    .tag("flow", tag)
+                    .tag("result", "hit")
+                    .register(meterRegistry));
+            misses.put(flow, Counter.builder(METRIC_NAME)
+                    .description("Shipping quote cache lookups")
+                    .tag("flow", tag)
+                    .tag("result", "miss")
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Returns the cached quote for the key, computing and storing it on a
+     * miss. Callers missing on a key whose quote is already being computed
+     * wait for that computation instead of running the loader. A quote whose
+     * computation overlapped an {@link #evictIf eviction} or a
+     * {@link #clear() clear}, e.g. for a new rate card, is returned but not
+     * cached. Exceptions from the loader propagate unchanged, to every
+     * waiting caller, and nothing is cached.
+     *
+     * @param key    quote key
+     * @param loader computes the quote on a miss
+     * @return the quote
+     */
+    public ShippingQuote get(QuoteKey key, Supplier<ShippingQuote> loader) {
+        ShippingQuote cached = quotes.getIfPresent(key);
+        if (cached != null) {
+            hits.get(key.flow()).increment();
+            return cached;
+        }
+
+        misses.get(key.flow()).increment();
+        return quotes.load(key, loader);
+    }
+
+    /**
+     * Evicts every cached quote matching the predicate.
+     *
+     * @param stale tested with each key and quote
+     * @return number of quotes evicted
+     */
+    public int evictIf(BiPredicate<QuoteKey, ShippingQuote> stale) {
+        return quotes.evictIf(stale);
+    }
+
+    /**
+     * Drops every cached quote, including quotes still being computed from
+     * the data before the call.
+     */
+    public void clear() {
+        log.debug("Clearing shipping quote cache");
+        quotes.clear();
+    }
+
+    /**
+     * How a quote's origin was chosen.
+     */
+    public enum Flow {
+        /** Seller to customer via the seller's nearest warehouse. */
+        SELLER,
+        /** Directly from a given warehouse to a customer. */
+        WAREHOUSE
+    }
+
+    /**
+     * Composite cache key for a quote.
+     *
+     * @param flow          how the origin was chosen
+     * @param originId      seller or warehouse database ID, per flow
+     * @param customerId    customer database ID
+     * @param deliverySpeed delivery speed option
+     * @param productId     product database ID, or null for the default weight
+     */
+    public record QuoteKey(Flow flow, Long originId, Long customerId, DeliverySpeed deliverySpeed, Long productId) {
+
+        public static QuoteKey forSeller(Long sellerId, Long customerId, DeliverySpeed deliverySpeed,
+                Long productId) {
+            return new QuoteKey(Flow.SELLER, sellerId, customerId, deliverySpeed, productId);
+        }
+
+        public static QuoteKey forWarehouse(Long warehouseId, Long customerId, DeliverySpeed deliverySpeed,
+                Long productId) {
+            return new QuoteKey(Flow.WAREHOUSE, warehouseId, customerId, deliverySpeed, productId);
+        }
+    }
+}
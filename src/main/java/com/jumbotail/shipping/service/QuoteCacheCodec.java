@@ -0,0 +1,128 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.config.PersistentCacheCodec;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.enums.TransportMode;
+import com.jumbotail.shipping.exception.InvalidRequestException;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.service.QuoteCache.Flow;
+import com.jumbotail.shipping.service.QuoteCache.QuoteKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Persists the quote cache region.
+ *
+ * A quote is stored as its numbers and the ID of its warehouse, which is
+ * read back from the reference data. The fingerprint covers everything a
+ * quote is computed from: the reference data, the indexed warehouses that
+ * seller quotes pick from, the rate card and the distance engine.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuoteCacheCodec implements PersistentCacheCodec {
+
+    /**
+     * Stored in place of a null product ID.
+     */
+    private static final long NO_PRODUCT = Long.MIN_VALUE;
+
+    private final ReferenceDataStore referenceDataStore;
+    private final WarehouseSpatialIndex warehouseIndex;
+    private final RateCardStore rateCardStore;
+    private final GeoLocationService geoLocationService;
+
+    @Override
+    public String cacheRegion() {
+        return QuoteCache.REGION;
+    }
+
+    /**
+     * Flow, origin, customer, speed, product.
+     */
+    @Override
+    public int keyBytes() {
+        return 1 + 8 + 8 + 1 + 8;
+    }
+
+    /**
+     * Charge, warehouse ID, both distances, weight, mode, speed.
+     */
+    @Override
+    public int valueBytes() {
+        return 8 + 8 + 8 + 8 + 8 + 1 + 1;
+    }
+
+    @Override
+    public long fingerprint() {
+        ReferenceData data = referenceDataStore.current();
+        long warehouses = warehouseIndex.contentHash();
+        if (data == null || warehouses == 0) {
+            return 0;
+        }
+        return new Fingerprint()
+                .add(data.contentHash())
+                .add(warehouses)
+                .add(rateCardStore.current().contentHash())
+                .add(geoLocationService.getDefaultEngine().getClass().getName())
+                .addConstants(Flow.class)
+                .addConstants(DeliverySpeed.class)
+                .addConstants(TransportMode.class)
+                .value();
+    }
+
+    @Override
+    public boolean encodeKey(Object key, ByteBuffer out) {
+        if (!(key instanceof QuoteKey quoteKey) || quoteKey.originId() == null || quoteKey.customerId() == null) {
+            return false;
+        }
+        out.put((byte) quoteKey.flow().ordinal())
+                .putLong(quoteKey.originId())
+                .putLong(quoteKey.customerId())
+                .put((byte) quoteKey.deliverySpeed().ordinal())
+                .putLong(quoteKey.productId() != null ? quoteKey.productId() : NO_PRODUCT);
+        return true;
+    }
+
+    @Override
+    public boolean encodeValue(Object value, ByteBuffer out) {
+        if (!(value instanceof ShippingQuote quote)) {
+            return false;
+        }
+        out.putLong(quote.chargePaise())
+                .putLong(quote.warehouse().id())
+                .putDouble(quote.sellerToWarehouseKm())
+                .putDouble(quote.warehouseToCustomerKm())
+                .putDouble(quote.weightKg())
+                .put((byte) quote.transportMode().ordinal())
+                .put((byte) quote.deliverySpeed().ordinal());
+        return true;
+    }
+
+    @Override
+    public Object decodeValue(ByteBuffer in) {
+        ReferenceData data = referenceDataStore.current();
+        if (data == null) {
+            return null;
+        }
+
+        long chargePaise = in.getLong();
+        long warehouseId = in.getLong();
+        double sellerToWarehouseKm = in.getDouble();
+        double warehouseToCustomerKm = in.getDouble();
+        double weightKg = in.getDouble();
+        TransportMode transportMode = TransportMode.values()[in.get()];
+        DeliverySpeed deliverySpeed = DeliverySpeed.values()[in.get()];
+
+        WarehouseSnapshot warehouse;
+        try {
+            warehouse = data.warehouse(warehouseId);
+        } catch (ResourceNotFoundException | InvalidRequestException e) {
+            return null;
+        }
+        return new ShippingQuote(chargePaise, warehouse, sellerToWarehouseKm, warehouseToCustomerKm, weightKg,
+                transportMode, deliverySpeed);
+    }
+}
@@ -0,0 +1,213 @@
+package com.jumbotail.shipping.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent reference data lookups of one quote concurrently, so
+ * a quote read from the database waits for its slowest lookup rather than
+ * the sum of them.
+ *
+ * Lookups run on a bounded pool of {@code shipping.quote-lookup.threads}
+ * threads, by default as many as the database connection pool has
+ * connections, so quote lookups never wait on each other for a connection.
+ * The pool is the bulkhead around this database work: when its threads and
+ * queue are full, further lookups are rejected with
+ * {@link RejectedExecutionException} (503) rather than run on the calling
+ * thread, which would let request threads pile up on the connection pool.
+ * The first lookup of a batch to fail cancels the lookups of the batch that
+ * have not started, and its exception is rethrown unwrapped.
+ *
+ * Lookups run on the calling thread when the pool is disabled (0 threads)
+ * or the caller is inside a transaction, whose uncommitted rows other
+ * threads could not see.
+ */
+@Component
+public class QuoteLookupExecutor {
+
+    /**
+     * Queued lookups allowed per pool thread before callers run their own.
+     */
+    private static final int QUEUE_PER_THREAD = 64;
+
+    private final ExecutorService executor;
+
+    public QuoteLookupExecutor(
+            @Value("${shipping.quote-lookup.threads:${spring.datasource.hikari.maximum-pool-size:10}}") int threads) {
+        if (threads <= 0) {
+            this.executor = null;
+            return;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "quote-lookup-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts a batch of lookups for one quote.
+     */
+    public Batch batch() {
+        boolean parallel = executor != null && !TransactionSynchronizationManager.isActualTransactionActive();
+        return new Batch(parallel ? executor : null);
+    }
+
+    /**
+     * Starts a batch whose lookups run on the calling thread.
+     */
+    public static Batch inline() {
+        return new Batch(null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Lookups forked together and joined once.
+     */
+    public static final class Batch {
+
+        private final ExecutorService executor;
+        private final List<CompletableFuture<?>> forked = new ArrayList<>();
+        private volatile boolean failed;
+
+        private Batch(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * Starts a lookup. Without a pool the lookup runs now and its
+         * exception is thrown from here, as if called directly.
+         *
+         * @throws RejectedExecutionException if the pool and its queue are
+         *                                    full; the batch's other lookups
+         *                                    are cancelled
+         */
+        public <T> Lookup<T> fork(Supplier<T> lookup) {
+            CompletableFuture<T> future;
+            if (executor == null) {
+                future = CompletableFuture.completedFuture(lookup.get());
+            } else if (failed) {
+                future = new CompletableFuture<>();
+                future.cancel(false);
+            } else {
+                try {
+                    future = CompletableFuture.supplyAsync(lookup, executor);
+                } catch (RejectedExecutionException e) {
+                    cancelAll();
+                    throw e;
+                }
+                future.whenComplete((value, failure) -> {
+                    if (failure != null) {
+                        cancelAll();
+                    }
+                });
+            }
+            synchronized (forked) {
+                forked.add(future);
+            }
+            return new Lookup<>(future);
+        }
+
+        /**
+         * Waits for every forked lookup.
+         *
+         * @throws RuntimeException the failure of the earliest forked lookup
+         *                          that failed rather than being cancelled
+         */
+        public void join() {
+            List<CompletableFuture<?>> futures;
+            synchronized (forked) {
+                futures = List.copyOf(forked);
+            }
+
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException | CancellationException e) {
+                cancelAll();
+                for (CompletableFuture<?> future : futures) {
+                    Throwable failure = failure(future);
+                    if (failure != null && !(failure instanceof CancellationException)) {
+                        throw rethrow(failure);
+                    }
+                }
+                throw e;
+            }
+        }
+
+        private void cancelAll() {
+            failed = true;
+            synchronized (forked) {
+                for (CompletableFuture<?> future : forked) {
+                    future.cancel(false);
+                }
+            }
+        }
+
+        private static Throwable failure(CompletableFuture<?> future) {
+            if (!future.isCompletedExceptionally()) {
+                return null;
+            }
+            try {
+                future.join();
+                return null;
+            } catch (CompletionException e) {
+                return e.getCause() != null ? e.getCause() : e;
+            } catch (CancellationException e) {
+                return e;
+            }
+        }
+
+        private static RuntimeException rethrow(Throwable failure) {
+            if (failure instanceof RuntimeException runtimeException) {
+                return runtimeException;
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            return new CompletionException(failure);
+        }
+    }
+
+    /**
+     * Result of one forked lookup, available once its batch is joined.
+     */
+    public static final class Lookup<T> {
+
+        private final CompletableFuture<T> future;
+
+        private Lookup(CompletableFuture<T> future) {
+            this.future = future;
+        }
+
+        public T get() {
+            return future.join();
+        }
+    }
+}
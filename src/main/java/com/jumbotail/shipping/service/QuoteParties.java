@@ -0,0 +1,39 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.exception.InvalidRequestException;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+
+/**
+ * Seller, customer and product data needed to price a quote whose warehouse
+ * is resolved separately, e.g. from the nearest-warehouse index.
+ *
+ * Lookups fail with the same exceptions and messages whatever the source.
+ *
+ * @see QuoteReferenceData
+ */
+interface QuoteParties {
+
+    /**
+     * Returns a seller's location.
+     *
+     * @throws ResourceNotFoundException if the seller does not exist or has no
+     *                                   location
+     */
+    GeoLocation sellerLocation(Long sellerId);
+
+    /**
+     * Returns a customer's location.
+     *
+     * @throws ResourceNotFoundException if the customer does not exist
+     * @throws InvalidRequestException   if the customer has no location
+     */
+    GeoLocation customerLocation(Long customerId);
+
+    /**
+     * Returns a product's chargeable weight in kilograms.
+     *
+     * @throws ResourceNotFoundException if the product does not exist
+     */
+    double chargeableWeight(Long productId);
+}
@@ -0,0 +1,37 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.exception.InvalidRequestException;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+
+/**
+ * Reference data needed to price a quote, independent of where it is read
+ * from: the in-memory {@link ReferenceDataStore} or the repositories. Adds
+ * warehouse lookups by ID to {@link QuoteParties}.
+ *
+ * Lookups fail with the same exceptions and messages whatever the source.
+ */
+interface QuoteReferenceData extends QuoteParties {
+
+    /**
+     * Returns a warehouse snapshot.
+     *
+     * @throws ResourceNotFoundException if the warehouse does not exist
+     * @throws InvalidRequestException   if the warehouse has no location
+     */
+    WarehouseSnapshot warehouse(Long warehouseId);
+
+    static ResourceNotFoundException sellerWithoutLocation(Long sellerId) {
+        return new ResourceNotFoundException(
+                String.format("Seller with id '%d' does not have location information", sellerId));
+    }
+
+    static InvalidRequestException customerWithoutLocation(String customerCode) {
+        return new InvalidRequestException(
+                String.format("Customer '%s' does not have location information", customerCode));
+    }
+
+    static InvalidRequestException warehouseWithoutLocation(String warehouseCode) {
+        return new InvalidRequestException(
+                String.format("Warehouse '%s' does not have location information", warehouseCode));
+    }
+}
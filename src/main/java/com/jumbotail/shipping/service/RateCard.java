@@ -0,0 +1,293 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.enums.TransportMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compiled set of shipping rates.
+ *
+ * Charges are computed in fixed point: distances are quantized to whole
+ * metres, weights to whole milligrams and rates to whole paise, so a charge
+ * is an exact product in billionths of a paisa that is rounded half up to
+ * paise once. Milligrams are finer than any weight the catalogue records,
+ * including volumetric weights, so quantizing does not change prices. The
+ * product is carried in 128 bits, as rate x metres x milligrams outgrows a
+ * {@code long} for heavy long-haul shipments. Nothing on the pricing path
+ * allocates, and the same inputs give the same paise whichever flow quotes
+ * them.
+ *
+ * Distance bands are kept sorted by minimum distance in metres in a
+ * {@code long[]}, so selecting the band for a distance is one binary search;
+ * surcharges are indexed by delivery speed ordinal.
+ */
+public final class RateCard {
+
+    private static final long METRES_PER_KM = 1000;
+    private static final long MILLIGRAMS_PER_KG = 1_000_000;
+
+    /**
+     * Rate x metres x milligrams is in billionths of a paisa.
+     */
+    private static final long NANOS_PER_PAISA = METRES_PER_KM * MILLIGRAMS_PER_KG;
+
+    private final long version;
+    private final String source;
+    private final Band[] bands;
+    private final Surcharge[] surcharges;
+
+    private final long[] minimumsMetres;
+    private final long[] ratesPaise;
+    private final long[] basePaise;
+    private final long[] extraPaisePerKg;
+    private final long contentHash;
+
+    private RateCard(long version, String source, Band[] bands, Surcharge[] surcharges) {
+        this.version = version;
+        this.source = source;
+        this.bands = bands;
+        this.surcharges = surcharges;
+
+        this.minimumsMetres = new long[bands.length];
+        this.ratesPaise = new long[bands.length];
+        for (int i = 0; i < bands.length; i++) {
+            minimumsMetres[i] = metres(bands[i].minDistanceKm());
+            ratesPaise[i] = Paise.ofRupees(bands[i].ratePerKmPerKg());
+        }
+
+        this.basePaise = new long[surcharges.length];
+        this.extraPaisePerKg = new long[surcharges.length];
+        for (int i = 0; i < surcharges.length; i++) {
+            basePaise[i] = Paise.ofRupees(surcharges[i].baseCourierCharge());
+            extraPaisePerKg[i] = Paise.ofRupees(surcharges[i].extraChargePerKg());
+        }
+
+        // The weight scale is part of how the rates price, so quotes persisted
+        // under another scale do not match this card
+        Fingerprint fingerprint = new Fingerprint().add(MILLIGRAMS_PER_KG);
+        for (int i = 0; i < bands.length; i++) {
+            fingerprint.add(minimumsMetres[i]).add(bands[i].transportMode()).add(ratesPaise[i]);
+        }
+        for (int i = 0; i < surcharges.length; i++) {
+            fingerprint.add(DeliverySpeed.values()[i]).add(basePaise[i]).add(extraPaisePerKg[i]);
+        }
+        this.contentHash = fingerprint.value();
+    }
+
+    /**
+     * Validates and compiles a rate card.
+     *
+     * @param version    version number of the card
+     * @param source     where the rates were read from
+     * @param bands      distance bands in any order; the lowest must start at 0 km
+     * @param surcharges surcharge for every delivery speed
+     * @return a new immutable card
+     * @throws IllegalArgumentException if the rates do not form a complete card
+     *                                  or are not whole paise
+     */
+    public static RateCard compile(long version, String source, Collection<Band> bands,
+            Map<DeliverySpeed, Surcharge> surcharges) {
+        List<Band> sorted = new ArrayList<>(bands);
+        sorted.sort(Comparator.comparingDouble(Band::minDistanceKm));
+
+        if (sorted.isEmpty() || metres(sorted.get(0).minDistanceKm()) != 0) {
+            throw new IllegalArgumentException("Rate card needs a distance band starting at 0 km");
+        }
+        for (int i = 1; i < sorted.size(); i++) {
+            if (metres(sorted.get(i).minDistanceKm()) == metres(sorted.get(i - 1).minDistanceKm())) {
+                throw new IllegalArgumentException(
+                        "Duplicate distance band starting at " + sorted.get(i).minDistanceKm() + " km");
+            }
+        }
+
+        Surcharge[] bySpeed = new Surcharge[DeliverySpeed.values().length];
+        for (DeliverySpeed speed : DeliverySpeed.values()) {
+            Surcharge surcharge = surcharges.get(speed);
+            if (surcharge == null) {
+                throw new IllegalArgumentException("Rate card has no surcharge for delivery speed " + speed);
+            }
+            bySpeed[speed.ordinal()] = surcharge;
+        }
+
+        return new RateCard(version, source, sorted.toArray(new Band[0]), bySpeed);
+    }
+
+    /**
+     * Returns the band covering a distance: the one with the greatest
+     * minimum not above it, compared in whole metres.
+     */
+    public Band band(double distanceKm) {
+        return bands[bandIndex(metres(distanceKm))];
+    }
+
+    public TransportMode transportMode(double distanceKm) {
+        return band(distanceKm).transportMode();
+    }
+
+    public Surcharge surcharge(DeliverySpeed deliverySpeed) {
+        return surcharges[deliverySpeed.ordinal()];
+    }
+
+    /**
+     * Total charge for a distance, weight and delivery speed: transport plus
+     * courier surcharge, rounded half up to paise once.
+     *
+     * @param distanceKm    distance in kilometers
+     * @param weightKg      weight in kilograms
+     * @param deliverySpeed delivery speed option
+     * @return charge in paise
+     */
+    public long chargePaise(double distanceKm, double weightKg, DeliverySpeed deliverySpeed) {
+        long milligrams = milligrams(weightKg);
+        return transportPlusPaise(metres(distanceKm), milligrams, deliveryNanos(deliverySpeed, milligrams));
+    }
+
+    /**
+     * Transport part of a charge in paise, rounded on its own. The total
+     * from {@link #chargePaise} is rounded once and may differ from the sum
+     * of the parts by a paisa.
+     */
+    public long transportChargePaise(double distanceKm, double weightKg) {
+        return transportPlusPaise(metres(distanceKm), milligrams(weightKg), 0);
+    }
+
+    /**
+     * Courier surcharge part of a charge in paise, rounded on its own.
+     */
+    public long deliveryChargePaise(DeliverySpeed deliverySpeed, double weightKg) {
+        return Paise.divideHalfUp(deliveryNanos(deliverySpeed, milligrams(weightKg)), NANOS_PER_PAISA);
+    }
+
+    /**
+     * Charge per kilogram for a distance and delivery speed in INR,
+     * unrounded. A shipment costs the speed's base courier charge plus this
+     * times its weight.
+     */
+    public double chargePerKg(double distanceKm, DeliverySpeed deliverySpeed) {
+        long metres = metres(distanceKm);
+        long milliPaise = ratesPaise[bandIndex(metres)] * metres
+                + extraPaisePerKg[deliverySpeed.ordinal()] * METRES_PER_KM;
+        return (double) milliPaise / (METRES_PER_KM * Paise.PER_RUPEE);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    /**
+     * Bands in ascending order of minimum distance.
+     */
+    public List<Band> bands() {
+        return List.of(bands);
+    }
+
+    public Map<DeliverySpeed, Surcharge> surcharges() {
+        Map<DeliverySpeed, Surcharge> result = new EnumMap<>(DeliverySpeed.class);
+        for (DeliverySpeed speed : DeliverySpeed.values()) {
+            result.put(speed, surcharges[speed.ordinal()]);
+        }
+        return result;
+    }
+
+    /**
+     * Hash of the compiled rates, stable across restarts and independent of
+     * version and source.
+     */
+    public long contentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Whether another card charges exactly the same, regardless of version
+     * and source.
+     */
+    public boolean hasSameRates(RateCard other) {
+        return Arrays.equals(bands, other.bands) && Arrays.equals(surcharges, other.surcharges);
+    }
+
+    private int bandIndex(long metres) {
+        int index = Arrays.binarySearch(minimumsMetres, metres);
+        if (index < 0) {
+            // Before the insertion point; distances below 0 km use the first band
+            index = Math.max(-index - 2, 0);
+        }
+        return index;
+    }
+
+    /**
+     * Transport charge plus an amount in billionths of a paisa, rounded to
+     * paise. The transport product is taken to 128 bits before the addition.
+     */
+    private long transportPlusPaise(long metres, long milligrams, long plusNanos) {
+        long rateMetres = Math.multiplyExact(ratesPaise[bandIndex(metres)], metres);
+        long high = Math.multiplyHigh(rateMetres, milligrams);
+        long low = rateMetres * milligrams;
+        long sum = low + plusNanos;
+        if (Long.compareUnsigned(sum, low) < 0) {
+            high++;
+        }
+        return Paise.divideHalfUp(high, sum, NANOS_PER_PAISA);
+    }
+
+    private long deliveryNanos(DeliverySpeed deliverySpeed, long milligrams) {
+        int speed = deliverySpeed.ordinal();
+        return Math.addExact(Math.multiplyExact(basePaise[speed], NANOS_PER_PAISA),
+                Math.multiplyExact(Math.multiplyExact(extraPaisePerKg[speed], milligrams), METRES_PER_KM));
+    }
+
+    private static long metres(double distanceKm) {
+        return Math.round(distanceKm * METRES_PER_KM);
+    }
+
+    private static long milligrams(double weightKg) {
+        return Math.round(weightKg * MILLIGRAMS_PER_KG);
+    }
+
+    /**
+     * Rate for shipments of at least a minimum distance.
+     *
+     * @param minDistanceKm  shortest distance in kilometers the band covers
+     * @param transportMode  mode shipments in the band travel by
+     * @param ratePerKmPerKg charge per kilometer per kilogram in INR
+     */
+    public record Band(double minDistanceKm, TransportMode transportMode, double ratePerKmPerKg) {
+
+        public Band {
+            if (transportMode == null) {
+                throw new IllegalArgumentException("Distance band needs a transport mode");
+            }
+            if (!(minDistanceKm >= 0) || !(ratePerKmPerKg >= 0)) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid %s band: min distance %s km, rate %s", transportMode, minDistanceKm,
+                        ratePerKmPerKg));
+            }
+        }
+    }
+
+    /**
+     * Charge added for a delivery speed.
+     *
+     * @param baseCourierCharge flat courier charge per shipment in INR
+     * @param extraChargePerKg  additional charge per kilogram in INR
+     */
+    public record Surcharge(double baseCourierCharge, double extraChargePerKg) {
+
+        public Surcharge {
+            if (!(baseCourierCharge >= 0) || !(extraChargePerKg >= 0)) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid courier surcharge: base %s, per kg %s", baseCourierCharge, extraChargePerKg));
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.config.RateCardProperties;
+import com.jumbotail.shipping.entity.CourierSurcharge;
+import com.jumbotail.shipping.entity.RateBand;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.enums.TransportMode;
+import com.jumbotail.shipping.event.RateCardChangedEvent;
+import com.jumbotail.shipping.repository.CourierSurchargeRepository;
+import com.jumbotail.shipping.repository.RateBandRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the current {@link RateCard}.
+ *
+ * The card is compiled from {@code shipping.transport.*} and
+ * {@code shipping.delivery.*} at startup. A background job re-reads the rate
+ * tables and, when the resulting rates differ, publishes the next version
+ * with a single reference swap: active bands replace the configured bands,
+ * and an active surcharge replaces the configured one for its speed. Quote
+ * paths read the current card with no locking. A card that fails validation
+ * is logged and the previous one stays in use.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(RateCardProperties.class)
+public class RateCardStore {
+
+    static final String CONFIG_SOURCE = "config";
+    static final String DATABASE_SOURCE = "database";
+
+    private final RateCardProperties properties;
+    private final RateBandRepository rateBandRepository;
+    private final CourierSurchargeRepository courierSurchargeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile RateCard current;
+
+    public RateCardStore(RateCardProperties properties, RateBandRepository rateBandRepository,
+            CourierSurchargeRepository courierSurchargeRepository, ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.rateBandRepository = rateBandRepository;
+        this.courierSurchargeRepository = courierSurchargeRepository;
+        this.eventPublisher = eventPublisher;
+        this.current = RateCard.compile(1, CONFIG_SOURCE, configuredBands(), configuredSurcharges());
+
+        log.info("Compiled rate card v1 from config: {} distance bands", current.bands().size());
+    }
+
+    /**
+     * Returns the card in use.
+     */
+    public RateCard current() {
+        return current;
+    }
+
+    /**
+     * Applies the rate tables once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Recompiles the card from config and the rate tables, and swaps it in
+     * if any rate changed.
+     *
+     * @return the card in use afterwards
+     */
+    @Scheduled(initialDelayString = "${shipping.rate-card.refresh-interval:PT30S}",
+            fixedDelayString = "${shipping.rate-card.refresh-interval:PT30S}")
+    public synchronized RateCard reload() {
+        RateCard previous = current;
+
+        RateCard next;
+        try {
+            next = compile(previous.version() + 1);
+        } catch (IllegalArgumentException e) {
+            log.error("Rejected rate card from the rate tables, keeping v{}: {}", previous.version(),
+                    e.getMessage());
+            return previous;
+        }
+        if (next.hasSameRates(previous)) {
+            return previous;
+        }
+
+        current = next;
+        log.info("Swapped rate card v{} for v{} from {}", previous.version(), next.version(), next.source());
+        eventPublisher.publishEvent(new RateCardChangedEvent(previous, next));
+        return next;
+    }
+
+    private RateCard compile(long version) {
+        List<RateBand> rateBands = rateBandRepository.findByIsActiveTrue();
+        List<CourierSurcharge> courierSurcharges = courierSurchargeRepository.findByIsActiveTrue();
+
+        List<RateCard.Band> bands = configuredBands();
+        if (!rateBands.isEmpty()) {
+            bands = rateBands.stream()
+                    .map(band -> new RateCard.Band(band.getMinDistanceKm(), band.getTransportMode(),
+                            band.getRatePerKmPerKg()))
+                    .toList();
+        }
+
+        Map<DeliverySpeed, RateCard.Surcharge> surcharges = configuredSurcharges();
+        for (CourierSurcharge surcharge : courierSurcharges) {
+            surcharges.put(surcharge.getDeliverySpeed(),
+                    new RateCard.Surcharge(surcharge.getBaseCourierCharge(), surcharge.getExtraChargePerKg()));
+        }
+
+        String source = rateBands.isEmpty() && courierSurcharges.isEmpty() ? CONFIG_SOURCE : DATABASE_SOURCE;
+        return RateCard.compile(version, source, bands, surcharges);
+    }
+
+    private List<RateCard.Band> configuredBands() {
+        List<RateCard.Band> bands = new ArrayList<>();
+        for (Map.Entry<TransportMode, RateCardProperties.Transport> entry : properties.getTransport().entrySet()) {
+            RateCardProperties.Transport transport = entry.getValue();
+            if (transport.getMinDistanceKm() == null || transport.getRatePerKmPerKg() == null) {
+                throw new IllegalArgumentException("Incomplete rates configured for transport mode " + entry.getKey());
+            }
+            bands.add(new RateCard.Band(transport.getMinDistanceKm(), entry.getKey(), transport.getRatePerKmPerKg()));
+        }
+        return bands;
+    }
+
+    private Map<DeliverySpeed, RateCard.Surcharge> configuredSurcharges() {
+        Map<DeliverySpeed, RateCard.Surcharge> surcharges = new EnumMap<>(DeliverySpeed.class);
+        for (Map.Entry<DeliverySpeed, RateCardProperties.Delivery> entry : properties.getDelivery().entrySet()) {
+            RateCardProperties.Delivery delivery = entry.getValue();
+            if (delivery.getBaseCourierCharge() == null || delivery.getExtraChargePerKg() == null) {
+                throw new IllegalArgumentException("Incomplete rates configured for delivery speed " + entry.getKey());
+            }
+            surcharges.put(entry.getKey(),
+                    new RateCard.Surcharge(delivery.getBaseCourierCharge(), delivery.getExtraChargePerKg()));
+        }
+        return surcharges;
+    }
+}
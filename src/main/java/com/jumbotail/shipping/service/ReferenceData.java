@@ -0,0 +1,358 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Product;
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * One immutable version of the reference data used for quoting.
+ *
+ * Each entity type is stored column-wise: a sorted {@code long[]} of database
+ * IDs plus parallel primitive and string columns. A lookup is a binary search
+ * with no boxing and no entity hydration, and the whole version can be shared
+ * between threads without locking. Changes produce a new version; existing
+ * readers keep the one they started with.
+ */
+public final class ReferenceData implements QuoteReferenceData {
+
+    private final long version;
+    private final PointTable sellers;
+    private final PointTable customers;
+    private final PointTable warehouses;
+    private final WeightTable products;
+
+    /**
+     * Content hash, computed on first use.
+     */
+    private volatile long contentHash;
+
+    private ReferenceData(long version, PointTable sellers, PointTable customers,
+            PointTable warehouses, WeightTable products) {
+        this.version = version;
+        this.sellers = sellers;
+        this.customers = customers;
+        this.warehouses = warehouses;
+        this.products = products;
+    }
+
+    /**
+     * Builds the first version from full entity lists.
+     */
+    public static ReferenceData of(Collection<Seller> sellers, Collection<Customer> customers,
+            Collection<Warehouse> warehouses, Collection<Product> products) {
+        return new ReferenceData(1,
+                PointTable.of(sellers, Seller::getId, Seller::getSellerId, s -> null, Seller::getLocation),
+                PointTable.of(customers, Customer::getId, Customer::getCustomerId, c -> null, Customer::getLocation),
+                PointTable.of(warehouses, Warehouse::getId, Warehouse::getWarehouseCode, Warehouse::getName,
+                        Warehouse::getLocation),
+                WeightTable.of(products, Product::getId, Product::getChargeableWeight));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Hash of every row of every table, stable across restarts. Unlike the
+     * version, two versions with the same content have the same hash.
+     */
+    public long contentHash() {
+        long hash = contentHash;
+        if (hash == 0) {
+            Fingerprint fingerprint = new Fingerprint();
+            sellers.addTo(fingerprint);
+            customers.addTo(fingerprint);
+            warehouses.addTo(fingerprint);
+            products.addTo(fingerprint);
+            hash = fingerprint.value();
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    public int sellerCount() {
+        return sellers.size();
+    }
+
+    public int customerCount() {
+        return customers.size();
+    }
+
+    public int warehouseCount() {
+        return warehouses.size();
+    }
+
+    public int productCount() {
+        return products.size();
+    }
+
+    /**
+     * Returns the next version with the seller added or replaced.
+     */
+    public ReferenceData withSeller(Seller seller) {
+        return new ReferenceData(version + 1,
+                sellers.with(seller.getId(), seller.getSellerId(), null, seller.getLocation()),
+                customers, warehouses, products);
+    }
+
+    /**
+     * Returns the next version with the customer added or replaced.
+     */
+    public ReferenceData withCustomer(Customer customer) {
+        return new ReferenceData(version + 1, sellers,
+                customers.with(customer.getId(), customer.getCustomerId(), null, customer.getLocation()),
+                warehouses, products);
+    }
+
+    /**
+     * Returns the next version with the warehouse added or replaced.
+     */
+    public ReferenceData withWarehouse(Warehouse warehouse) {
+        return new ReferenceData(version + 1, sellers, customers,
+                warehouses.with(warehouse.getId(), warehouse.getWarehouseCode(), warehouse.getName(),
+                        warehouse.getLocation()),
+                products);
+    }
+
+    /**
+     * Returns the next version with the product added or replaced.
+     */
+    public ReferenceData withProduct(Product product) {
+        return new ReferenceData(version + 1, sellers, customers, warehouses,
+                products.with(product.getId(), product.getChargeableWeight()));
+    }
+
+    @Override
+    public GeoLocation sellerLocation(Long sellerId) {
+        int row = sellers.rowOf(sellerId);
+        if (row < 0) {
+            throw new ResourceNotFoundException("Seller", "id", sellerId);
+        }
+        if (!sellers.isLocated(row)) {
+            throw QuoteReferenceData.sellerWithoutLocation(sellerId);
+        }
+        return sellers.location(row);
+    }
+
+    @Override
+    public GeoLocation customerLocation(Long customerId) {
+        int row = customers.rowOf(customerId);
+        if (row < 0) {
+            throw new ResourceNotFoundException("Customer", "id", customerId);
+        }
+        if (!customers.isLocated(row)) {
+            throw QuoteReferenceData.customerWithoutLocation(customers.codes[row]);
+        }
+        return customers.location(row);
+    }
+
+    @Override
+    public WarehouseSnapshot warehouse(Long warehouseId) {
+        int row = warehouses.rowOf(warehouseId);
+        if (row < 0) {
+            throw new ResourceNotFoundException("Warehouse", "id", warehouseId);
+        }
+        if (!warehouses.isLocated(row)) {
+            throw QuoteReferenceData.warehouseWithoutLocation(warehouses.codes[row]);
+        }
+        return new WarehouseSnapshot(warehouses.ids[row], warehouses.codes[row], warehouses.names[row],
+                warehouses.latitudes[row], warehouses.longitudes[row]);
+    }
+
+    @Override
+    public double chargeableWeight(Long productId) {
+        int row = products.rowOf(productId);
+        if (row < 0) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        }
+        return products.weights[row];
+    }
+
+    /**
+     * Row position of an ID in a sorted ID column, or a negative value if it
+     * is absent.
+     */
+    private static int rowOf(long[] ids, Long id) {
+        return id == null ? -1 : Arrays.binarySearch(ids, id);
+    }
+
+    /**
+     * Entities with a code, an optional name and an optional location. A
+     * missing location is stored as NaN coordinates.
+     */
+    private static final class PointTable {
+        private final long[] ids;
+        private final String[] codes;
+        private final String[] names;
+        private final double[] latitudes;
+        private final double[] longitudes;
+
+        private PointTable(long[] ids, String[] codes, String[] names, double[] latitudes, double[] longitudes) {
+            this.ids = ids;
+            this.codes = codes;
+            this.names = names;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+        }
+
+        static <T> PointTable of(Collection<T> items, ToLongFunction<T> id, Function<T, String> code,
+                Function<T, String> name, Function<T, GeoLocation> location) {
+            List<T> sorted = new ArrayList<>(items);
+            sorted.sort(Comparator.comparingLong(id));
+
+            int size = sorted.size();
+            PointTable table = new PointTable(new long[size], new String[size], new String[size],
+                    new double[size], new double[size]);
+            for (int row = 0; row < size; row++) {
+                T item = sorted.get(row);
+                table.set(row, id.applyAsLong(item), code.apply(item), name.apply(item), location.apply(item));
+            }
+            return table;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int rowOf(Long id) {
+            return ReferenceData.rowOf(ids, id);
+        }
+
+        void addTo(Fingerprint fingerprint) {
+            fingerprint.add(ids.length);
+            for (int row = 0; row < ids.length; row++) {
+                fingerprint.add(ids[row]).add(codes[row]).add(names[row])
+                        .add(latitudes[row]).add(longitudes[row]);
+            }
+        }
+
+        boolean isLocated(int row) {
+            return !Double.isNaN(latitudes[row]) && !Double.isNaN(longitudes[row]);
+        }
+
+        GeoLocation location(int row) {
+            return GeoLocation.builder()
+                    .latitude(latitudes[row])
+                    .longitude(longitudes[row])
+                    .build();
+        }
+
+        /**
+         * Returns a copy with the row for the ID added or replaced.
+         */
+        PointTable with(long id, String code, String name, GeoLocation location) {
+            int row = Arrays.binarySearch(ids, id);
+            PointTable copy;
+            if (row >= 0) {
+                copy = new PointTable(ids.clone(), codes.clone(), names.clone(),
+                        latitudes.clone(), longitudes.clone());
+            } else {
+                row = -row - 1;
+                copy = new PointTable(insertGap(ids, row), insertGap(codes, row), insertGap(names, row),
+                        insertGap(latitudes, row), insertGap(longitudes, row));
+            }
+            copy.set(row, id, code, name, location);
+            return copy;
+        }
+
+        private void set(int row, long id, String code, String name, GeoLocation location) {
+            boolean located = location != null && location.getLatitude() != null && location.getLongitude() != null;
+            ids[row] = id;
+            codes[row] = code;
+            names[row] = name;
+            latitudes[row] = located ? location.getLatitude() : Double.NaN;
+            longitudes[row] = located ? location.getLongitude() : Double.NaN;
+        }
+    }
+
+    /**
+     * Products reduced to their chargeable weight.
+     */
+    private static final class WeightTable {
+        private final long[] ids;
+        private final double[] weights;
+
+        private WeightTable(long[] ids, double[] weights) {
+            this.ids = ids;
+            this.weights = weights;
+        }
+
+        static <T> WeightTable of(Collection<T> items, ToLongFunction<T> id, ToDoubleFunction<T> weight) {
+            List<T> sorted = new ArrayList<>(items);
+            sorted.sort(Comparator.comparingLong(id));
+
+            long[] ids = new long[sorted.size()];
+            double[] weights = new double[sorted.size()];
+            for (int row = 0; row < ids.length; row++) {
+                ids[row] = id.applyAsLong(sorted.get(row));
+                weights[row] = weight.applyAsDouble(sorted.get(row));
+            }
+            return new WeightTable(ids, weights);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int rowOf(Long id) {
+            return ReferenceData.rowOf(ids, id);
+        }
+
+        void addTo(Fingerprint fingerprint) {
+            fingerprint.add(ids.length);
+            for (int row = 0; row < ids.length; row++) {
+                fingerprint.add(ids[row]).add(weights[row]);
+            }
+        }
+
+        /**
+         * Returns a copy with the row for the ID added or replaced.
+         */
+        WeightTable with(long id, double weight) {
+            int row = Arrays.binarySearch(ids, id);
+            WeightTable copy;
+            if (row >= 0) {
+                copy = new WeightTable(ids.clone(), weights.clone());
+            } else {
+                row = -row - 1;
+                copy = new WeightTable(insertGap(ids, row), insertGap(weights, row));
+            }
+            copy.ids[row] = id;
+            copy.weights[row] = weight;
+            return copy;
+        }
+    }
+
+    private static long[] insertGap(long[] source, int row) {
+        long[] target = new long[source.length + 1];
+        System.arraycopy(source, 0, target, 0, row);
+        System.arraycopy(source, row, target, row + 1, source.length - row);
+        return target;
+    }
+
+    private static double[] insertGap(double[] source, int row) {
+        double[] target = new double[source.length + 1];
+        System.arraycopy(source, 0, target, 0, row);
+        System.arraycopy(source, row, target, row + 1, source.length - row);
+        return target;
+    }
+
+    private static String[] insertGap(String[] source, int row) {
+        String[] target = new String[source.length + 1];
+        System.arraycopy(source, 0, target, 0, row);
+        System.arraycopy(source, row, target, row + 1, source.length - row);
+        return target;
+    }
+}
@@ -0,0 +1,136 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Product;
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.event.EntityChangedEvent;
+import com.jumbotail.shipping.repository.CustomerRepository;
+import com.jumbotail.shipping.repository.ProductRepository;
+import com.jumbotail.shipping.repository.SellerRepository;
+import com.jumbotail.shipping.repository.WarehouseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-mostly in-memory store of the reference data used for quoting.
+ *
+ * Holds the current {@link ReferenceData} version in a volatile field. Quote
+ * paths read it with no transaction and no database I/O; writes build the next
+ * version copy-on-write and publish it with a single reference swap, so
+ * readers always see a complete version. Changes arrive as
+ * {@link EntityChangedEvent}s after commit, ahead of cache invalidation, so
+ * evicted entries are recomputed from the new version.
+ *
+ * When disabled (e.g. in tests that roll back their data), the store never
+ * loads and callers read through the repositories instead.
+ */
+@Component
+@Slf4j
+public class ReferenceDataStore {
+
+    private final boolean enabled;
+    private final SellerRepository sellerRepository;
+    private final CustomerRepository customerRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductRepository productRepository;
+
+    private volatile ReferenceData current;
+
+    public ReferenceDataStore(@Value("${shipping.reference-data.enabled:true}") boolean enabled,
+            SellerRepository sellerRepository, CustomerRepository customerRepository,
+            WarehouseRepository warehouseRepository, ProductRepository productRepository) {
+        this.enabled = enabled;
+        this.sellerRepository = sellerRepository;
+        this.customerRepository = customerRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Returns the current version, or null if the store is not loaded.
+     */
+    public ReferenceData current() {
+        return current;
+    }
+
+    /**
+     * Loads the full reference data set once the application has started,
+     * ahead of the startup warm-up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void load() {
+        if (!enabled) {
+            return;
+        }
+
+        ReferenceData loaded = ReferenceData.of(
+                sellerRepository.findAll(),
+                customerRepository.findAll(),
+                warehouseRepository.findAll(),
+                productRepository.findAll());
+        current = loaded;
+
+        log.info("Loaded reference data: {} sellers, {} customers, {} warehouses, {} products",
+                loaded.sellerCount(), loaded.customerCount(), loaded.warehouseCount(), loaded.productCount());
+    }
+
+    /**
+     * Publishes a committed seller change.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSellerChanged(EntityChangedEvent<Seller> event) {
+        publish(data -> data.withSeller(event.entity()));
+    }
+
+    /**
+     * Publishes a committed customer change.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCustomerChanged(EntityChangedEvent<Customer> event) {
+        publish(data -> data.withCustomer(event.entity()));
+    }
+
+    /**
+     * Publishes a committed warehouse change.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onWarehouseChanged(EntityChangedEvent<Warehouse> event) {
+        publish(data -> data.withWarehouse(event.entity()));
+    }
+
+    /**
+     * Publishes a committed product change.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductChanged(EntityChangedEvent<Product> event) {
+        publish(data -> data.withProduct(event.entity()));
+    }
+
+    /**
+     * Applies a change to the current version and publishes the result.
+     * Does nothing until the store has been loaded, since the load reads the
+     * full set anyway.
+     */
+    private synchronized void publish(UnaryOperator<ReferenceData> change) {
+        ReferenceData data = current;
+        if (data == null) {
+            return;
+        }
+        current = change.apply(data);
+        log.debug("Published reference data version {}", current.version());
+    }
+}
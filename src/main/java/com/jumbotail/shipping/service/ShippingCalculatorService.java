@@ -1,12 +1,12 @@
 package com.jumbotail.shipping.service;
 
+import com.jumbotail.shipping.config.CacheRefresher;
 import com.jumbotail.shipping.entity.Customer;
 import com.jumbotail.shipping.entity.Product;
 import com.jumbotail.shipping.entity.Seller;
 import com.jumbotail.shipping.entity.Warehouse;
 import com.jumbotail.shipping.entity.embeddable.GeoLocation;
 import com.jumbotail.shipping.enums.DeliverySpeed;
-import com.jumbotail.shipping.enums.TransportMode;
 import com.jumbotail.shipping.exception.InvalidRequestException;
 import com.jumbotail.shipping.exception.ResourceNotFoundException;
 import com.jumbotail.shipping.repository.CustomerRepository;
@@ -14,12 +14,9 @@ import com.jumbotail.shipping.repository.ProductRepository;
 import com.jumbotail.shipping.repository.SellerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 /**
  * Service for calculating shipping charges.
@@ -28,18 +25,25 @@ import java.math.RoundingMode;
 @Service
 @Slf4j
 @RequiredArgsConstructor
-public class ShippingCalculatorService {
+public class ShippingCalculatorService implements CacheRefresher {
 
     private final CustomerRepository customerRepository;
     private final SellerRepository sellerRepository;
     private final ProductRepository productRepository;
     private final WarehouseService warehouseService;
     private final GeoLocationService geoLocationService;
+    private final QuoteCache quoteCache;
+    private final ReferenceDataStore referenceDataStore;
+    private final DistanceMatrixStore distanceMatrixStore;
+    private final RateCardStore rateCardStore;
+    private final QuoteLookupExecutor quoteLookupExecutor;
+    private final KnownIds knownIds;
+    private final QuoteReferenceData repositoryReferenceData = new RepositoryReferenceData();
 
     /**
      * Default weight in kg when product is not specified.
      */
-    private static final double DEFAULT_WEIGHT_KG = 1.0;
+    public static final double DEFAULT_WEIGHT_KG = 1.0;
 
     /**
      * Calculates shipping charge from a warehouse to a customer.
@@ -50,106 +54,193 @@ public class ShippingCalculatorService {
      * @param productId     optional product ID for weight-based calculation
      * @return calculated shipping charge in INR
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "shippingCharges", key = "#warehouseId + '_' + #customerId + '_' + #deliverySpeed + '_' + #productId")
     public BigDecimal calculateShippingCharge(Long warehouseId, Long customerId,
             DeliverySpeed deliverySpeed, Long productId) {
+        return quoteFromWarehouse(warehouseId, customerId, deliverySpeed, productId).shippingCharge();
+    }
+
+    /**
+     * Quotes a shipment from a warehouse to a customer.
+     * Each entity is loaded once and the distance is computed once; repeat
+     * quotes are served from the quote cache without touching the database.
+     * 
+     * @param warehouseId   warehouse database ID
+     * @param customerId    customer database ID
+     * @param deliverySpeed delivery speed option
+     * @param productId     optional product ID for weight-based calculation
+     * @return complete quote breakdown; the seller leg is zero
+     */
+    public ShippingQuote quoteFromWarehouse(Long warehouseId, Long customerId,
+            DeliverySpeed deliverySpeed, Long productId) {
+        return quoteCache.get(QuoteCache.QuoteKey.forWarehouse(warehouseId, customerId, deliverySpeed, productId),
+                () -> loadQuoteFromWarehouse(warehouseId, customerId, deliverySpeed, productId));
+    }
+
+    /**
+     * Recomputes a cached quote; a quote whose entities no longer resolve is
+     * evicted.
+     */
+    @Override
+    public Object reload(Object key) {
+        QuoteCache.QuoteKey quoteKey = (QuoteCache.QuoteKey) key;
+        try {
+            return switch (quoteKey.flow()) {
+                case SELLER -> loadQuoteForSeller(quoteKey.originId(), quoteKey.customerId(),
+                        quoteKey.deliverySpeed(), quoteKey.productId());
+                case WAREHOUSE -> loadQuoteFromWarehouse(quoteKey.originId(), quoteKey.customerId(),
+                        quoteKey.deliverySpeed(), quoteKey.productId());
+            };
+        } catch (ResourceNotFoundException | InvalidRequestException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String cacheRegion() {
+        return QuoteCache.REGION;
+    }
+
+    private ShippingQuote loadQuoteFromWarehouse(Long warehouseId, Long customerId,
+            DeliverySpeed deliverySpeed, Long productId) {
         log.info("Calculating shipping charge: warehouse={}, customer={}, speed={}, product={}",
                 warehouseId, customerId, deliverySpeed, productId);
 
-        // Validate and fetch entities
-        Warehouse warehouse = warehouseService.getWarehouseById(warehouseId);
-        Customer customer = getCustomerById(customerId);
+        QuoteReferenceData data = referenceData();
+        QuoteLookupExecutor.Batch lookups = lookups(data);
 
-        // Validate locations
-        validateLocations(warehouse, customer);
+        // Validate and fetch reference data
+        QuoteLookupExecutor.Lookup<WarehouseSnapshot> warehouse = lookups.fork(() -> data.warehouse(warehouseId));
+        QuoteLookupExecutor.Lookup<GeoLocation> customerLocation = lookups.fork(
+                () -> data.customerLocation(customerId));
 
         // Get weight for calculation
-        double weightKg = getWeightForCalculation(productId);
-
-        // Calculate distance
-        double distanceKm = geoLocationService.calculateDistanceInKm(
-                warehouse.getLocation(), customer.getLocation());
+        QuoteLookupExecutor.Lookup<Double> weightKg = lookups.fork(() -> getWeightForCalculation(data, productId));
+        lookups.join();
 
-        // Calculate charge
-        return calculateTotalCharge(distanceKm, weightKg, deliverySpeed);
+        return buildQuote(warehouse.get(), customerId, customerLocation.get(), 0.0, weightKg.get(),
+                deliverySpeed);
     }
 
     /**
-     * Calculates shipping charge from seller to customer via nearest warehouse.
-     * This is the combined calculation that first finds the nearest warehouse,
-     * then calculates the shipping cost.
+     * Quotes a shipment from seller to customer via the seller's nearest
+     * warehouse in a single pass. The seller, customer and product are each
+     * read once from the reference data store, the warehouse comes from the
+     * in-memory spatial index, and both legs are measured once. Repeat quotes
+     * are served from the quote cache.
      * 
      * @param sellerId      seller database ID
      * @param customerId    customer database ID
      * @param deliverySpeed delivery speed option
      * @param productId     optional product ID for weight-based calculation
-     * @return calculated shipping charge in INR
+     * @return complete quote breakdown
      */
-    @Transactional(readOnly = true)
-    public ShippingCalculationResult calculateShippingForSellerAndCustomer(
-            Long sellerId, Long customerId, DeliverySpeed deliverySpeed, Long productId) {
+    public ShippingQuote quoteShipping(Long sellerId, Long customerId,
+            DeliverySpeed deliverySpeed, Long productId) {
+        return quoteCache.get(QuoteCache.QuoteKey.forSeller(sellerId, customerId, deliverySpeed, productId),
+                () -> loadQuoteForSeller(sellerId, customerId, deliverySpeed, productId));
+    }
 
+    private ShippingQuote loadQuoteForSeller(Long sellerId, Long customerId,
+            DeliverySpeed deliverySpeed, Long productId) {
         log.info("Calculating complete shipping: seller={}, customer={}, speed={}, product={}",
                 sellerId, customerId, deliverySpeed, productId);
 
+        QuoteReferenceData data = referenceData();
+        QuoteLookupExecutor.Batch lookups = lookups(data);
+
         // Find nearest warehouse to seller
-        Warehouse nearestWarehouse = warehouseService.findNearestWarehouse(sellerId);
+        QuoteLookupExecutor.Lookup<GeoLocation> sellerLocation = lookups.fork(() -> data.sellerLocation(sellerId));
+        QuoteLookupExecutor.Lookup<GeoLocation> customerLocation = lookups.fork(
+                () -> data.customerLocation(customerId));
+        QuoteLookupExecutor.Lookup<Double> weightKg = lookups.fork(() -> getWeightForCalculation(data, productId));
+        lookups.join();
+
+        WarehouseSnapshot nearestWarehouse = warehouseService.findNearestWarehouseToLocation(sellerLocation.get());
 
-        // Calculate shipping charge from warehouse to customer
-        BigDecimal shippingCharge = calculateShippingCharge(
-                nearestWarehouse.getId(), customerId, deliverySpeed, productId);
+        double sellerToWarehouseKm = geoLocationService.calculateDistanceInKm(
+                sellerLocation.get(), nearestWarehouse.location());
 
-        return new ShippingCalculationResult(shippingCharge, nearestWarehouse);
+        return buildQuote(nearestWarehouse, customerId, customerLocation.get(), sellerToWarehouseKm, weightKg.get(),
+                deliverySpeed);
     }
 
     /**
      * Calculates the total shipping charge including transport and delivery speed
-     * charges.
+     * charges, using the current rate card.
      * 
      * @param distanceKm    distance in kilometers
      * @param weightKg      weight in kilograms
      * @param deliverySpeed delivery speed option
-     * @return total charge rounded to 2 decimal places
+     * @return total charge in paise
      */
-    public BigDecimal calculateTotalCharge(double distanceKm, double weightKg, DeliverySpeed deliverySpeed) {
-        // Determine transport mode based on distance
-        TransportMode transportMode = TransportMode.getByDistance(distanceKm);
+    public long calculateTotalChargePaise(double distanceKm, double weightKg, DeliverySpeed deliverySpeed) {
+        return calculateTotalChargePaise(rateCardStore.current(), distanceKm, weightKg, deliverySpeed);
+    }
 
-        log.debug("Selected transport mode: {} for distance: {} km", transportMode, distanceKm);
+    private long calculateTotalChargePaise(RateCard rateCard, double distanceKm, double weightKg,
+            DeliverySpeed deliverySpeed) {
+        long totalPaise = rateCard.chargePaise(distanceKm, weightKg, deliverySpeed);
 
-        // Calculate transport charge
-        double transportCharge = transportMode.calculateCharge(distanceKm, weightKg);
+        if (log.isDebugEnabled()) {
+            log.debug("Selected transport mode: {} for distance: {} km (rate card v{})",
+                    rateCard.transportMode(distanceKm), distanceKm, rateCard.version());
+            log.debug("Charge breakdown in paise: transport={}, delivery={}, total={}",
+                    rateCard.transportChargePaise(distanceKm, weightKg),
+                    rateCard.deliveryChargePaise(deliverySpeed, weightKg),
+                    totalPaise);
+        }
+
+        return totalPaise;
+    }
+
+    /**
+     * Prices the warehouse-to-customer leg for already resolved reference
+     * data. The distance is read from the materialized distance matrix when
+     * it holds the pair at these coordinates, and measured otherwise. The
+     * charge and transport mode come from the same rate card.
+     */
+    ShippingQuote buildQuote(WarehouseSnapshot warehouse, Long customerId, GeoLocation customerLocation,
+            double sellerToWarehouseKm, double weightKg, DeliverySpeed deliverySpeed) {
+        RateCard rateCard = rateCardStore.current();
 
-        // Calculate delivery speed charge
-        double deliveryCharge = deliverySpeed.calculateDeliveryCharge(weightKg);
+        // Calculate distance
+        double distanceKm = warehouseToCustomerKm(warehouse, customerId, customerLocation);
 
-        // Total charge
-        double totalCharge = transportCharge + deliveryCharge;
+        // Calculate charge
+        long chargePaise = calculateTotalChargePaise(rateCard, distanceKm, weightKg, deliverySpeed);
 
-        log.debug("Charge breakdown: transport={}, delivery={}, total={}",
-                String.format("%.2f", transportCharge),
-                String.format("%.2f", deliveryCharge),
-                String.format("%.2f", totalCharge));
+        return new ShippingQuote(chargePaise, warehouse, sellerToWarehouseKm, distanceKm, weightKg,
+                rateCard.transportMode(distanceKm), deliverySpeed);
+    }
 
-        // Round to 2 decimal places
-        return BigDecimal.valueOf(totalCharge).setScale(2, RoundingMode.HALF_UP);
+    private double warehouseToCustomerKm(WarehouseSnapshot warehouse, Long customerId,
+            GeoLocation customerLocation) {
+        DistanceMatrix matrix = distanceMatrixStore.current();
+        if (matrix != null && customerId != null) {
+            double distanceKm = matrix.distanceKm(warehouse.id(), warehouse.latitude(), warehouse.longitude(),
+                    customerId, customerLocation.getLatitude(), customerLocation.getLongitude());
+            if (!Double.isNaN(distanceKm)) {
+                return distanceKm;
+            }
+        }
+        return geoLocationService.calculateDistanceInKm(warehouse.location(), customerLocation);
     }
 
     /**
-     * Gets a customer by ID.
+     * Returns the reference data store's current version, or the repositories
+     * when the store is not loaded.
      */
-    private Customer getCustomerById(Long customerId) {
-        return customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer", "id", customerId));
+    private QuoteReferenceData referenceData() {
+        ReferenceData data = referenceDataStore.current();
+        return data != null ? data : repositoryReferenceData;
     }
 
     /**
-     * Gets a seller by ID.
+     * Lookups against the repositories are independent round trips and run
+     * concurrently; in-memory reference data is read on the calling thread.
      */
-    private Seller getSellerById(Long sellerId) {
-        return sellerRepository.findById(sellerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Seller", "id", sellerId));
+    private QuoteLookupExecutor.Batch lookups(QuoteReferenceData data) {
+        return data == repositoryReferenceData ? quoteLookupExecutor.batch() : QuoteLookupExecutor.inline();
     }
 
     /**
@@ -157,40 +248,54 @@ public class ShippingCalculatorService {
      * If product is specified, uses the product's chargeable weight.
      * Otherwise, uses default weight.
      */
-    private double getWeightForCalculation(Long productId) {
+    private double getWeightForCalculation(QuoteReferenceData data, Long productId) {
         if (productId == null) {
             log.debug("No product specified, using default weight: {} kg", DEFAULT_WEIGHT_KG);
             return DEFAULT_WEIGHT_KG;
         }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
-
-        double weight = product.getChargeableWeight();
+        double weight = data.chargeableWeight(productId);
         log.debug("Using product chargeable weight: {} kg", weight);
         return weight;
     }
 
     /**
-     * Validates that both warehouse and customer have valid locations.
+     * Reads reference data through the repositories, one query per lookup.
      */
-    private void validateLocations(Warehouse warehouse, Customer customer) {
-        if (warehouse.getLocation() == null) {
-            throw new InvalidRequestException(
-                    String.format("Warehouse '%s' does not have location information",
-                            warehouse.getWarehouseCode()));
+    private final class RepositoryReferenceData implements QuoteReferenceData {
+
+        @Override
+        public GeoLocation sellerLocation(Long sellerId) {
+            Seller seller = knownIds.sellers().find(sellerId, sellerRepository::findById);
+            if (seller.getLocation() == null) {
+                throw QuoteReferenceData.sellerWithoutLocation(sellerId);
+            }
+            return seller.getLocation();
         }
 
-        if (customer.getLocation() == null) {
-            throw new InvalidRequestException(
-                    String.format("Customer '%s' does not have location information",
-                            customer.getCustomerId()));
+        @Override
+        public GeoLocation customerLocation(Long customerId) {
+            Customer customer = knownIds.customers().find(customerId, customerRepository::findById);
+            if (customer.getLocation() == null) {
+                throw QuoteReferenceData.customerWithoutLocation(customer.getCustomerId());
+            }
+            return customer.getLocation();
         }
-    }
 
-    /**
-     * Result object for shipping calculation containing charge and warehouse info.
-     */
-    public record ShippingCalculationResult(BigDecimal shippingCharge, Warehouse warehouse) {
+        @Override
+        public WarehouseSnapshot warehouse(Long warehouseId) {
+            Warehouse warehouse = warehouseService.getWarehouseById(warehouseId);
+            if (warehouse.getLocation() == null) {
+                throw QuoteReferenceData.warehouseWithoutLocation(warehouse.getWarehouseCode());
+            }
+            return WarehouseSnapshot.of(warehouse);
+        }
+
+        @Override
+        public double chargeableWeight(Long productId) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+            return product.getChargeableWeight();
+        }
     }
 }
@@ -0,0 +1,35 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.enums.TransportMode;
+
+import java.math.BigDecimal;
+
+/**
+ * Complete breakdown of a shipping quote.
+ *
+ * @param chargePaise           total charge in paise
+ * @param warehouse             warehouse the seller drops the shipment at
+ * @param sellerToWarehouseKm   distance from seller to warehouse; zero when
+ *                              quoted directly from a warehouse
+ * @param warehouseToCustomerKm distance from warehouse to customer
+ * @param weightKg              chargeable weight used for pricing
+ * @param transportMode         transport mode selected for the line haul
+ * @param deliverySpeed         requested delivery speed
+ */
+public record ShippingQuote(
+        long chargePaise,
+        WarehouseSnapshot warehouse,
+        double sellerToWarehouseKm,
+        double warehouseToCustomerKm,
+        double weightKg,
+        TransportMode transportMode,
+        DeliverySpeed deliverySpeed) {
+
+    /**
+     * Total charge in INR with two decimal places, for responses.
+     */
+    public BigDecimal shippingCharge() {
+        return Paise.toRupees(chargePaise);
+    }
+}
@@ -0,0 +1,88 @@
+package com.jumbotail.shipping.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one computation per key at a time.
+ *
+ * The first caller for a key computes the value; callers arriving with the
+ * same key while it runs wait for that computation and get its result, or
+ * its exception, instead of repeating it. Nothing is kept once the
+ * computation finishes, so callers put the value somewhere later callers
+ * look first, typically a cache, from inside the computation.
+ *
+ * Registers {@code shipping.cache.coalesced{region}}, callers that waited on
+ * another's computation, and {@code shipping.cache.in-flight{region}}, keys
+ * being computed.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    /**
+     * @param region        name of the cache region the values belong to
+     * @param meterRegistry registry for the coalescing metrics
+     */
+    SingleFlight(String region, MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("shipping.cache.coalesced")
+                .description("Cache misses served by another caller's computation of the same key")
+                .tag("region", region)
+                .register(meterRegistry);
+        Gauge.builder("shipping.cache.in-flight", inFlight, Map::size)
+                .description("Keys being computed after a cache miss")
+                .tag("region", region)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the value for the key, computing it unless a computation for
+     * the key is already running, in which case its result is awaited.
+     *
+     * @throws RuntimeException the computation's exception, unwrapped
+     */
+    V run(K key, Supplier<V> computation) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        try {
+            V value = computation.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
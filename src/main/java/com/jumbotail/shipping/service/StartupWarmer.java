@@ -0,0 +1,263 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.exception.InvalidRequestException;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.geo.GeoKdTree;
+import com.jumbotail.shipping.geo.NearestCellGrid;
+import com.jumbotail.shipping.repository.SellerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms the node before it takes traffic.
+ *
+ * Once the reference data and warehouse index have loaded, resolves the
+ * nearest warehouse of every active seller into the nearestWarehouse cache
+ * and quotes synthetic trips from random points in India, so the lookup and
+ * pricing paths are compiled before the first real request. Both run in
+ * parallel on a pool that only lives for the warm-up.
+ *
+ * Synthetic trips take the quote path below the quote cache: the seller's
+ * nearest warehouse from the index, then
+ * {@link ShippingCalculatorService#buildQuote}, which reads the distance
+ * matrix for known customers, measures random points and prices the trip
+ * without caching it. The quote services log at most warnings meanwhile, so
+ * the workload does not flood the log.
+ *
+ * Runs inside the {@link ApplicationReadyEvent}, and Spring Boot reports the
+ * application ready to accept traffic only after every listener of that
+ * event has returned, so the readiness probe stays down until the node is
+ * warm. A warm-up that fails or overruns its timeout is logged and the node
+ * goes ready cold.
+ */
+@Component
+@Slf4j
+public class StartupWarmer {
+
+    private static final double MAX_SYNTHETIC_WEIGHT_KG = 50.0;
+
+    /**
+     * Loggers quieted to {@link LogLevel#WARN} while the warm-up runs.
+     */
+    private static final List<Class<?>> QUIET_LOGGERS = List.of(WarehouseService.class,
+            ShippingCalculatorService.class);
+
+    private final boolean enabled;
+    private final int threads;
+    private final int syntheticQuotes;
+    private final Duration timeout;
+    private final SellerRepository sellerRepository;
+    private final WarehouseService warehouseService;
+    private final WarehouseSpatialIndex warehouseIndex;
+    private final GeoLocationService geoLocationService;
+    private final ShippingCalculatorService shippingCalculatorService;
+    private final ReferenceDataStore referenceDataStore;
+    private final DistanceMatrixStore distanceMatrixStore;
+    private final LoggingSystem loggingSystem;
+
+    public StartupWarmer(@Value("${shipping.warmup.enabled:true}") boolean enabled,
+            @Value("${shipping.warmup.threads:4}") int threads,
+            @Value("${shipping.warmup.synthetic-quotes:20000}") int syntheticQuotes,
+            @Value("${shipping.warmup.timeout:PT2M}") Duration timeout,
+            SellerRepository sellerRepository, WarehouseService warehouseService,
+            WarehouseSpatialIndex warehouseIndex, GeoLocationService geoLocationService,
+            ShippingCalculatorService shippingCalculatorService, ReferenceDataStore referenceDataStore,
+            DistanceMatrixStore distanceMatrixStore, LoggingSystem loggingSystem) {
+        this.enabled = enabled;
+        this.threads = Math.max(1, threads);
+        this.syntheticQuotes = Math.max(0, syntheticQuotes);
+        this.timeout = timeout;
+        this.sellerRepository = sellerRepository;
+        this.warehouseService = warehouseService;
+        this.warehouseIndex = warehouseIndex;
+        this.geoLocationService = geoLocationService;
+        this.shippingCalculatorService = shippingCalculatorService;
+        this.referenceDataStore = referenceDataStore;
+        this.distanceMatrixStore = distanceMatrixStore;
+        this.loggingSystem = loggingSystem;
+    }
+
+    /**
+     * Runs the warm-up after the stores have loaded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<String, LogLevel> quieted = quietLoggers();
+        try {
+            warehouseService.loadWarehouseIndex();
+            List<Long> sellerIds = sellerRepository.findByIsActiveTrue().stream()
+                    .map(Seller::getId)
+                    .toList();
+
+            List<CompletableFuture<Integer>> nearest = new ArrayList<>();
+            for (List<Long> chunk : partition(sellerIds, threads)) {
+                nearest.add(CompletableFuture.supplyAsync(() -> warmNearestWarehouses(chunk), pool));
+            }
+            List<CompletableFuture<Long>> quotes = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int count = syntheticQuotes / threads + (i < syntheticQuotes % threads ? 1 : 0);
+                long seed = i;
+                quotes.add(CompletableFuture.supplyAsync(() -> runSyntheticQuotes(count, seed), pool));
+            }
+
+            List<CompletableFuture<?>> all = new ArrayList<>(nearest);
+            all.addAll(quotes);
+            CompletableFuture.allOf(all.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            int resolved = nearest.stream().mapToInt(CompletableFuture::join).sum();
+            long quoted = quotes.stream().mapToLong(CompletableFuture::join).sum();
+            log.info("Warm-up done in {} ms: nearest warehouse for {} of {} active sellers, {} synthetic trips",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), resolved, sellerIds.size(), quoted);
+        } catch (TimeoutException e) {
+            log.warn("Warm-up did not finish within {}, accepting traffic partly cold", timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            log.warn("Warm-up failed, accepting traffic cold", e instanceof ExecutionException ? e.getCause() : e);
+        } finally {
+            pool.shutdownNow();
+            quieted.forEach(loggingSystem::setLogLevel);
+        }
+    }
+
+    /**
+     * Raises the quote service loggers to {@link LogLevel#WARN}.
+     *
+     * @return the levels to restore, null where a logger had none configured
+     */
+    private Map<String, LogLevel> quietLoggers() {
+        Map<String, LogLevel> previous = new LinkedHashMap<>();
+        for (Class<?> type : QUIET_LOGGERS) {
+            LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(type.getName());
+            previous.put(type.getName(), configuration == null ? null : configuration.getConfiguredLevel());
+            loggingSystem.setLogLevel(type.getName(), LogLevel.WARN);
+        }
+        return previous;
+    }
+
+    /**
+     * Resolves each seller's nearest warehouse through the cache.
+     *
+     * @return number of sellers resolved; sellers without a location or a
+     *         reachable warehouse are skipped
+     */
+    private int warmNearestWarehouses(List<Long> sellerIds) {
+        int resolved = 0;
+        for (Long sellerId : sellerIds) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            try {
+                warehouseService.findNearestWarehouse(sellerId);
+                resolved++;
+            } catch (ResourceNotFoundException e) {
+                log.debug("Skipped warm-up of seller {}: {}", sellerId, e.getMessage());
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Quotes random seller-warehouse-customer trips the way a seller quote
+     * does, without caching them. Every other trip goes to a customer in the
+     * distance matrix, the rest to a random point that has to be measured.
+     *
+     * @return number of trips quoted
+     */
+    private long runSyntheticQuotes(int count, long seed) {
+        GeoKdTree<WarehouseSnapshot> tree = warehouseIndex.current();
+        if (tree == null || tree.isEmpty()) {
+            return 0;
+        }
+
+        NearestCellGrid.Bounds bounds = WarehouseSpatialIndex.INDIA;
+        DeliverySpeed[] speeds = DeliverySpeed.values();
+        ReferenceData referenceData = referenceDataStore.current();
+        DistanceMatrix matrix = distanceMatrixStore.current();
+        long[] customerIds = referenceData != null && matrix != null ? matrix.customerIds() : new long[0];
+        SplittableRandom random = new SplittableRandom(seed);
+        long quoted = 0;
+        long totalPaise = 0;
+        for (int i = 0; i < count && !Thread.currentThread().isInterrupted(); i++) {
+            GeoLocation seller = randomLocation(random, bounds);
+            WarehouseSnapshot warehouse = warehouseService.findNearestWarehouseToLocation(seller);
+            double sellerToWarehouseKm = geoLocationService.calculateDistanceInKm(seller, warehouse.location());
+
+            Long customerId = null;
+            GeoLocation customer;
+            if (i % 2 == 0 && customerIds.length > 0) {
+                customerId = customerIds[random.nextInt(customerIds.length)];
+                try {
+                    customer = referenceData.customerLocation(customerId);
+                } catch (ResourceNotFoundException | InvalidRequestException e) {
+                    // Changed since the matrix was built
+                    continue;
+                }
+            } else {
+                customer = randomLocation(random, bounds);
+            }
+
+            ShippingQuote quote = shippingCalculatorService.buildQuote(warehouse, customerId, customer,
+                    sellerToWarehouseKm, random.nextDouble(0.1, MAX_SYNTHETIC_WEIGHT_KG),
+                    speeds[random.nextInt(speeds.length)]);
+            totalPaise += quote.chargePaise();
+            quoted++;
+        }
+        log.debug("Quoted {} synthetic trips totalling {} paise", quoted, totalPaise);
+        return quoted;
+    }
+
+    private static GeoLocation randomLocation(SplittableRandom random, NearestCellGrid.Bounds bounds) {
+        return GeoLocation.builder()
+                .latitude(random.nextDouble(bounds.minLatitude(), bounds.maxLatitude()))
+                .longitude(random.nextDouble(bounds.minLongitude(), bounds.maxLongitude()))
+                .build();
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int parts) {
+        List<List<T>> chunks = new ArrayList<>();
+        int size = (items.size() + parts - 1) / parts;
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(items.size(), from + size)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,216 @@
+package com.jumbotail.shipping.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jumbotail.shipping.dto.request.ShippingCalculateRequest;
+import com.jumbotail.shipping.service.BatchShippingService.BatchQuoteResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Service for quoting an unbounded stream of newline-delimited JSON requests.
+ *
+ * Lines are read in fixed-size chunks. Each chunk is quoted through
+ * {@link BatchShippingService} and handed to the sink before the next chunk
+ * is read, so memory use does not grow with the size of the stream and a slow
+ * consumer slows down reading instead of piling up results. No more than
+ * {@code shipping.stream.max-line-length} characters of a line are held; a
+ * longer line is skipped to its end and yields a 400 result, so one huge line
+ * cannot exhaust the heap either.
+ */
+@Service
+@Slf4j
+public class StreamingShippingService {
+
+    /**
+     * Number of request lines quoted together. Large enough to amortise the
+     * per-chunk entity loads, small enough to keep results flowing.
+     */
+    static final int CHUNK_SIZE = 500;
+
+    private final BatchShippingService batchShippingService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Longest request line accepted, in characters.
+     */
+    private final int maxLineLength;
+
+    public StreamingShippingService(BatchShippingService batchShippingService, ObjectMapper objectMapper,
+            @Value("${shipping.stream.max-line-length:16384}") int maxLineLength) {
+        if (maxLineLength <= 0) {
+            throw new IllegalArgumentException("Maximum line length must be positive: " + maxLineLength);
+        }
+        this.batchShippingService = batchShippingService;
+        this.objectMapper = objectMapper;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Quotes every request line in the reader and passes the results to the
+     * sink one chunk at a time. Blank lines are skipped; a line that is not a
+     * valid request, or is longer than the maximum, yields a 400 result at
+     * its position.
+     *
+     * @param reader source of newline-delimited {@link ShippingCalculateRequest} JSON
+     * @param sink   receives each chunk's results, in input order
+     * @return total number of results produced
+     */
+    public long process(Reader reader, Consumer<List<BatchQuoteResult>> sink) {
+        long offset = 0;
+        // Null marks a line that was too long
+        List<String> lines = new ArrayList<>(CHUNK_SIZE);
+        LineReader lineReader = new LineReader(reader, maxLineLength);
+        try {
+            while (lineReader.next()) {
+                if (lineReader.tooLong()) {
+                    lines.add(null);
+                } else if (lineReader.isBlank()) {
+                    continue;
+                } else {
+                    lines.add(lineReader.line());
+                }
+                if (lines.size() == CHUNK_SIZE) {
+                    sink.accept(quoteChunk(lines, offset));
+                    offset += lines.size();
+                    lines.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read quote stream", e);
+        }
+
+        if (!lines.isEmpty()) {
+            sink.accept(quoteChunk(lines, offset));
+            offset += lines.size();
+        }
+
+        log.info("Streamed {} shipping quotes", offset);
+        return offset;
+    }
+
+    private List<BatchQuoteResult> quoteChunk(List<String> lines, long offset) {
+        BatchQuoteResult[] results = new BatchQuoteResult[lines.size()];
+        List<ShippingCalculateRequest> requests = new ArrayList<>(lines.size());
+        List<Integer> positions = new ArrayList<>(lines.size());
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line == null) {
+                results[i] = BatchQuoteResult.failure(offset + i, HttpStatus.BAD_REQUEST,
+                        "Request line is longer than " + maxLineLength + " characters");
+                continue;
+            }
+            try {
+                requests.add(objectMapper.readValue(line, ShippingCalculateRequest.class));
+                positions.add(i);
+            } catch (JsonProcessingException e) {
+                results[i] = BatchQuoteResult.failure(offset + i, HttpStatus.BAD_REQUEST,
+                        "Malformed JSON request line");
+            }
+        }
+
+        if (!requests.isEmpty()) {
+            List<BatchQuoteResult> quoted = batchShippingService.calculateBatch(requests);
+            for (int j = 0; j < quoted.size(); j++) {
+                BatchQuoteResult result = quoted.get(j);
+                int position = positions.get(j);
+                results[position] = new BatchQuoteResult(offset + position,
+                        result.quote(), result.status(), result.errorMessage());
+            }
+        }
+
+        return List.of(results);
+    }
+
+    /**
+     * Splits a reader into lines like {@link java.io.BufferedReader#readLine()},
+     * ending them at {@code \n}, {@code \r} or {@code \r\n}, but holds at most
+     * a maximum number of characters of a line. The rest of a longer line is
+     * read and dropped.
+     */
+    private static final class LineReader {
+
+        private final Reader in;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+        private boolean tooLong;
+
+        LineReader(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Reads the next line.
+         *
+         * @return false at the end of the input
+         */
+        boolean next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            boolean started = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(in.read(buffer, 0, buffer.length), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        return started;
+                    }
+                }
+
+                char c = buffer[position++];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                started = true;
+                if (c == '\n' || c == '\r') {
+                    skipLineFeed = c == '\r';
+                    return true;
+                }
+                if (line.length() < maxLength) {
+                    line.append(c);
+                } else {
+                    tooLong = true;
+                }
+            }
+        }
+
+        /**
+         * Whether the line was longer than the maximum; its text is then
+         * incomplete.
+         */
+        boolean tooLong() {
+            return tooLong;
+        }
+
+        boolean isBlank() {
+            for (int i = 0; i < line.length(); i++) {
+                if (!Character.isWhitespace(line.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String line() {
+            return line.toString();
+        }
+    }
+}
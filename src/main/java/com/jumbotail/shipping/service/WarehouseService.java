@@ -1,19 +1,25 @@
 package com.jumbotail.shipping.service;
 
+import com.jumbotail.shipping.config.CacheRefresher;
 import com.jumbotail.shipping.entity.Seller;
 import com.jumbotail.shipping.entity.Warehouse;
 import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.event.EntityChangedEvent;
 import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.geo.GeoKdTree;
 import com.jumbotail.shipping.repository.SellerRepository;
 import com.jumbotail.shipping.repository.WarehouseRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.Comparator;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Service for warehouse-related operations.
@@ -21,30 +27,97 @@ import java.util.List;
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
-public class WarehouseService {
+public class WarehouseService implements CacheRefresher {
+
+    /**
+     * Cache region for nearest-warehouse lookups by seller.
+     */
+    public static final String NEAREST_WAREHOUSE_REGION = "nearestWarehouse";
 
     private final WarehouseRepository warehouseRepository;
     private final SellerRepository sellerRepository;
     private final GeoLocationService geoLocationService;
+    private final WarehouseSpatialIndex warehouseIndex;
+    private final KnownIds knownIds;
+    private final NearestWarehouseCache nearestWarehouseCache;
+
+    public WarehouseService(WarehouseRepository warehouseRepository, SellerRepository sellerRepository,
+            GeoLocationService geoLocationService, WarehouseSpatialIndex warehouseIndex, KnownIds knownIds,
+            NearestWarehouseCache nearestWarehouseCache) {
+        this.warehouseRepository = warehouseRepository;
+        this.sellerRepository = sellerRepository;
+        this.geoLocationService = geoLocationService;
+        this.warehouseIndex = warehouseIndex;
+        this.knownIds = knownIds;
+        this.nearestWarehouseCache = nearestWarehouseCache;
+    }
+
+    /**
+     * Builds the warehouse spatial index once the application has started, so
+     * the first nearest-warehouse lookup does not pay for it. Runs ahead of
+     * the startup warm-up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void loadWarehouseIndex() {
+        activeWarehouseTree();
+    }
 
     /**
      * Finds the nearest active warehouse to a seller's location.
      * Results are cached to improve performance for repeated queries.
+     * Runs outside a transaction: the seller is read in the repository's
+     * own, and unknown seller IDs are usually rejected before any database
+     * work. Concurrent misses for the same seller share one lookup.
      * 
      * @param sellerId the seller's database ID
      * @return the nearest active warehouse
      * @throws ResourceNotFoundException if seller not found or no active warehouses
      *                                   available
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "nearestWarehouse", key = "#sellerId")
-    public Warehouse findNearestWarehouse(Long sellerId) {
-        log.info("Finding nearest warehouse for seller ID: {}", sellerId);
+    public WarehouseSnapshot findNearestWarehouse(Long sellerId) {
+        return nearestWarehouseCache.get(sellerId, () -> {
+            log.info("Finding nearest warehouse for seller ID: {}", sellerId);
+            return resolveNearestWarehouse(sellerId);
+        });
+    }
 
+    /**
+     * Finds the nearest active warehouse to a seller whose location the
+     * caller reads itself, e.g. from the in-memory reference data. Shares
+     * the cache of {@link #findNearestWarehouse(Long)}.
+     *
+     * @param sellerId       the seller's database ID
+     * @param sellerLocation reads the seller's location on a cache miss
+     * @return the nearest active warehouse
+     * @throws ResourceNotFoundException if seller not found or no active warehouses
+     *                                   available
+     */
+    public WarehouseSnapshot findNearestWarehouse(Long sellerId, Supplier<GeoLocation> sellerLocation) {
+        return nearestWarehouseCache.get(sellerId, () -> findNearestWarehouseToLocation(sellerLocation.get()));
+    }
+
+    /**
+     * Recomputes a cached nearest-warehouse entry; a seller that no longer
+     * resolves is evicted.
+     */
+    @Override
+    public Object reload(Object key) {
+        try {
+            return resolveNearestWarehouse((Long) key);
+        } catch (ResourceNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String cacheRegion() {
+        return NEAREST_WAREHOUSE_REGION;
+    }
+
+    private WarehouseSnapshot resolveNearestWarehouse(Long sellerId) {
         // Fetch seller with location
-        Seller seller = sellerRepository.findById(sellerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Seller", "id", sellerId));
+        Seller seller = knownIds.sellers().find(sellerId, sellerRepository::findById);
 
         if (seller.getLocation() == null) {
             throw new ResourceNotFoundException(
@@ -56,37 +129,79 @@ public class WarehouseService {
 
     /**
      * Finds the nearest active warehouse to a given location.
+     * Uses the in-memory spatial index, so no database access is needed once
+     * the index is loaded. Locations in a conclusive cell of the precomputed
+     * grid are answered by a table lookup; the rest by a tree search.
+     * Runs outside a transaction, so a lookup never checks out a
+     * connection; a cold index loads in the repository's own.
      * 
      * @param location the reference location
      * @return the nearest active warehouse
      * @throws ResourceNotFoundException if no active warehouses available
      */
-    @Transactional(readOnly = true)
-    public Warehouse findNearestWarehouseToLocation(GeoLocation location) {
+    public WarehouseSnapshot findNearestWarehouseToLocation(GeoLocation location) {
         log.debug("Finding nearest warehouse to location: {}", location.toCoordinateString());
 
-        List<Warehouse> activeWarehouses = warehouseRepository.findByIsActiveTrue();
-
-        if (activeWarehouses.isEmpty()) {
-            log.error("No active warehouses found in the system");
-            throw new ResourceNotFoundException("No active warehouses available in the system");
+        WarehouseSnapshot nearestWarehouse = warehouseIndex.gridNearest(location.getLatitude(),
+                location.getLongitude());
+        if (nearestWarehouse == null) {
+            nearestWarehouse = activeWarehouseTree()
+                    .nearest(location.getLatitude(), location.getLongitude())
+                    .orElseThrow(() -> {
+                        log.error("No active warehouses found in the system");
+                        return new ResourceNotFoundException("No active warehouses available in the system");
+                    });
         }
 
-        // Find warehouse with minimum distance
-        Warehouse nearestWarehouse = activeWarehouses.stream()
-                .filter(w -> w.getLocation() != null)
-                .min(Comparator.comparingDouble(
-                        warehouse -> geoLocationService.calculateDistanceInKm(location, warehouse.getLocation())))
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "No warehouses with valid location found"));
-
-        double distance = geoLocationService.calculateDistanceInKm(location, nearestWarehouse.getLocation());
+        double distance = geoLocationService.calculateDistanceInKm(location, nearestWarehouse.location());
         log.info("Nearest warehouse: {} (ID: {}) at distance: {:.2f} km",
-                nearestWarehouse.getName(), nearestWarehouse.getId(), distance);
+                nearestWarehouse.name(), nearestWarehouse.id(), distance);
 
         return nearestWarehouse;
     }
 
+    /**
+     * Finds the k nearest active warehouses to a given location.
+     * 
+     * @param location the reference location
+     * @param k        maximum number of warehouses to return
+     * @return warehouses with their distances, closest first
+     */
+    public List<WarehouseDistance> findNearestWarehouses(GeoLocation location, int k) {
+        log.debug("Finding {} nearest warehouses to location: {}", k, location.toCoordinateString());
+
+        return toWarehouseDistances(activeWarehouseTree()
+                .nearest(location.getLatitude(), location.getLongitude(), k));
+    }
+
+    /**
+     * Finds active warehouses within a radius of a given location.
+     * 
+     * @param location the reference location
+     * @param radiusKm search radius in kilometers
+     * @param limit    maximum number of warehouses to return
+     * @return warehouses with their distances, closest first
+     */
+    public List<WarehouseDistance> findWarehousesWithinRadius(GeoLocation location, double radiusKm, int limit) {
+        log.debug("Finding warehouses within {} km of location: {}", radiusKm, location.toCoordinateString());
+
+        return toWarehouseDistances(activeWarehouseTree()
+                .withinRadius(location.getLatitude(), location.getLongitude(), radiusKm, limit));
+    }
+
+    /**
+     * Applies a committed warehouse change to the spatial index, adding it
+     * when active and removing it when deactivated. Runs ahead of cache
+     * invalidation, so evicted lookups are recomputed against the new index.
+     * 
+     * @param event the warehouse change
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onWarehouseChanged(EntityChangedEvent<Warehouse> event) {
+        warehouseIndex.upsert(event.entity());
+    }
+
     /**
      * Gets a warehouse by its ID.
      * 
@@ -128,4 +243,28 @@ public class WarehouseService {
 
         return geoLocationService.calculateDistanceInKm(warehouse.getLocation(), customerLocation);
     }
+
+    private static List<WarehouseDistance> toWarehouseDistances(List<GeoKdTree.Neighbor<WarehouseSnapshot>> neighbors) {
+        return neighbors.stream()
+                .map(n -> new WarehouseDistance(n.value(), n.distanceKm()))
+                .toList();
+    }
+
+    /**
+     * Returns the spatial index over active warehouses, loading it from the
+     * repository if it has not been built yet.
+     */
+    private GeoKdTree<WarehouseSnapshot> activeWarehouseTree() {
+        GeoKdTree<WarehouseSnapshot> tree = warehouseIndex.current();
+        if (tree == null) {
+            tree = warehouseIndex.load(warehouseRepository.findByIsActiveTrue());
+        }
+        return tree;
+    }
+
+    /**
+     * A warehouse together with its distance from a reference location.
+     */
+    public record WarehouseDistance(WarehouseSnapshot warehouse, double distanceKm) {
+    }
 }
@@ -0,0 +1,42 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+
+/**
+ * Immutable view of the warehouse fields needed for quoting.
+ *
+ * Caches, the spatial index and quotes hold these instead of {@link Warehouse}
+ * entities: a snapshot is a handful of fields with primitive coordinates, is
+ * safe to share between threads, and carries no persistence state.
+ *
+ * @param id        warehouse database ID
+ * @param code      warehouse code
+ * @param name      warehouse name
+ * @param latitude  latitude in degrees
+ * @param longitude longitude in degrees
+ */
+public record WarehouseSnapshot(long id, String code, String name, double latitude, double longitude) {
+
+    /**
+     * Captures a snapshot of a located warehouse.
+     *
+     * @param warehouse warehouse with a database ID and a location
+     * @return the snapshot
+     */
+    public static WarehouseSnapshot of(Warehouse warehouse) {
+        GeoLocation location = warehouse.getLocation();
+        return new WarehouseSnapshot(warehouse.getId(), warehouse.getWarehouseCode(), warehouse.getName(),
+                location.getLatitude(), location.getLongitude());
+    }
+
+    /**
+     * Returns the coordinates as a new {@link GeoLocation}.
+     */
+    public GeoLocation location() {
+        return GeoLocation.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
@@ -0,0 +1,192 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.geo.GeoKdTree;
+import com.jumbotail.shipping.geo.NearestCellGrid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory spatial index over active warehouses.
+ *
+ * Holds an immutable {@link GeoKdTree} of {@link WarehouseSnapshot}s that is
+ * swapped atomically on every change, so lookups never lock and never touch
+ * the database. Writes are applied to the in-memory member set and the tree
+ * is rebuilt from it without reloading rows.
+ *
+ * Alongside the tree it keeps a {@link NearestCellGrid} over India, rebuilt
+ * with every change, so most nearest-warehouse lookups are a single array
+ * read; locations near a boundary between warehouses fall back to the tree.
+ *
+ * When retention is disabled (e.g. in tests that roll back their data), the
+ * index never keeps a tree and callers rebuild one per lookup.
+ */
+@Component
+@Slf4j
+public class WarehouseSpatialIndex {
+
+    /**
+     * Area covered by the nearest-warehouse grid: mainland India with margin.
+     */
+    static final NearestCellGrid.Bounds INDIA = new NearestCellGrid.Bounds(6.0, 37.5, 68.0, 97.5);
+
+    private final boolean retained;
+
+    /**
+     * Grid cell edge in degrees; zero or less disables the grid.
+     */
+    private final double gridCellDegrees;
+
+    /**
+     * Active warehouses with a location, keyed by database ID. Guarded by
+     * {@code this}.
+     */
+    private final Map<Long, WarehouseSnapshot> members = new LinkedHashMap<>();
+
+    /**
+     * Tree and grid built from the same member set, swapped together.
+     */
+    private volatile Loaded loaded;
+
+    public WarehouseSpatialIndex(@Value("${shipping.warehouse-index.enabled:true}") boolean retained,
+            @Value("${shipping.warehouse-index.grid-cell-degrees:0.1}") double gridCellDegrees) {
+        this.retained = retained;
+        this.gridCellDegrees = gridCellDegrees;
+    }
+
+    /**
+     * Returns the current tree, or null if the index has not been loaded yet.
+     */
+    public GeoKdTree<WarehouseSnapshot> current() {
+        Loaded current = loaded;
+        return current == null ? null : current.tree();
+    }
+
+    /**
+     * Returns a hash of the indexed warehouses, stable across restarts, or
+     * zero if the index has not been loaded.
+     */
+    public long contentHash() {
+        Loaded current = loaded;
+        return current == null ? 0 : current.contentHash();
+    }
+
+    /**
+     * Returns the precomputed nearest warehouse for a location.
+     *
+     * @return the nearest warehouse, or null if the index is not loaded, the
+     *         location is outside the grid, or its cell is too close to a
+     *         boundary between warehouses to be decided in advance
+     */
+    public WarehouseSnapshot gridNearest(double latitude, double longitude) {
+        Loaded current = loaded;
+        if (current == null || current.grid() == null) {
+            return null;
+        }
+        return current.grid().nearest(latitude, longitude);
+    }
+
+    /**
+     * Replaces the index contents with the given warehouses.
+     *
+     * @param warehouses active warehouses, typically from the repository
+     * @return the newly built tree
+     */
+    public synchronized GeoKdTree<WarehouseSnapshot> load(Collection<Warehouse> warehouses) {
+        members.clear();
+        for (Warehouse warehouse : warehouses) {
+            if (isIndexable(warehouse)) {
+                members.put(warehouse.getId(), WarehouseSnapshot.of(warehouse));
+            }
+        }
+
+        GeoKdTree<WarehouseSnapshot> built = buildTree();
+        if (retained) {
+            loaded = new Loaded(built, buildGrid(built), contentHashOfMembers());
+            log.info("Loaded warehouse spatial index with {} warehouses", built.size());
+        } else {
+            members.clear();
+        }
+        return built;
+    }
+
+    /**
+     * Applies a created or updated warehouse to the index. Inactive warehouses
+     * and warehouses without a location are removed.
+     *
+     * Does nothing until the index has been loaded, since the first load reads
+     * the full set anyway.
+     *
+     * @param warehouse the saved warehouse
+     */
+    public synchronized void upsert(Warehouse warehouse) {
+        if (loaded == null || warehouse.getId() == null) {
+            return;
+        }
+
+        if (isIndexable(warehouse)) {
+            members.put(warehouse.getId(), WarehouseSnapshot.of(warehouse));
+        } else if (members.remove(warehouse.getId()) == null) {
+            return;
+        }
+
+        GeoKdTree<WarehouseSnapshot> tree = buildTree();
+        loaded = new Loaded(tree, buildGrid(tree), contentHashOfMembers());
+        log.debug("Warehouse spatial index updated for warehouse ID {}: {} warehouses indexed",
+                warehouse.getId(), tree.size());
+    }
+
+    /**
+     * Drops the index so the next lookup reloads it.
+     */
+    public synchronized void invalidate() {
+        members.clear();
+        loaded = null;
+    }
+
+    private GeoKdTree<WarehouseSnapshot> buildTree() {
+        return GeoKdTree.build(members.values(), WarehouseSnapshot::latitude, WarehouseSnapshot::longitude);
+    }
+
+    private long contentHashOfMembers() {
+        Fingerprint fingerprint = new Fingerprint().add(members.size());
+        members.values().stream()
+                .sorted(Comparator.comparingLong(WarehouseSnapshot::id))
+                .forEach(warehouse -> fingerprint.add(warehouse.id())
+                        .add(warehouse.latitude())
+                        .add(warehouse.longitude()));
+        return fingerprint.value();
+    }
+
+    private NearestCellGrid<WarehouseSnapshot> buildGrid(GeoKdTree<WarehouseSnapshot> tree) {
+        if (gridCellDegrees <= 0) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        NearestCellGrid<WarehouseSnapshot> grid = NearestCellGrid.build(tree, INDIA, gridCellDegrees);
+        log.debug("Built nearest-warehouse grid in {} ms: {} of {} cells conclusive",
+                (System.nanoTime() - start) / 1_000_000, grid.conclusiveCount(), grid.cellCount());
+        return grid;
+    }
+
+    /**
+     * Whether a warehouse belongs in the index: active and located.
+     */
+    static boolean isIndexable(Warehouse warehouse) {
+        return Boolean.TRUE.equals(warehouse.getIsActive())
+                && warehouse.getLocation() != null
+                && warehouse.getLocation().getLatitude() != null
+                && warehouse.getLocation().getLongitude() != null;
+    }
+
+    private record Loaded(GeoKdTree<WarehouseSnapshot> tree, NearestCellGrid<WarehouseSnapshot> grid,
+            long contentHash) {
+    }
+}
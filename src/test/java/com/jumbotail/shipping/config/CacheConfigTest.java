@@ -0,0 +1,95 @@
+package com.jumbotail.shipping.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for CacheConfig.
+ */
+@DisplayName("CacheConfig Tests")
+class CacheConfigTest {
+
+        @Test
+        @DisplayName("Should apply region settings and fall back to defaults")
+        void shouldApplyRegionSettings() {
+                // Arrange
+                ShippingCacheProperties properties = new ShippingCacheProperties();
+                properties.getDefaults().setMaximumSize(10L);
+
+                ShippingCacheProperties.Region quotes = new ShippingCacheProperties.Region();
+                quotes.setMaximumSize(5000L);
+                quotes.setExpireAfterWrite(Duration.ofMinutes(5));
+                quotes.setRefreshAfterWrite(Duration.ofMinutes(2));
+                properties.getRegions().put("shippingCharges", quotes);
+
+                // Act
+                CaffeineCacheManager manager = (CaffeineCacheManager) new CacheConfig()
+                                .cacheManager(properties, refreshers(), codecs());
+
+                // Assert
+                Cache<Object, Object> quoteCache = nativeCache(manager, "shippingCharges");
+                assertThat(quoteCache.policy().eviction().orElseThrow().getMaximum()).isEqualTo(5000L);
+                assertThat(quoteCache.policy().expireAfterWrite().orElseThrow().getExpiresAfter())
+                                .isEqualTo(Duration.ofMinutes(5));
+                assertThat(quoteCache.policy().refreshAfterWrite()).isPresent();
+
+                Cache<Object, Object> other = nativeCache(manager, "somethingElse");
+                assertThat(other.policy().eviction().orElseThrow().getMaximum()).isEqualTo(10L);
+                assertThat(other.policy().refreshAfterWrite()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should treat a refresh region lookup miss as absent and reload through the refresher")
+        void shouldReloadThroughRefresher() {
+                CacheConfig.RefreshAheadLoader loader = new CacheConfig.RefreshAheadLoader("shippingCharges",
+                                refreshers(new CacheRefresher() {
+                                        @Override
+                                        public String cacheRegion() {
+                                                return "shippingCharges";
+                                        }
+
+                                        @Override
+                                        public Object reload(Object key) {
+                                                return "fresh-" + key;
+                                        }
+                                }));
+
+                assertThat(loader.load("k")).isNull();
+                assertThat(loader.reload("k", "stale")).isEqualTo("fresh-k");
+        }
+
+        @Test
+        @DisplayName("Should weigh collections by element count")
+        void shouldWeighCollectionsByElementCount() {
+                assertThat(CacheConfig.weigh("k", List.of(1, 2, 3))).isEqualTo(3);
+                assertThat(CacheConfig.weigh("k", List.of())).isEqualTo(1);
+                assertThat(CacheConfig.weigh("k", "value")).isEqualTo(1);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Cache<Object, Object> nativeCache(CaffeineCacheManager manager, String name) {
+                return ((CaffeineCache) manager.getCache(name)).getNativeCache();
+        }
+
+        private static ObjectProvider<PersistentCacheCodec> codecs() {
+                return new StaticListableBeanFactory().getBeanProvider(PersistentCacheCodec.class);
+        }
+
+        private static ObjectProvider<CacheRefresher> refreshers(CacheRefresher... refreshers) {
+                StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+                for (int i = 0; i < refreshers.length; i++) {
+                        beanFactory.addBean("refresher" + i, refreshers[i]);
+                }
+                return beanFactory.getBeanProvider(CacheRefresher.class);
+        }
+}
@@ -0,0 +1,78 @@
+package com.jumbotail.shipping.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for EntityCacheConfig.
+ */
+@DisplayName("EntityCacheConfig Tests")
+class EntityCacheConfigTest {
+
+        private CacheManager cacheManager;
+
+        @AfterEach
+        void tearDown() {
+                if (cacheManager != null) {
+                        cacheManager.close();
+                }
+        }
+
+        @Test
+        @DisplayName("Should size entity regions and keep update timestamps unbounded")
+        void shouldCreateRegions() {
+                // Arrange
+                ShippingCacheProperties properties = new ShippingCacheProperties();
+                properties.getDefaults().setMaximumSize(10L);
+
+                ShippingCacheProperties.Region sellers = new ShippingCacheProperties.Region();
+                sellers.setMaximumSize(5000L);
+                sellers.setExpireAfterWrite(Duration.ofHours(6));
+                properties.getEntityRegions().put("sellers", sellers);
+
+                // Act
+                cacheManager = new EntityCacheConfig().entityCacheManager(properties);
+
+                // Assert
+                CaffeineConfiguration<?, ?> sellerRegion = configuration("sellers");
+                assertThat(sellerRegion.getMaximumSize()).isEqualTo(OptionalLong.of(5000L));
+                assertThat(sellerRegion.getExpireAfterWrite())
+                                .isEqualTo(OptionalLong.of(Duration.ofHours(6).toNanos()));
+
+                assertThat(configuration(EntityCacheConfig.QUERY_RESULTS_REGION).getMaximumSize())
+                                .isEqualTo(OptionalLong.of(10L));
+
+                CaffeineConfiguration<?, ?> timestamps = configuration(EntityCacheConfig.UPDATE_TIMESTAMPS_REGION);
+                assertThat(timestamps.getMaximumSize()).isEmpty();
+                assertThat(timestamps.getExpireAfterWrite()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should give each context its own cache manager")
+        void shouldIsolateManagers() {
+                ShippingCacheProperties properties = new ShippingCacheProperties();
+                cacheManager = new EntityCacheConfig().entityCacheManager(properties);
+
+                try (CacheManager other = new EntityCacheConfig().entityCacheManager(properties)) {
+                        cacheManager.getCache(EntityCacheConfig.QUERY_RESULTS_REGION).put("key", "value");
+
+                        assertThat(other.getURI()).isNotEqualTo(cacheManager.getURI());
+                        assertThat(other.getCache(EntityCacheConfig.QUERY_RESULTS_REGION).get("key")).isNull();
+                }
+        }
+
+        private CaffeineConfiguration<?, ?> configuration(String region) {
+                Cache<Object, Object> cache = cacheManager.getCache(region);
+                assertThat(cache).isNotNull();
+                return cache.getConfiguration(CaffeineConfiguration.class);
+        }
+}
@@ -0,0 +1,100 @@
+package com.jumbotail.shipping.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for RequestConcurrencyFilter and its limit.
+ */
+@DisplayName("RequestConcurrencyFilter Tests")
+class RequestConcurrencyFilterTest {
+
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        @Test
+        @DisplayName("Should reject requests beyond the limit with 503 once the wait times out")
+        void shouldRejectBeyondLimit() throws Exception {
+                RequestConcurrencyFilter filter = new RequestConcurrencyFilter(1, Duration.ofMillis(50),
+                                objectMapper, meterRegistry);
+                CountDownLatch entered = new CountDownLatch(1);
+                CountDownLatch release = new CountDownLatch(1);
+
+                // First request holds the only slot until released
+                CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> {
+                        MockHttpServletResponse response = new MockHttpServletResponse();
+                        try {
+                                filter.doFilter(request(), response, new MockFilterChain(new HttpServlet() {
+                                        @Override
+                                        protected void service(HttpServletRequest req, HttpServletResponse res) {
+                                                entered.countDown();
+                                                try {
+                                                        release.await(5, TimeUnit.SECONDS);
+                                                } catch (InterruptedException e) {
+                                                        Thread.currentThread().interrupt();
+                                                }
+                                        }
+                                }));
+                        } catch (Exception e) {
+                                throw new IllegalStateException(e);
+                        }
+                        return response;
+                });
+                assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+                MockHttpServletResponse rejected = new MockHttpServletResponse();
+                filter.doFilter(request(), rejected, new MockFilterChain());
+
+                assertThat(rejected.getStatus()).isEqualTo(503);
+                assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+                assertThat(rejected.getContentAsString()).contains("Too many concurrent requests");
+                assertThat(filter.active()).isEqualTo(1);
+                assertThat(meterRegistry.get("shipping.requests.rejected").counter().count()).isEqualTo(1.0);
+
+                release.countDown();
+                assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+                assertThat(filter.active()).isZero();
+
+                MockHttpServletResponse admitted = new MockHttpServletResponse();
+                filter.doFilter(request(), admitted, new MockFilterChain());
+                assertThat(admitted.getStatus()).isEqualTo(200);
+        }
+
+        @Test
+        @DisplayName("Should size the limit from the servlet thread pool unless configured")
+        void shouldSizeLimitFromServletThreads() {
+                RequestConcurrencyProperties properties = new RequestConcurrencyProperties();
+                ServerProperties serverProperties = new ServerProperties();
+
+                assertThat(properties.isEnabled()).isFalse();
+                assertThat(RequestConcurrencyConfig.limit(properties, serverProperties)).isEqualTo(200);
+
+                serverProperties.getTomcat().getThreads().setMax(64);
+                assertThat(RequestConcurrencyConfig.limit(properties, serverProperties)).isEqualTo(64);
+
+                properties.setMaxConcurrent(100);
+                assertThat(RequestConcurrencyConfig.limit(properties, serverProperties)).isEqualTo(100);
+        }
+
+        private static MockHttpServletRequest request() {
+                return new MockHttpServletRequest("GET", "/api/v1/shipping-charge");
+        }
+}
@@ -0,0 +1,197 @@
+package com.jumbotail.shipping.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for MappedCacheFile and TieredCache.
+ */
+@DisplayName("TieredCache Tests")
+class TieredCacheTest {
+
+        @TempDir
+        Path directory;
+
+        @Nested
+        @DisplayName("Mapped Cache File Tests")
+        class MappedCacheFileTests {
+
+                @Test
+                @DisplayName("Should keep entries across reopening the file")
+                void shouldKeepEntriesAcrossReopen() throws IOException {
+                        Path path = directory.resolve("region.cache");
+                        MappedCacheFile file = MappedCacheFile.open(path, 8, 8, 100);
+                        file.put(42L, bytes(1), bytes(100));
+                        file.close();
+
+                        MappedCacheFile reopened = MappedCacheFile.open(path, 8, 8, 100);
+                        byte[] value = new byte[8];
+
+                        assertThat(reopened.get(42L, bytes(1), value)).isTrue();
+                        assertThat(ByteBuffer.wrap(value).getLong()).isEqualTo(100L);
+                        assertThat(reopened.get(42L, bytes(2), value)).isFalse();
+                }
+
+                @Test
+                @DisplayName("Should ignore values stamped with another fingerprint")
+                void shouldIgnoreOtherFingerprints() throws IOException {
+                        MappedCacheFile file = MappedCacheFile.open(directory.resolve("region.cache"), 8, 8, 100);
+                        file.put(42L, bytes(1), bytes(100));
+
+                        assertThat(file.get(43L, bytes(1), new byte[8])).isFalse();
+                }
+
+                @Test
+                @DisplayName("Should reset a file opened with another geometry")
+                void shouldResetOnGeometryChange() throws IOException {
+                        Path path = directory.resolve("region.cache");
+                        MappedCacheFile file = MappedCacheFile.open(path, 8, 8, 100);
+                        file.put(42L, bytes(1), bytes(100));
+                        file.close();
+
+                        MappedCacheFile resized = MappedCacheFile.open(path, 8, 16, 100);
+
+                        assertThat(resized.get(42L, bytes(1), new byte[16])).isFalse();
+                }
+
+                @Test
+                @DisplayName("Should keep serving a full table by replacing slots")
+                void shouldReplaceSlotsWhenFull() throws IOException {
+                        MappedCacheFile file = MappedCacheFile.open(directory.resolve("region.cache"), 8, 8, 8);
+                        for (long key = 0; key < 1000; key++) {
+                                file.put(42L, bytes(key), bytes(key * 10));
+                        }
+
+                        byte[] value = new byte[8];
+                        assertThat(file.get(42L, bytes(999), value)).isTrue();
+                        assertThat(ByteBuffer.wrap(value).getLong()).isEqualTo(9990L);
+                }
+        }
+
+        @Nested
+        @DisplayName("Tiered Cache Tests")
+        class TieredCacheTests {
+
+                @Test
+                @DisplayName("Should serve a first-tier miss from the file and promote it")
+                void shouldPromoteFromFile() throws IOException {
+                        LongCodec codec = new LongCodec();
+                        MappedCacheFile file = MappedCacheFile.open(directory.resolve("region.cache"), 8, 8, 100);
+                        new TieredCache(new ConcurrentMapCache("region"), file, codec).put(1L, 100L);
+
+                        // A fresh first tier, as after a restart
+                        ConcurrentMapCache first = new ConcurrentMapCache("region");
+                        TieredCache cache = new TieredCache(first, file, codec);
+
+                        assertThat(cache.get(1L, Long.class)).isEqualTo(100L);
+                        assertThat(first.get(1L, Long.class)).isEqualTo(100L);
+                }
+
+                @Test
+                @DisplayName("Should stamp a value with the fingerprint current when its key missed")
+                void shouldStampWithFingerprintAtMiss() throws IOException {
+                        LongCodec codec = new LongCodec();
+                        MappedCacheFile file = MappedCacheFile.open(directory.resolve("region.cache"), 8, 8, 100);
+                        TieredCache cache = new TieredCache(new ConcurrentMapCache("region"), file, codec);
+
+                        assertThat(cache.get(1L)).isNull();
+                        // The data changes while the value is being computed
+                        codec.fingerprint = 2L;
+                        cache.put(1L, 100L);
+
+                        TieredCache restarted = new TieredCache(new ConcurrentMapCache("region"), file, codec);
+                        assertThat(restarted.get(1L)).isNull();
+                }
+
+                @Test
+                @DisplayName("Should keep stamping at the miss after many misses that were never stored")
+                void shouldStampWithFingerprintAtMissAfterFailedLoads() throws IOException {
+                        LongCodec codec = new LongCodec();
+                        MappedCacheFile file = MappedCacheFile.open(directory.resolve("region.cache"), 8, 8, 100);
+                        TieredCache cache = new TieredCache(new ConcurrentMapCache("region"), file, codec);
+
+                        // Lookups whose computation fails never store a value
+                        for (long key = 1_000; key <= 1_000 + TieredCache.MAX_PENDING; key++) {
+                                assertThat(cache.get(key)).isNull();
+                        }
+
+                        assertThat(cache.get(1L)).isNull();
+                        codec.fingerprint = 2L;
+                        cache.put(1L, 100L);
+
+                        TieredCache restarted = new TieredCache(new ConcurrentMapCache("region"), file, codec);
+                        assertThat(restarted.get(1L)).isNull();
+                }
+
+                @Test
+                @DisplayName("Should bypass the file while the fingerprint is unknown")
+                void shouldBypassFileWithoutFingerprint() throws IOException {
+                        LongCodec codec = new LongCodec();
+                        codec.fingerprint = 0L;
+                        MappedCacheFile file = MappedCacheFile.open(directory.resolve("region.cache"), 8, 8, 100);
+                        new TieredCache(new ConcurrentMapCache("region"), file, codec).put(1L, 100L);
+
+                        codec.fingerprint = 1L;
+                        TieredCache restarted = new TieredCache(new ConcurrentMapCache("region"), file, codec);
+                        assertThat(restarted.get(1L)).isNull();
+                }
+        }
+
+        private static byte[] bytes(long value) {
+                return ByteBuffer.allocate(8).putLong(value).array();
+        }
+
+        /**
+         * Long keys and values with a settable fingerprint.
+         */
+        private static final class LongCodec implements PersistentCacheCodec {
+
+                private long fingerprint = 1L;
+
+                @Override
+                public String cacheRegion() {
+                        return "region";
+                }
+
+                @Override
+                public int keyBytes() {
+                        return 8;
+                }
+
+                @Override
+                public int valueBytes() {
+                        return 8;
+                }
+
+                @Override
+                public long fingerprint() {
+                        return fingerprint;
+                }
+
+                @Override
+                public boolean encodeKey(Object key, ByteBuffer out) {
+                        out.putLong((Long) key);
+                        return true;
+                }
+
+                @Override
+                public boolean encodeValue(Object value, ByteBuffer out) {
+                        out.putLong((Long) value);
+                        return true;
+                }
+
+                @Override
+                public Object decodeValue(ByteBuffer in) {
+                        return in.getLong();
+                }
+        }
+}
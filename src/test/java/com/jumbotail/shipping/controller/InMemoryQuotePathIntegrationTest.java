@@ -0,0 +1,188 @@
+package com.jumbotail.shipping.controller;
+
+import com.jumbotail.shipping.config.TieredCache;
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Product;
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.repository.CustomerRepository;
+import com.jumbotail.shipping.repository.ProductRepository;
+import com.jumbotail.shipping.repository.SellerRepository;
+import com.jumbotail.shipping.repository.WarehouseRepository;
+import com.jumbotail.shipping.service.DistanceMatrixStore;
+import com.jumbotail.shipping.service.GeoLocationService;
+import com.jumbotail.shipping.service.QuoteCache;
+import com.jumbotail.shipping.service.ReferenceDataStore;
+import com.jumbotail.shipping.service.ShippingCalculatorService;
+import com.jumbotail.shipping.service.ShippingQuote;
+import com.jumbotail.shipping.service.WarehouseSpatialIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Integration tests for the in-memory quote paths.
+ * Boots with the production defaults, without the test profile, so quotes
+ * come from the preloaded reference data, the distance matrix, the warehouse
+ * index and the persistent cache tier, and checks them against quotes
+ * computed from the database.
+ */
+@SpringBootTest(properties = {
+        "logging.level.com.jumbotail.shipping=INFO",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql=WARN"
+})
+@DisplayName("In-Memory Quote Path Integration Tests")
+class InMemoryQuotePathIntegrationTest {
+
+    @TempDir
+    static Path cacheDirectory;
+
+    @DynamicPropertySource
+    static void cacheProperties(DynamicPropertyRegistry registry) {
+        registry.add("shipping.cache.persistent.directory", cacheDirectory::toString);
+    }
+
+    @Autowired
+    private ShippingCalculatorService shippingCalculatorService;
+
+    @Autowired
+    private GeoLocationService geoLocationService;
+
+    @Autowired
+    private ReferenceDataStore referenceDataStore;
+
+    @Autowired
+    private DistanceMatrixStore distanceMatrixStore;
+
+    @Autowired
+    private WarehouseSpatialIndex warehouseIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private List<Warehouse> warehouses;
+    private List<Customer> customers;
+    private List<Long> productIds;
+
+    @BeforeEach
+    void setUp() {
+        warehouses = warehouseRepository.findByIsActiveTrue();
+        customers = customerRepository.findAll();
+        productIds = new ArrayList<>();
+        productIds.add(null);
+        productRepository.findAll().forEach(product -> productIds.add(product.getId()));
+    }
+
+    @Test
+    @DisplayName("Should serve quotes from the in-memory paths")
+    void shouldUseInMemoryPaths() {
+        assertThat(referenceDataStore.current()).isNotNull();
+        assertThat(distanceMatrixStore.current()).isNotNull();
+        assertThat(warehouseIndex.current()).isNotNull();
+        assertThat(cacheManager.getCache(QuoteCache.REGION)).isInstanceOf(TieredCache.class);
+    }
+
+    @Test
+    @DisplayName("Should publish the per-region second-level cache metrics")
+    void shouldPublishSecondLevelCacheMetrics() {
+        // Statistics are on for these even though their per-session log
+        // summary is silenced
+        sellerRepository.findAll().forEach(seller -> sellerRepository.findById(seller.getId()));
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").meters())
+                .extracting(meter -> meter.getId().getTag("region"))
+                .contains("sellers", "warehouses");
+    }
+
+    @Test
+    @DisplayName("Should quote sellers the same as the database path")
+    void shouldMatchDatabaseSellerQuotes() {
+        for (Seller seller : sellerRepository.findAll()) {
+            Warehouse nearest = warehouses.stream()
+                    .min(Comparator.comparingDouble(warehouse -> distanceKm(seller.getLocation(), warehouse)))
+                    .orElseThrow();
+
+            for (Customer customer : customers) {
+                for (DeliverySpeed speed : DeliverySpeed.values()) {
+                    for (Long productId : productIds) {
+                        ShippingQuote quote = shippingCalculatorService.quoteShipping(
+                                seller.getId(), customer.getId(), speed, productId);
+
+                        assertThat(quote.warehouse().id()).isEqualTo(nearest.getId());
+                        assertThat(quote.sellerToWarehouseKm())
+                                .isCloseTo(distanceKm(seller.getLocation(), nearest), within(1e-6));
+                        assertMatchesDatabase(quote, nearest, customer, speed, productId);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should quote warehouses the same as the database path")
+    void shouldMatchDatabaseWarehouseQuotes() {
+        for (Warehouse warehouse : warehouses) {
+            for (Customer customer : customers) {
+                for (DeliverySpeed speed : DeliverySpeed.values()) {
+                    for (Long productId : productIds) {
+                        ShippingQuote quote = shippingCalculatorService.quoteFromWarehouse(
+                                warehouse.getId(), customer.getId(), speed, productId);
+
+                        assertThat(quote.warehouse().id()).isEqualTo(warehouse.getId());
+                        assertMatchesDatabase(quote, warehouse, customer, speed, productId);
+                    }
+                }
+            }
+        }
+    }
+
+    private void assertMatchesDatabase(ShippingQuote quote, Warehouse warehouse, Customer customer,
+            DeliverySpeed speed, Long productId) {
+        double distanceKm = distanceKm(customer.getLocation(), warehouse);
+        double weightKg = productId == null
+                ? ShippingCalculatorService.DEFAULT_WEIGHT_KG
+                : productRepository.findById(productId).map(Product::getChargeableWeight).orElseThrow();
+
+        assertThat(quote.warehouseToCustomerKm()).isCloseTo(distanceKm, within(1e-6));
+        assertThat(quote.weightKg()).isEqualTo(weightKg);
+        assertThat(quote.chargePaise())
+                .isEqualTo(shippingCalculatorService.calculateTotalChargePaise(distanceKm, weightKg, speed));
+    }
+
+    private double distanceKm(GeoLocation from, Warehouse to) {
+        return geoLocationService.calculateDistanceInKm(from, to.getLocation());
+    }
+}
@@ -1,12 +1,15 @@
 package com.jumbotail.shipping.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jumbotail.shipping.dto.request.BatchShippingCalculateRequest;
+import com.jumbotail.shipping.dto.request.CartShippingRequest;
 import com.jumbotail.shipping.dto.request.ShippingCalculateRequest;
 import com.jumbotail.shipping.entity.Customer;
 import com.jumbotail.shipping.entity.Product;
 import com.jumbotail.shipping.entity.Seller;
 import com.jumbotail.shipping.entity.Warehouse;
 import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.entity.embeddable.ProductDimensions;
 import com.jumbotail.shipping.repository.CustomerRepository;
 import com.jumbotail.shipping.repository.ProductRepository;
 import com.jumbotail.shipping.repository.SellerRepository;
@@ -21,8 +24,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -159,6 +167,48 @@ class ShippingApiIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/warehouse/top-nearest and /within-radius")
+    class NearbyWarehousesEndpointTests {
+
+        @Test
+        @DisplayName("Should return nearest warehouses for a customer")
+        void shouldReturnTopNearestWarehouses() throws Exception {
+            mockMvc.perform(get("/api/v1/warehouse/top-nearest")
+                    .param("customerId", testCustomer.getId().toString())
+                    .param("k", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].warehouseId").value(testWarehouse.getId()))
+                    .andExpect(jsonPath("$[0].distanceKm").isNumber());
+        }
+
+        @Test
+        @DisplayName("Should exclude warehouses outside the radius")
+        void shouldExcludeWarehousesOutsideRadius() throws Exception {
+            // Test warehouse in Bangalore is ~845 km from the Mumbai customer
+            mockMvc.perform(get("/api/v1/warehouse/within-radius")
+                    .param("customerId", testCustomer.getId().toString())
+                    .param("radiusKm", "300"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[?(@.warehouseId == " + testWarehouse.getId() + ")]").isEmpty());
+
+            mockMvc.perform(get("/api/v1/warehouse/within-radius")
+                    .param("sellerId", testSeller.getId().toString())
+                    .param("radiusKm", "300"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].warehouseId").value(testWarehouse.getId()));
+        }
+
+        @Test
+        @DisplayName("Should return 400 when both sellerId and customerId are given")
+        void shouldReturn400WhenBothOriginsGiven() throws Exception {
+            mockMvc.perform(get("/api/v1/warehouse/top-nearest")
+                    .param("sellerId", testSeller.getId().toString())
+                    .param("customerId", testCustomer.getId().toString()))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/v1/shipping-charge")
     class ShippingChargeEndpointTests {
@@ -215,6 +265,118 @@ class ShippingApiIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/async/shipping-charge and /warehouse/nearest")
+    class AsyncEndpointTests {
+
+        @Test
+        @DisplayName("Should serve the same shipping charge as the blocking endpoint")
+        void shouldMatchBlockingShippingCharge() throws Exception {
+            String expected = mockMvc.perform(get("/api/v1/shipping-charge")
+                    .param("warehouseId", testWarehouse.getId().toString())
+                    .param("customerId", testCustomer.getId().toString())
+                    .param("deliverySpeed", "EXPRESS")
+                    .param("productId", testProduct.getId().toString()))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            MvcResult result = mockMvc.perform(get("/api/v1/async/shipping-charge")
+                    .param("warehouseId", testWarehouse.getId().toString())
+                    .param("customerId", testCustomer.getId().toString())
+                    .param("deliverySpeed", "EXPRESS")
+                    .param("productId", testProduct.getId().toString()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String actual = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertThat(objectMapper.readTree(actual)).isEqualTo(objectMapper.readTree(expected));
+        }
+
+        @Test
+        @DisplayName("Should return nearest warehouse for valid seller")
+        void shouldReturnNearestWarehouse() throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/v1/async/warehouse/nearest")
+                    .param("sellerId", testSeller.getId().toString()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.warehouseId").value(testWarehouse.getId()))
+                    .andExpect(jsonPath("$.warehouseCode").value("TEST_WH_01"))
+                    .andExpect(jsonPath("$.distanceKm").isNumber());
+        }
+
+        @Test
+        @DisplayName("Should return 404 when seller not found")
+        void shouldReturn404WhenSellerNotFound() throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/v1/async/warehouse/nearest")
+                    .param("sellerId", "99999"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message").value(containsString("Seller")));
+        }
+
+        @Test
+        @DisplayName("Should return 400 when customerId is missing")
+        void shouldReturn400WhenCustomerIdMissing() throws Exception {
+            mockMvc.perform(get("/api/v1/async/shipping-charge")
+                    .param("warehouseId", testWarehouse.getId().toString())
+                    .param("deliverySpeed", "STANDARD"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/shipping-charge/matrix")
+    class DistanceMatrixEndpointTests {
+
+        @Test
+        @DisplayName("Should return 404 while the matrix is not built")
+        void shouldReturn404WhenMatrixNotBuilt() throws Exception {
+            // The matrix is disabled in the test profile
+            mockMvc.perform(get("/api/v1/shipping-charge/matrix")
+                    .param("customerIds", testCustomer.getId().toString()))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should return 400 when customerIds is missing")
+        void shouldReturn400WhenCustomerIdsMissing() throws Exception {
+            mockMvc.perform(get("/api/v1/shipping-charge/matrix"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 400 when too many warehouseIds are given")
+        void shouldReturn400WhenTooManyWarehouseIds() throws Exception {
+            mockMvc.perform(get("/api/v1/shipping-charge/matrix")
+                    .param("warehouseIds", ids(101))
+                    .param("customerIds", testCustomer.getId().toString()))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 400 when the slice exceeds the cell limit")
+        void shouldReturn400WhenTooManyCells() throws Exception {
+            // 100 x 101 cells, each list within its own limit
+            mockMvc.perform(get("/api/v1/shipping-charge/matrix")
+                    .param("warehouseIds", ids(100))
+                    .param("customerIds", ids(101)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", containsString("10000 cells")));
+        }
+
+        private String[] ids(int count) {
+            return LongStream.rangeClosed(1, count).mapToObj(Long::toString).toArray(String[]::new);
+        }
+    }
+
     @Nested
     @DisplayName("POST /api/v1/shipping-charge/calculate")
     class CalculateShippingEndpointTests {
@@ -280,4 +442,226 @@ class ShippingApiIntegrationTest {
                     .andExpect(jsonPath("$.message").value(containsString("Malformed JSON")));
         }
     }
+
+    @Nested
+    @DisplayName("POST /api/v1/shipping-charge/cart")
+    class CartShippingEndpointTests {
+
+        @Test
+        @DisplayName("Should charge one consolidated shipment per warehouse")
+        void shouldConsolidateShipmentsPerWarehouse() throws Exception {
+            // Bulky product from the same seller: 50 x 40 x 30 cm = 12 kg volumetric
+            Product bulky = productRepository.save(Product.builder()
+                    .productId("TEST-PROD-BULKY")
+                    .name("Bulky Product")
+                    .category("Test Category")
+                    .sellingPrice(new java.math.BigDecimal("100.00"))
+                    .weightInKg(1.0)
+                    .dimensions(ProductDimensions.builder()
+                            .lengthCm(50.0)
+                            .widthCm(40.0)
+                            .heightCm(30.0)
+                            .build())
+                    .seller(testSeller)
+                    .isActive(true)
+                    .stockQuantity(100)
+                    .build());
+
+            // Second seller near a second warehouse
+            Warehouse delhiWarehouse = warehouseRepository.save(Warehouse.builder()
+                    .warehouseCode("TEST_WH_02")
+                    .name("Test Delhi Warehouse")
+                    .location(GeoLocation.builder()
+                            .latitude(28.7041)
+                            .longitude(77.1025)
+                            .build())
+                    .address("Test Address")
+                    .pincode("110001")
+                    .city("Delhi")
+                    .state("Delhi")
+                    .capacitySqFt(10000)
+                    .isActive(true)
+                    .build());
+            Seller delhiSeller = sellerRepository.save(Seller.builder()
+                    .sellerId("TEST-SELLER-002")
+                    .companyName("Test Delhi Seller")
+                    .phoneNumber("9876543211")
+                    .location(GeoLocation.builder()
+                            .latitude(28.6139)
+                            .longitude(77.2090)
+                            .build())
+                    .address("Seller Address")
+                    .pincode("110002")
+                    .city("Delhi")
+                    .state("Delhi")
+                    .isActive(true)
+                    .build());
+            Product delhiProduct = productRepository.save(Product.builder()
+                    .productId("TEST-PROD-DEL")
+                    .name("Delhi Product")
+                    .category("Test Category")
+                    .sellingPrice(new java.math.BigDecimal("100.00"))
+                    .weightInKg(2.0)
+                    .seller(delhiSeller)
+                    .isActive(true)
+                    .stockQuantity(100)
+                    .build());
+
+            CartShippingRequest request = CartShippingRequest.builder()
+                    .customerId(testCustomer.getId())
+                    .deliverySpeed("STANDARD")
+                    .items(List.of(
+                            new CartShippingRequest.Item(testProduct.getId(), 1),
+                            new CartShippingRequest.Item(bulky.getId(), 1),
+                            new CartShippingRequest.Item(delhiProduct.getId(), 3),
+                            new CartShippingRequest.Item(testProduct.getId(), 1)))
+                    .build();
+
+            MvcResult result = mockMvc.perform(post("/api/v1/shipping-charge/cart")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.shipments", hasSize(2)))
+                    // Actual 5 + 5 + 1 = 11 kg, volumetric 5 + 5 + 12 = 22 kg
+                    .andExpect(jsonPath("$.shipments[0].warehouse.warehouseId").value(testWarehouse.getId()))
+                    .andExpect(jsonPath("$.shipments[0].unitCount").value(3))
+                    .andExpect(jsonPath("$.shipments[0].actualWeightKg").value(11.0))
+                    .andExpect(jsonPath("$.shipments[0].volumetricWeightKg").value(22.0))
+                    .andExpect(jsonPath("$.shipments[0].chargeableWeightKg").value(22.0))
+                    .andExpect(jsonPath("$.shipments[1].warehouse.warehouseId").value(delhiWarehouse.getId()))
+                    .andExpect(jsonPath("$.shipments[1].sellerIds", contains(delhiSeller.getId().intValue())))
+                    .andExpect(jsonPath("$.shipments[1].chargeableWeightKg").value(6.0))
+                    .andReturn();
+
+            com.fasterxml.jackson.databind.JsonNode body = objectMapper.readTree(
+                    result.getResponse().getContentAsString());
+            assertThat(body.get("totalCharge").decimalValue()).isEqualByComparingTo(
+                    body.at("/shipments/0/shippingCharge").decimalValue()
+                            .add(body.at("/shipments/1/shippingCharge").decimalValue()));
+        }
+
+        @Test
+        @DisplayName("Should return 404 when a product does not exist")
+        void shouldReturn404WhenProductNotFound() throws Exception {
+            CartShippingRequest request = CartShippingRequest.builder()
+                    .customerId(testCustomer.getId())
+                    .deliverySpeed("STANDARD")
+                    .items(List.of(
+                            new CartShippingRequest.Item(testProduct.getId(), 1),
+                            new CartShippingRequest.Item(99999L, 1)))
+                    .build();
+
+            mockMvc.perform(post("/api/v1/shipping-charge/cart")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a non-positive quantity")
+        void shouldReturn400ForInvalidQuantity() throws Exception {
+            CartShippingRequest request = CartShippingRequest.builder()
+                    .customerId(testCustomer.getId())
+                    .deliverySpeed("STANDARD")
+                    .items(List.of(new CartShippingRequest.Item(testProduct.getId(), 0)))
+                    .build();
+
+            mockMvc.perform(post("/api/v1/shipping-charge/cart")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.fieldErrors").exists());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/v1/shipping-charge/batch")
+    class BatchShippingEndpointTests {
+
+        @Test
+        @DisplayName("Should return results in request order with per-item errors")
+        void shouldReturnResultsInOrderWithItemErrors() throws Exception {
+            ShippingCalculateRequest valid = ShippingCalculateRequest.builder()
+                    .sellerId(testSeller.getId())
+                    .customerId(testCustomer.getId())
+                    .productId(testProduct.getId())
+                    .deliverySpeed("STANDARD")
+                    .build();
+            ShippingCalculateRequest unknownSeller = ShippingCalculateRequest.builder()
+                    .sellerId(99999L)
+                    .customerId(testCustomer.getId())
+                    .deliverySpeed("EXPRESS")
+                    .build();
+            ShippingCalculateRequest missingSpeed = ShippingCalculateRequest.builder()
+                    .sellerId(testSeller.getId())
+                    .customerId(testCustomer.getId())
+                    .build();
+
+            BatchShippingCalculateRequest request = BatchShippingCalculateRequest.builder()
+                    .items(List.of(valid, unknownSeller, valid, missingSpeed))
+                    .build();
+
+            mockMvc.perform(post("/api/v1/shipping-charge/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalCount").value(4))
+                    .andExpect(jsonPath("$.successCount").value(2))
+                    .andExpect(jsonPath("$.errorCount").value(2))
+                    .andExpect(jsonPath("$.results[0].index").value(0))
+                    .andExpect(jsonPath("$.results[0].status").value(200))
+                    .andExpect(jsonPath("$.results[0].quote.weightKg").value(5.0))
+                    .andExpect(jsonPath("$.results[0].quote.nearestWarehouse.warehouseId").value(testWarehouse.getId()))
+                    .andExpect(jsonPath("$.results[1].status").value(404))
+                    .andExpect(jsonPath("$.results[1].error").value(containsString("Seller")))
+                    .andExpect(jsonPath("$.results[2].quote.shippingCharge").isNumber())
+                    .andExpect(jsonPath("$.results[3].status").value(400))
+                    .andExpect(jsonPath("$.results[3].error").value(containsString("Delivery speed")));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an empty batch")
+        void shouldReturn400ForEmptyBatch() throws Exception {
+            mockMvc.perform(post("/api/v1/shipping-charge/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"items\": []}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.fieldErrors.items").exists());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/v1/shipping-charge/stream")
+    class StreamingShippingEndpointTests {
+
+        @Test
+        @DisplayName("Should stream one NDJSON result per request line")
+        void shouldStreamOneResultPerLine() throws Exception {
+            // Streamed quotes run on the async executor, outside the test
+            // transaction, so only data-independent outcomes are asserted here
+            String body = "{\"sellerId\": 99999, \"customerId\": 1, \"deliverySpeed\": \"STANDARD\"}\n"
+                    + "not json\n"
+                    + "{\"sellerId\": 1, \"customerId\": 1}\n";
+
+            MvcResult result = mockMvc.perform(post("/api/v1/shipping-charge/stream")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content(body))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String content = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+
+            String[] lines = content.split("\n");
+            assertThat(lines).hasSize(3);
+            assertThat(lines[0]).contains("\"index\":0", "\"status\":404");
+            assertThat(lines[1]).contains("\"index\":1", "\"status\":400");
+            assertThat(lines[2]).contains("\"index\":2", "\"status\":400",
+                    "Delivery speed");
+        }
+    }
 }
@@ -0,0 +1,157 @@
+package com.jumbotail.shipping.geo;
+
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.service.GeoLocationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for GeoKdTree.
+ * Verifies index lookups against a brute-force Haversine scan.
+ */
+@DisplayName("GeoKdTree Tests")
+class GeoKdTreeTest {
+
+        private final GeoLocationService geoLocationService = new GeoLocationService();
+
+        @Nested
+        @DisplayName("Nearest Neighbour Tests")
+        class NearestTests {
+
+                @Test
+                @DisplayName("Should return empty for an empty tree")
+                void shouldReturnEmptyForEmptyTree() {
+                        assertThat(GeoKdTree.<GeoLocation>empty().nearest(12.97, 77.59)).isEmpty();
+                }
+
+                @Test
+                @DisplayName("Should match a brute-force Haversine scan")
+                void shouldMatchBruteForceScan() {
+                        // Arrange - random points over India
+                        Random random = new Random(42);
+                        List<GeoLocation> points = randomLocations(random, 2000);
+                        GeoKdTree<GeoLocation> tree = GeoKdTree.build(points,
+                                        GeoLocation::getLatitude, GeoLocation::getLongitude);
+
+                        // Act & Assert
+                        for (GeoLocation query : randomLocations(random, 500)) {
+                                GeoLocation expected = points.stream()
+                                                .min(Comparator.comparingDouble(
+                                                                p -> geoLocationService.calculateDistanceInKm(query, p)))
+                                                .orElseThrow();
+
+                                GeoLocation actual = tree.nearest(query.getLatitude(), query.getLongitude())
+                                                .orElseThrow();
+
+                                assertThat(geoLocationService.calculateDistanceInKm(query, actual))
+                                                .isCloseTo(geoLocationService.calculateDistanceInKm(query, expected),
+                                                                within(1e-9));
+                        }
+                }
+
+                @Test
+                @DisplayName("Should handle duplicate coordinates")
+                void shouldHandleDuplicateCoordinates() {
+                        List<GeoLocation> points = new ArrayList<>();
+                        for (int i = 0; i < 50; i++) {
+                                points.add(GeoLocation.builder().latitude(19.0760).longitude(72.8777).build());
+                        }
+                        GeoLocation delhi = GeoLocation.builder().latitude(28.7041).longitude(77.1025).build();
+                        points.add(delhi);
+
+                        GeoKdTree<GeoLocation> tree = GeoKdTree.build(points,
+                                        GeoLocation::getLatitude, GeoLocation::getLongitude);
+
+                        assertThat(tree.size()).isEqualTo(51);
+                        assertThat(tree.nearest(28.6419, 77.1219)).containsSame(delhi);
+                }
+        }
+
+        @Nested
+        @DisplayName("Bounded Query Tests")
+        class BoundedQueryTests {
+
+                @Test
+                @DisplayName("Should return the k nearest in distance order")
+                void shouldReturnKNearestInOrder() {
+                        Random random = new Random(7);
+                        List<GeoLocation> points = randomLocations(random, 1000);
+                        GeoKdTree<GeoLocation> tree = GeoKdTree.build(points,
+                                        GeoLocation::getLatitude, GeoLocation::getLongitude);
+
+                        for (GeoLocation query : randomLocations(random, 100)) {
+                                List<Double> expected = points.stream()
+                                                .map(p -> geoLocationService.calculateDistanceInKm(query, p))
+                                                .sorted()
+                                                .limit(5)
+                                                .collect(Collectors.toList());
+
+                                List<GeoKdTree.Neighbor<GeoLocation>> actual = tree.nearest(
+                                                query.getLatitude(), query.getLongitude(), 5);
+
+                                assertThat(actual).hasSize(5);
+                                for (int i = 0; i < 5; i++) {
+                                        assertThat(actual.get(i).distanceKm()).isCloseTo(expected.get(i), within(1e-6));
+                                }
+                        }
+                }
+
+                @Test
+                @DisplayName("Should return every point within the radius")
+                void shouldReturnPointsWithinRadius() {
+                        Random random = new Random(11);
+                        List<GeoLocation> points = randomLocations(random, 1000);
+                        GeoKdTree<GeoLocation> tree = GeoKdTree.build(points,
+                                        GeoLocation::getLatitude, GeoLocation::getLongitude);
+
+                        for (GeoLocation query : randomLocations(random, 100)) {
+                                long expected = points.stream()
+                                                .filter(p -> geoLocationService.calculateDistanceInKm(query, p) <= 300.0)
+                                                .count();
+
+                                List<GeoKdTree.Neighbor<GeoLocation>> actual = tree.withinRadius(
+                                                query.getLatitude(), query.getLongitude(), 300.0, Integer.MAX_VALUE);
+
+                                assertThat(actual).hasSize((int) expected);
+                                assertThat(actual).isSortedAccordingTo(
+                                                Comparator.comparingDouble(GeoKdTree.Neighbor::distanceKm));
+                                assertThat(actual).allMatch(n -> n.distanceKm() <= 300.0 + 1e-6);
+                        }
+                }
+
+                @Test
+                @DisplayName("Should keep only the closest matches when limited")
+                void shouldRespectLimit() {
+                        Random random = new Random(13);
+                        List<GeoLocation> points = randomLocations(random, 1000);
+                        GeoKdTree<GeoLocation> tree = GeoKdTree.build(points,
+                                        GeoLocation::getLatitude, GeoLocation::getLongitude);
+
+                        List<GeoKdTree.Neighbor<GeoLocation>> all = tree.withinRadius(20.0, 78.0, 500.0, Integer.MAX_VALUE);
+                        List<GeoKdTree.Neighbor<GeoLocation>> limited = tree.withinRadius(20.0, 78.0, 500.0, 3);
+
+                        assertThat(limited).hasSize(3);
+                        assertThat(limited).containsExactlyElementsOf(all.subList(0, 3));
+                }
+        }
+
+        private static List<GeoLocation> randomLocations(Random random, int count) {
+                List<GeoLocation> locations = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                        locations.add(GeoLocation.builder()
+                                        .latitude(8.0 + random.nextDouble() * 29.0)
+                                        .longitude(68.0 + random.nextDouble() * 29.0)
+                                        .build());
+                }
+                return locations;
+        }
+}
@@ -0,0 +1,89 @@
+package com.jumbotail.shipping.geo;
+
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.service.GeoLocationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for NearestCellGrid.
+ * Verifies conclusive cells against a brute-force Haversine scan.
+ */
+@DisplayName("NearestCellGrid Tests")
+class NearestCellGridTest {
+
+        private static final NearestCellGrid.Bounds INDIA = new NearestCellGrid.Bounds(6.0, 37.5, 68.0, 97.5);
+
+        private final GeoLocationService geoLocationService = new GeoLocationService();
+
+        @Test
+        @DisplayName("Should only answer with the true nearest item")
+        void shouldMatchBruteForceScan() {
+                // Arrange - 50 warehouse-like points over India
+                Random random = new Random(7);
+                List<GeoLocation> points = randomLocations(random, 50);
+                NearestCellGrid<GeoLocation> grid = NearestCellGrid.build(
+                                GeoKdTree.build(points, GeoLocation::getLatitude, GeoLocation::getLongitude),
+                                INDIA, 0.1);
+
+                // Act & Assert
+                int answered = 0;
+                for (GeoLocation query : randomLocations(random, 2000)) {
+                        GeoLocation actual = grid.nearest(query.getLatitude(), query.getLongitude());
+                        if (actual == null) {
+                                continue;
+                        }
+                        answered++;
+
+                        GeoLocation expected = points.stream()
+                                        .min(Comparator.comparingDouble(
+                                                        p -> geoLocationService.calculateDistanceInKm(query, p)))
+                                        .orElseThrow();
+                        assertThat(actual).isSameAs(expected);
+                }
+
+                // Most of the area is far from any boundary between points
+                assertThat(answered).isGreaterThan(1700);
+                assertThat(grid.conclusiveCount()).isGreaterThan(grid.cellCount() * 8 / 10);
+        }
+
+        @Test
+        @DisplayName("Should leave points outside the grid to the exact search")
+        void shouldNotAnswerOutsideBounds() {
+                GeoLocation only = GeoLocation.builder().latitude(12.97).longitude(77.59).build();
+                NearestCellGrid<GeoLocation> grid = NearestCellGrid.build(
+                                GeoKdTree.build(List.of(only), GeoLocation::getLatitude, GeoLocation::getLongitude),
+                                INDIA, 0.5);
+
+                assertThat(grid.nearest(20.0, 80.0)).isSameAs(only);
+                assertThat(grid.nearest(51.5, -0.12)).isNull();
+                assertThat(grid.conclusiveCount()).isEqualTo(grid.cellCount());
+        }
+
+        @Test
+        @DisplayName("Should answer nothing for an empty tree")
+        void shouldAnswerNothingWhenEmpty() {
+                NearestCellGrid<GeoLocation> grid = NearestCellGrid.build(GeoKdTree.empty(), INDIA, 0.5);
+
+                assertThat(grid.nearest(20.0, 80.0)).isNull();
+                assertThat(grid.conclusiveCount()).isZero();
+        }
+
+        private static List<GeoLocation> randomLocations(Random random, int count) {
+                List<GeoLocation> locations = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                        locations.add(GeoLocation.builder()
+                                        .latitude(8.0 + random.nextDouble() * 29.0)
+                                        .longitude(68.0 + random.nextDouble() * 29.0)
+                                        .build());
+                }
+                return locations;
+        }
+}
@@ -0,0 +1,91 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.repository.SellerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AsyncQuoteService.
+ */
+@DisplayName("AsyncQuoteService Tests")
+class AsyncQuoteServiceTest {
+
+        private static final Warehouse BANGALORE = Warehouse.builder()
+                        .id(1L)
+                        .warehouseCode("BLR_WH_01")
+                        .name("Bangalore")
+                        .location(location(12.9716, 77.5946))
+                        .isActive(true)
+                        .build();
+
+        private final WarehouseService warehouseService = mock(WarehouseService.class);
+        private final ReferenceDataStore referenceDataStore = mock(ReferenceDataStore.class);
+        private final WarehouseSpatialIndex warehouseIndex = new WarehouseSpatialIndex(true, 0.1);
+
+        private AsyncQuoteService asyncQuoteService;
+
+        @BeforeEach
+        void setUp() {
+                asyncQuoteService = new AsyncQuoteService(mock(ShippingCalculatorService.class), warehouseService,
+                                new GeoLocationService(), referenceDataStore, warehouseIndex,
+                                mock(SellerRepository.class),
+                                new KnownIds(false, 1, Duration.ofMinutes(1), null, null, new SimpleMeterRegistry()),
+                                1);
+        }
+
+        @AfterEach
+        void tearDown() {
+                asyncQuoteService.shutdown();
+        }
+
+        @Test
+        @DisplayName("Should find the nearest warehouse through the cached lookup")
+        void shouldUseCachedNearestWarehouse() {
+                // Arrange
+                Seller seller = Seller.builder().id(10L).sellerId("SELLER-10").location(location(12.9352, 77.6245))
+                                .build();
+                when(referenceDataStore.current()).thenReturn(ReferenceData.of(
+                                List.of(seller), List.of(), List.of(BANGALORE), List.of()));
+                warehouseIndex.load(List.of(BANGALORE));
+                when(warehouseService.findNearestWarehouse(eq(10L), any())).thenReturn(WarehouseSnapshot.of(BANGALORE));
+
+                // Act
+                WarehouseService.WarehouseDistance nearest = asyncQuoteService.nearestWarehouse(10L).join();
+
+                // Assert
+                assertThat(nearest.warehouse().id()).isEqualTo(1L);
+                assertThat(nearest.distanceKm()).isPositive();
+                verify(warehouseService, never()).findNearestWarehouseToLocation(any());
+        }
+
+        @Test
+        @DisplayName("Should fail the future instead of throwing when the pool rejects a lookup")
+        void shouldFailFutureOnRejection() {
+                asyncQuoteService.shutdown();
+
+                CompletableFuture<WarehouseService.WarehouseDistance> future = asyncQuoteService.nearestWarehouse(10L);
+
+                assertThat(future).isCompletedExceptionally();
+                assertThatThrownBy(future::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        }
+
+        private static GeoLocation location(double latitude, double longitude) {
+                return GeoLocation.builder().latitude(latitude).longitude(longitude).build();
+        }
+}
@@ -0,0 +1,144 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.enums.TransportMode;
+import com.jumbotail.shipping.event.EntityChangedEvent;
+import com.jumbotail.shipping.service.QuoteCache.QuoteKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CacheInvalidator.
+ */
+@DisplayName("CacheInvalidator Tests")
+class CacheInvalidatorTest {
+
+        private static final Warehouse BANGALORE = warehouse(1L, "BLR_WH_01", 12.9716, 77.5946);
+        private static final Warehouse DELHI = warehouse(2L, "DEL_WH_01", 28.6139, 77.2090);
+
+        private Cache nearestWarehouses;
+        private QuoteCache quoteCache;
+        private CacheInvalidator invalidator;
+
+        @BeforeEach
+        void setUp() {
+                CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                                WarehouseService.NEAREST_WAREHOUSE_REGION, QuoteCache.REGION);
+                nearestWarehouses = cacheManager.getCache(WarehouseService.NEAREST_WAREHOUSE_REGION);
+                quoteCache = new QuoteCache(cacheManager, new SimpleMeterRegistry());
+
+                ReferenceDataStore referenceDataStore = mock(ReferenceDataStore.class);
+                when(referenceDataStore.current()).thenReturn(ReferenceData.of(
+                                List.of(seller(10L, 12.9352, 77.6245), seller(20L, 28.5355, 77.3910)),
+                                List.of(), List.of(BANGALORE, DELHI), List.of()));
+
+                invalidator = new CacheInvalidator(new NearestWarehouseCache(cacheManager, new SimpleMeterRegistry()),
+                                quoteCache, referenceDataStore, new GeoLocationService());
+
+                // Seller 10 is in Bangalore, seller 20 near Delhi
+                nearestWarehouses.put(10L, WarehouseSnapshot.of(BANGALORE));
+                nearestWarehouses.put(20L, WarehouseSnapshot.of(DELHI));
+                cacheQuote(QuoteKey.forSeller(10L, 100L, DeliverySpeed.STANDARD, null), BANGALORE);
+                cacheQuote(QuoteKey.forSeller(20L, 200L, DeliverySpeed.STANDARD, null), DELHI);
+                cacheQuote(QuoteKey.forWarehouse(1L, 100L, DeliverySpeed.EXPRESS, null), BANGALORE);
+                cacheQuote(QuoteKey.forWarehouse(2L, 200L, DeliverySpeed.EXPRESS, null), DELHI);
+        }
+
+        @Test
+        @DisplayName("Should evict only sellers a new warehouse is closer to")
+        void shouldEvictSellersDisplacedByNewWarehouse() {
+                // Act
+                invalidator.onWarehouseChanged(EntityChangedEvent.of(
+                                warehouse(3L, "BLR_WH_02", 12.9279, 77.6271)));
+
+                // Assert
+                assertThat(nearestWarehouses.get(10L)).isNull();
+                assertThat(nearestWarehouses.get(20L)).isNotNull();
+                assertThat(cachedQuotes()).containsExactlyInAnyOrder(
+                                QuoteKey.forSeller(20L, 200L, DeliverySpeed.STANDARD, null),
+                                QuoteKey.forWarehouse(1L, 100L, DeliverySpeed.EXPRESS, null),
+                                QuoteKey.forWarehouse(2L, 200L, DeliverySpeed.EXPRESS, null));
+        }
+
+        @Test
+        @DisplayName("Should evict everything served by a deactivated warehouse")
+        void shouldEvictEntriesOfDeactivatedWarehouse() {
+                // Arrange
+                Warehouse deactivated = warehouse(2L, "DEL_WH_01", 28.6139, 77.2090);
+                deactivated.setIsActive(false);
+
+                // Act
+                invalidator.onWarehouseChanged(EntityChangedEvent.of(deactivated));
+
+                // Assert
+                assertThat(nearestWarehouses.get(10L)).isNotNull();
+                assertThat(nearestWarehouses.get(20L)).isNull();
+                assertThat(cachedQuotes()).containsExactlyInAnyOrder(
+                                QuoteKey.forSeller(10L, 100L, DeliverySpeed.STANDARD, null),
+                                QuoteKey.forWarehouse(1L, 100L, DeliverySpeed.EXPRESS, null));
+        }
+
+        @Test
+        @DisplayName("Should evict only the changed seller's and customer's entries")
+        void shouldEvictSellerAndCustomerEntries() {
+                // Act
+                invalidator.onSellerChanged(EntityChangedEvent.of(seller(10L, 13.0, 77.6)));
+                invalidator.onCustomerChanged(EntityChangedEvent.of(Customer.builder().id(200L).build()));
+
+                // Assert
+                assertThat(nearestWarehouses.get(10L)).isNull();
+                assertThat(nearestWarehouses.get(20L)).isNotNull();
+                assertThat(cachedQuotes()).containsExactly(
+                                QuoteKey.forWarehouse(1L, 100L, DeliverySpeed.EXPRESS, null));
+        }
+
+        private void cacheQuote(QuoteKey key, Warehouse warehouse) {
+                quoteCache.get(key, () -> new ShippingQuote(1000L, WarehouseSnapshot.of(warehouse),
+                                0.0, 10.0, 1.0, TransportMode.MINI_VAN, key.deliverySpeed()));
+        }
+
+        private List<QuoteKey> cachedQuotes() {
+                List<QuoteKey> keys = new ArrayList<>();
+                quoteCache.evictIf((key, quote) -> {
+                        keys.add(key);
+                        return false;
+                });
+                return keys;
+        }
+
+        private static Warehouse warehouse(Long id, String code, double latitude, double longitude) {
+                return Warehouse.builder()
+                                .id(id)
+                                .warehouseCode(code)
+                                .name(code)
+                                .location(location(latitude, longitude))
+                                .isActive(true)
+                                .build();
+        }
+
+        private static Seller seller(Long id, double latitude, double longitude) {
+                return Seller.builder()
+                                .id(id)
+                                .sellerId("SELLER-" + id)
+                                .location(location(latitude, longitude))
+                                .build();
+        }
+
+        private static GeoLocation location(double latitude, double longitude) {
+                return GeoLocation.builder().latitude(latitude).longitude(longitude).build();
+        }
+}
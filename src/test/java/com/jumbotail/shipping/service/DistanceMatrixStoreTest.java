@@ -0,0 +1,107 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.repository.CustomerRepository;
+import com.jumbotail.shipping.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DistanceMatrixStore.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DistanceMatrixStore Tests")
+class DistanceMatrixStoreTest {
+
+        private static final LocalDateTime NOON = LocalDateTime.of(2024, 1, 15, 12, 0);
+        private static final Duration OVERLAP = Duration.ofMinutes(5);
+
+        @Mock
+        private WarehouseRepository warehouseRepository;
+
+        @Mock
+        private CustomerRepository customerRepository;
+
+        private DistanceMatrixStore store;
+
+        @BeforeEach
+        void setUp() {
+                store = new DistanceMatrixStore(true, 1_000, OVERLAP, warehouseRepository, customerRepository,
+                                new GeoLocationService());
+        }
+
+        @Test
+        @DisplayName("Should pick up a customer stamped before the last refresh that committed after it")
+        void shouldPickUpLateCommittedCustomer() {
+                when(warehouseRepository.findByIsActiveTrue())
+                                .thenReturn(List.of(warehouse(1L, NOON.plusMinutes(2))));
+                when(customerRepository.findByIsActiveTrue())
+                                .thenReturn(List.of(customer(10L, NOON)));
+                store.refresh();
+
+                // Customer 11 was stamped before the warehouse but committed after the first run
+                when(warehouseRepository.findByUpdatedAtGreaterThanEqual(any()))
+                                .thenReturn(List.of(warehouse(1L, NOON.plusMinutes(2))));
+                when(customerRepository.findByUpdatedAtGreaterThanEqual(any()))
+                                .thenReturn(List.of(customer(10L, NOON), customer(11L, NOON.plusMinutes(1))));
+                store.refresh();
+
+                // Each table is read back from its own watermark, less the overlap
+                verify(warehouseRepository).findByUpdatedAtGreaterThanEqual(NOON.plusMinutes(2).minus(OVERLAP));
+                verify(customerRepository).findByUpdatedAtGreaterThanEqual(NOON.minus(OVERLAP));
+                assertThat(store.current().customerIds()).containsExactly(10L, 11L);
+                assertThat(store.current().measuredCells()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should not rebuild when the overlap only re-reads unchanged rows")
+        void shouldNotRebuildForOverlap() {
+                when(warehouseRepository.findByIsActiveTrue())
+                                .thenReturn(List.of(warehouse(1L, NOON)));
+                when(customerRepository.findByIsActiveTrue())
+                                .thenReturn(List.of(customer(10L, NOON)));
+                store.refresh();
+                DistanceMatrix first = store.current();
+
+                when(warehouseRepository.findByUpdatedAtGreaterThanEqual(any()))
+                                .thenReturn(List.of(warehouse(1L, NOON)));
+                when(customerRepository.findByUpdatedAtGreaterThanEqual(any()))
+                                .thenReturn(List.of(customer(10L, NOON)));
+                store.refresh();
+
+                assertThat(store.current()).isSameAs(first);
+        }
+
+        private static Warehouse warehouse(long id, LocalDateTime updatedAt) {
+                return Warehouse.builder()
+                                .id(id)
+                                .location(location(12.9716, 77.5946))
+                                .updatedAt(updatedAt)
+                                .build();
+        }
+
+        private static Customer customer(long id, LocalDateTime updatedAt) {
+                return Customer.builder()
+                                .id(id)
+                                .location(location(13.0827 + id / 100.0, 80.2707))
+                                .updatedAt(updatedAt)
+                                .build();
+        }
+
+        private static GeoLocation location(double latitude, double longitude) {
+                return GeoLocation.builder().latitude(latitude).longitude(longitude).build();
+        }
+}
@@ -0,0 +1,97 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.geo.DistanceEngine;
+import com.jumbotail.shipping.geo.EquirectangularDistanceEngine;
+import com.jumbotail.shipping.geo.GeoPointArray;
+import com.jumbotail.shipping.geo.HaversineDistanceEngine;
+import com.jumbotail.shipping.service.DistanceMatrix.Point;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for DistanceMatrix.
+ */
+@DisplayName("DistanceMatrix Tests")
+class DistanceMatrixTest {
+
+        private static final DistanceEngine ENGINE = new HaversineDistanceEngine();
+
+        private static final Point BANGALORE = new Point(1L, 12.9716, 77.5946);
+        private static final Point MUMBAI = new Point(2L, 19.0760, 72.8777);
+        private static final Point DELHI_STORE = new Point(10L, 28.6139, 77.2090);
+        private static final Point CHENNAI_STORE = new Point(20L, 13.0827, 80.2707);
+
+        @Test
+        @DisplayName("Should store the measured distance for every pair")
+        void shouldStoreMeasuredDistances() {
+                DistanceMatrix matrix = DistanceMatrix.build(DistanceMatrix.empty(),
+                                List.of(MUMBAI, BANGALORE), List.of(CHENNAI_STORE, DELHI_STORE), ENGINE);
+
+                assertThat(matrix.measuredCells()).isEqualTo(4);
+                assertThat(matrix.warehouseIds()).containsExactly(1L, 2L);
+                assertThat(matrix.distanceKm(1L, BANGALORE.latitude(), BANGALORE.longitude(),
+                                20L, CHENNAI_STORE.latitude(), CHENNAI_STORE.longitude()))
+                                .isCloseTo(ENGINE.distanceKm(BANGALORE.latitude(), BANGALORE.longitude(),
+                                                CHENNAI_STORE.latitude(), CHENNAI_STORE.longitude()), within(1e-9));
+                assertThat(matrix.distanceKm(2L, 10L))
+                                .isCloseTo(ENGINE.distanceKm(MUMBAI.latitude(), MUMBAI.longitude(),
+                                                DELHI_STORE.latitude(), DELHI_STORE.longitude()), within(1e-9));
+        }
+
+        @Test
+        @DisplayName("Should measure new Haversine rows in one pass over the customers")
+        void shouldMeasureNewRowsWithBatchKernel() {
+                DistanceMatrix matrix = DistanceMatrix.build(DistanceMatrix.empty(),
+                                List.of(BANGALORE), List.of(CHENNAI_STORE, DELHI_STORE), ENGINE);
+                double[] row = GeoPointArray.of(
+                                new double[] { DELHI_STORE.latitude(), CHENNAI_STORE.latitude() },
+                                new double[] { DELHI_STORE.longitude(), CHENNAI_STORE.longitude() })
+                                .distancesKmFrom(BANGALORE.latitude(), BANGALORE.longitude());
+
+                assertThat(matrix.distanceKm(1L, 10L)).isEqualTo(row[0]);
+                assertThat(matrix.distanceKm(1L, 20L)).isEqualTo(row[1]);
+
+                // Other engines measure pair by pair
+                DistanceEngine approximate = new EquirectangularDistanceEngine();
+                DistanceMatrix approximated = DistanceMatrix.build(DistanceMatrix.empty(),
+                                List.of(BANGALORE), List.of(DELHI_STORE), approximate);
+                assertThat(approximated.distanceKm(1L, 10L))
+                                .isEqualTo(approximate.distanceKm(BANGALORE.latitude(), BANGALORE.longitude(),
+                                                DELHI_STORE.latitude(), DELHI_STORE.longitude()));
+        }
+
+        @Test
+        @DisplayName("Should miss for unknown or moved endpoints")
+        void shouldMissForUnknownOrMovedEndpoints() {
+                DistanceMatrix matrix = DistanceMatrix.build(DistanceMatrix.empty(),
+                                List.of(BANGALORE), List.of(DELHI_STORE), ENGINE);
+
+                assertThat(matrix.distanceKm(3L, 10L)).isNaN();
+                assertThat(matrix.distanceKm(1L, BANGALORE.latitude(), BANGALORE.longitude(),
+                                10L, 28.7041, 77.1025)).isNaN();
+        }
+
+        @Test
+        @DisplayName("Should only measure rows and columns of new or moved endpoints on rebuild")
+        void shouldReuseUnchangedCells() {
+                DistanceMatrix first = DistanceMatrix.build(DistanceMatrix.empty(),
+                                List.of(BANGALORE, MUMBAI), List.of(DELHI_STORE), ENGINE);
+
+                // Chennai store is new and Mumbai warehouse has moved
+                Point movedMumbai = new Point(2L, 19.2183, 72.9781);
+                DistanceMatrix second = DistanceMatrix.build(first,
+                                List.of(BANGALORE, movedMumbai), List.of(DELHI_STORE, CHENNAI_STORE), ENGINE);
+
+                // Only Bangalore -> Delhi is reused
+                assertThat(second.measuredCells()).isEqualTo(3);
+                assertThat(second.distanceKm(1L, 10L)).isEqualTo(first.distanceKm(1L, 10L));
+                assertThat(second.distanceKm(2L, movedMumbai.latitude(), movedMumbai.longitude(),
+                                10L, DELHI_STORE.latitude(), DELHI_STORE.longitude()))
+                                .isCloseTo(ENGINE.distanceKm(movedMumbai.latitude(), movedMumbai.longitude(),
+                                                DELHI_STORE.latitude(), DELHI_STORE.longitude()), within(1e-9));
+        }
+}
@@ -1,11 +1,15 @@
 package com.jumbotail.shipping.service;
 
 import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.enums.DistanceAccuracy;
+import com.jumbotail.shipping.geo.GeoPointArray;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.*;
 
 /**
@@ -250,4 +254,146 @@ class GeoLocationServiceTest {
                         assertThat(bearing).isBetween(0.0, 360.0);
                 }
         }
+
+        @Nested
+        @DisplayName("Batch Distance Tests")
+        class BatchDistanceTests {
+
+                @Test
+                @DisplayName("Should match per-pair Haversine distances")
+                void shouldMatchPerPairDistances() {
+                        // Arrange - warehouses from sample data
+                        double[] latitudes = { 12.9716, 19.0760, 28.7041, 13.0827, 22.5726 };
+                        double[] longitudes = { 77.5946, 72.8777, 77.1025, 80.2707, 88.3639 };
+                        GeoPointArray warehouses = GeoPointArray.of(latitudes, longitudes);
+
+                        GeoLocation seller = GeoLocation.builder()
+                                        .latitude(17.3850)
+                                        .longitude(78.4867)
+                                        .build();
+
+                        // Act
+                        double[] distances = warehouses.distancesKmFrom(seller.getLatitude(), seller.getLongitude());
+
+                        // Assert
+                        assertThat(distances).hasSize(5);
+                        for (int i = 0; i < latitudes.length; i++) {
+                                GeoLocation warehouse = GeoLocation.builder()
+                                                .latitude(latitudes[i])
+                                                .longitude(longitudes[i])
+                                                .build();
+                                assertThat(distances[i]).isCloseTo(
+                                                geoLocationService.calculateDistanceInKm(seller, warehouse), within(1e-6));
+                        }
+                        assertThat(warehouses.nearestTo(17.3850, 78.4867)).isZero();
+                }
+        }
+
+        @Nested
+        @DisplayName("Distance Engine Tests")
+        class DistanceEngineTests {
+
+                private final GeoLocation bangalore = GeoLocation.builder()
+                                .latitude(12.9716)
+                                .longitude(77.5946)
+                                .build();
+
+                private final GeoLocation mumbai = GeoLocation.builder()
+                                .latitude(19.0760)
+                                .longitude(72.8777)
+                                .build();
+
+                @Test
+                @DisplayName("Should stay within each engine's error bound of the geodesic distance")
+                void shouldStayWithinErrorBounds() {
+                        double geodesic = geoLocationService.calculateDistanceInKm(
+                                        bangalore, mumbai, DistanceAccuracy.GEODESIC);
+
+                        for (DistanceAccuracy accuracy : DistanceAccuracy.values()) {
+                                double distance = geoLocationService.calculateDistanceInKm(bangalore, mumbai, accuracy);
+                                double bound = geoLocationService.getEngine(accuracy).maxRelativeError();
+
+                                assertThat(Math.abs(distance - geodesic) / geodesic).isLessThanOrEqualTo(bound);
+                        }
+                }
+
+                @Test
+                @DisplayName("Should stay within each engine's error bound at the edges of the warehouse grid")
+                void shouldStayWithinErrorBoundsAtEdges() {
+                        // Short north-south hop at the southern edge, where the
+                        // meridional radius is smallest; short east-west hop at the
+                        // northern edge; both diagonals across the grid
+                        double[][] pairs = {
+                                        { 6.0, 80.0, 6.01, 80.0 },
+                                        { 37.5, 75.0, 37.5, 75.01 },
+                                        { 6.0, 68.0, 37.5, 97.5 },
+                                        { 37.5, 68.0, 6.0, 97.5 }
+                        };
+
+                        for (double[] pair : pairs) {
+                                GeoLocation from = GeoLocation.builder().latitude(pair[0]).longitude(pair[1]).build();
+                                GeoLocation to = GeoLocation.builder().latitude(pair[2]).longitude(pair[3]).build();
+                                double geodesic = geoLocationService.calculateDistanceInKm(
+                                                from, to, DistanceAccuracy.GEODESIC);
+
+                                for (DistanceAccuracy accuracy : DistanceAccuracy.values()) {
+                                        double distance = geoLocationService.calculateDistanceInKm(from, to, accuracy);
+                                        double bound = geoLocationService.getEngine(accuracy).maxRelativeError();
+
+                                        assertThat(Math.abs(distance - geodesic) / geodesic)
+                                                        .as("%s from %s to %s", accuracy, from, to)
+                                                        .isLessThanOrEqualTo(bound);
+                                }
+                        }
+                }
+
+                @Test
+                @DisplayName("Should use Haversine by default")
+                void shouldUseHaversineByDefault() {
+                        assertThat(geoLocationService.calculateDistanceInKm(bangalore, mumbai))
+                                        .isEqualTo(geoLocationService.calculateDistanceInKm(
+                                                        bangalore, mumbai, DistanceAccuracy.STANDARD));
+                }
+
+                @Test
+                @DisplayName("Should match the WGS84 reference distance")
+                void shouldMatchWgs84Reference() {
+                        // Flinders Peak to Buninyong, Vincenty (1975) reference: 54972.271 m
+                        GeoLocation flindersPeak = GeoLocation.builder()
+                                        .latitude(-(37 + 57 / 60.0 + 3.72030 / 3600))
+                                        .longitude(144 + 25 / 60.0 + 29.52440 / 3600)
+                                        .build();
+                        GeoLocation buninyong = GeoLocation.builder()
+                                        .latitude(-(37 + 39 / 60.0 + 10.15610 / 3600))
+                                        .longitude(143 + 55 / 60.0 + 35.38390 / 3600)
+                                        .build();
+
+                        double distance = geoLocationService.calculateDistanceInKm(
+                                        flindersPeak, buninyong, DistanceAccuracy.GEODESIC);
+
+                        assertThat(distance).isCloseTo(54.972271, within(1e-6));
+                }
+
+                @Test
+                @DisplayName("Should rank cheaply and measure the winner precisely")
+                void shouldFindClosestCandidate() {
+                        GeoLocation hyderabad = GeoLocation.builder()
+                                        .latitude(17.3850)
+                                        .longitude(78.4867)
+                                        .build();
+                        GeoLocation delhi = GeoLocation.builder()
+                                        .latitude(28.7041)
+                                        .longitude(77.1025)
+                                        .build();
+
+                        GeoLocationService.ClosestMatch<GeoLocation> match = geoLocationService
+                                        .findClosest(hyderabad, List.of(mumbai, delhi, bangalore),
+                                                        location -> location, DistanceAccuracy.GEODESIC)
+                                        .orElseThrow();
+
+                        assertThat(match.candidate()).isSameAs(bangalore);
+                        assertThat(match.distanceKm()).isEqualTo(geoLocationService.calculateDistanceInKm(
+                                        hyderabad, bangalore, DistanceAccuracy.GEODESIC));
+                }
+        }
 }
@@ -0,0 +1,83 @@
+package com.jumbotail.shipping.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for GuardedCache.
+ */
+@DisplayName("GuardedCache Tests")
+class GuardedCacheTest {
+
+        private final Cache cache = new ConcurrentMapCache("region");
+        private final GuardedCache<Long, String> guarded = new GuardedCache<>(cache, Long.class, String.class,
+                        new SimpleMeterRegistry());
+
+        @Test
+        @DisplayName("Should store a computed value")
+        void shouldStoreComputedValue() {
+                assertThat(guarded.load(1L, () -> "nearest")).isEqualTo("nearest");
+
+                assertThat(guarded.getIfPresent(1L)).isEqualTo("nearest");
+        }
+
+        @Test
+        @DisplayName("Should not store a value computed while an eviction ran")
+        void shouldNotStoreValueOvertakenByEviction() {
+                String value = guarded.load(1L, () -> {
+                        // The entity behind the value changes mid-computation
+                        guarded.evictIf((key, cached) -> key == 1L);
+                        return "stale";
+                });
+
+                assertThat(value).isEqualTo("stale");
+                assertThat(guarded.getIfPresent(1L)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should not store a value computed while its key was evicted")
+        void shouldNotStoreValueOvertakenByKeyEviction() {
+                guarded.load(1L, () -> {
+                        guarded.evict(1L);
+                        return "stale";
+                });
+
+                assertThat(guarded.getIfPresent(1L)).isNull();
+                assertThat(guarded.load(1L, () -> "fresh")).isEqualTo("fresh");
+                assertThat(guarded.getIfPresent(1L)).isEqualTo("fresh");
+        }
+
+        @Test
+        @DisplayName("Should not store a value computed while the region was cleared")
+        void shouldNotStoreValueOvertakenByClear() {
+                guarded.load(1L, () -> {
+                        // A new rate card is published mid-computation
+                        guarded.clear();
+                        return "old rates";
+                });
+
+                assertThat(guarded.getIfPresent(1L)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should serve a caller that missed just before another computation stored its value")
+        void shouldRecheckCacheInsideFlight() {
+                // Arrange: the first caller computes and stores the value and its
+                // flight ends...
+                assertThat(guarded.load(1L, () -> "nearest")).isEqualTo("nearest");
+
+                // Act: ...while a second caller, which missed before the store,
+                // only now reaches the flight
+                String value = guarded.load(1L, () -> {
+                        throw new AssertionError("Computed the value again");
+                });
+
+                // Assert
+                assertThat(value).isEqualTo("nearest");
+        }
+}
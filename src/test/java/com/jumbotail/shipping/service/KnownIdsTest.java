@@ -0,0 +1,191 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.event.EntityChangedEvent;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.repository.CustomerRepository;
+import com.jumbotail.shipping.repository.SellerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for KnownIds and LongBloomFilter.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KnownIds Tests")
+class KnownIdsTest {
+
+        @Mock
+        private SellerRepository sellerRepository;
+
+        @Mock
+        private CustomerRepository customerRepository;
+
+        @Mock
+        private Function<Long, Optional<Seller>> loader;
+
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        private KnownIds knownIds;
+
+        @BeforeEach
+        void setUp() {
+                knownIds = new KnownIds(true, 100, Duration.ofMinutes(10), sellerRepository, customerRepository,
+                                meterRegistry);
+        }
+
+        @Nested
+        @DisplayName("Lookup Tests")
+        class LookupTests {
+
+                @Test
+                @DisplayName("Should reject IDs the filter rules out without a lookup")
+                void shouldRejectFilteredIds() {
+                        load(1L, 2L, 5L);
+
+                        assertThatThrownBy(() -> knownIds.sellers().find(3L, loader))
+                                        .isInstanceOf(ResourceNotFoundException.class)
+                                        .hasMessageContaining("Seller not found with id: '3'");
+                        verifyNoInteractions(loader);
+                        assertThat(meterRegistry.get("shipping.unknown-ids.rejected").tag("entity", "seller")
+                                        .counter().count()).isEqualTo(1.0);
+                }
+
+                @Test
+                @DisplayName("Should look up IDs above the highest loaded ID")
+                void shouldLookUpNewerIds() {
+                        load(1L, 2L);
+                        Seller seller = Seller.builder().id(3L).build();
+                        when(loader.apply(3L)).thenReturn(Optional.of(seller));
+
+                        assertThat(knownIds.sellers().find(3L, loader)).isSameAs(seller);
+                }
+
+                @Test
+                @DisplayName("Should remember a missed ID until it is created")
+                void shouldRememberMissesUntilCreated() {
+                        // Seller 7 was deleted after the filters loaded
+                        load(1L, 2L, 7L);
+                        when(loader.apply(7L)).thenReturn(Optional.empty());
+
+                        assertThatThrownBy(() -> knownIds.sellers().find(7L, loader))
+                                        .isInstanceOf(ResourceNotFoundException.class);
+                        assertThatThrownBy(() -> knownIds.sellers().find(7L, loader))
+                                        .isInstanceOf(ResourceNotFoundException.class);
+                        verify(loader, times(1)).apply(7L);
+
+                        Seller created = Seller.builder().id(7L).build();
+                        knownIds.onSellerChanged(EntityChangedEvent.of(created));
+                        when(loader.apply(7L)).thenReturn(Optional.of(created));
+
+                        assertThat(knownIds.sellers().find(7L, loader)).isSameAs(created);
+                }
+
+                @Test
+                @DisplayName("Should not remember missed IDs above the highest loaded ID")
+                void shouldNotRememberNewerMisses() {
+                        load(1L, 2L);
+                        Seller created = Seller.builder().id(3L).build();
+                        // Another node creates seller 3 right after a client probed it
+                        when(loader.apply(3L)).thenReturn(Optional.empty(), Optional.of(created));
+
+                        assertThatThrownBy(() -> knownIds.sellers().find(3L, loader))
+                                        .isInstanceOf(ResourceNotFoundException.class);
+
+                        assertThat(knownIds.sellers().find(3L, loader)).isSameAs(created);
+                        verify(loader, times(2)).apply(3L);
+                }
+
+                @Test
+                @DisplayName("Should keep IDs inserted while the filters load")
+                void shouldKeepIdsInsertedDuringLoad() {
+                        // Seller 2 commits after the ID query read its snapshot
+                        when(sellerRepository.findAllIds()).thenAnswer(invocation -> {
+                                knownIds.onSellerChanged(EntityChangedEvent.of(Seller.builder().id(2L).build()));
+                                return List.of(1L, 3L);
+                        });
+                        when(customerRepository.findAllIds()).thenReturn(List.of());
+                        knownIds.load();
+                        Seller seller = Seller.builder().id(2L).build();
+                        when(loader.apply(2L)).thenReturn(Optional.of(seller));
+
+                        assertThat(knownIds.sellers().find(2L, loader)).isSameAs(seller);
+                }
+
+                @Test
+                @DisplayName("Should look up every ID before the filters load")
+                void shouldPassThroughBeforeLoad() {
+                        when(loader.apply(any())).thenReturn(Optional.empty());
+
+                        assertThatThrownBy(() -> knownIds.sellers().find(3L, loader))
+                                        .isInstanceOf(ResourceNotFoundException.class);
+                        verify(loader).apply(3L);
+                }
+
+                @Test
+                @DisplayName("Should look up every ID when disabled")
+                void shouldPassThroughWhenDisabled() {
+                        KnownIds disabled = new KnownIds(false, 100, Duration.ofMinutes(10), sellerRepository,
+                                        customerRepository, meterRegistry);
+                        disabled.refresh();
+                        when(loader.apply(3L)).thenReturn(Optional.empty());
+
+                        assertThatThrownBy(() -> disabled.sellers().find(3L, loader))
+                                        .isInstanceOf(ResourceNotFoundException.class);
+                        assertThatThrownBy(() -> disabled.sellers().find(3L, loader))
+                                        .isInstanceOf(ResourceNotFoundException.class);
+                        verify(loader, times(2)).apply(3L);
+                        verifyNoInteractions(sellerRepository, customerRepository);
+                }
+
+                @Test
+                @DisplayName("Should throw not-found exceptions without a stack trace")
+                void shouldThrowStacklessExceptions() {
+                        load(1L);
+
+                        assertThatThrownBy(() -> knownIds.sellers().find(0L, loader))
+                                        .isInstanceOfSatisfying(ResourceNotFoundException.class,
+                                                        e -> assertThat(e.getStackTrace()).isEmpty());
+                }
+        }
+
+        @Nested
+        @DisplayName("Bloom Filter Tests")
+        class BloomFilterTests {
+
+                @Test
+                @DisplayName("Should report every added value and few others")
+                void shouldHaveNoFalseNegatives() {
+                        LongBloomFilter filter = new LongBloomFilter(10_000, 0.01);
+                        LongStream.rangeClosed(1, 10_000).forEach(filter::add);
+
+                        assertThat(LongStream.rangeClosed(1, 10_000).allMatch(filter::mightContain)).isTrue();
+                        long falsePositives = LongStream.rangeClosed(10_001, 110_000)
+                                        .filter(filter::mightContain)
+                                        .count();
+                        assertThat(falsePositives).isLessThan(2_000);
+                }
+        }
+
+        private void load(Long... sellerIds) {
+                when(sellerRepository.findAllIds()).thenReturn(List.of(sellerIds));
+                when(customerRepository.findAllIds()).thenReturn(List.of());
+                knownIds.load();
+        }
+}
@@ -0,0 +1,143 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for QuoteLookupExecutor.
+ */
+@DisplayName("QuoteLookupExecutor Tests")
+class QuoteLookupExecutorTest {
+
+        private final QuoteLookupExecutor executor = new QuoteLookupExecutor(4);
+
+        @AfterEach
+        void tearDown() {
+                executor.shutdown();
+        }
+
+        @Nested
+        @DisplayName("Parallel Batch Tests")
+        class ParallelBatchTests {
+
+                @Test
+                @DisplayName("Should run the lookups of a batch concurrently")
+                void shouldRunLookupsConcurrently() {
+                        // Each lookup waits for the other, so they only finish if both run at once
+                        CountDownLatch started = new CountDownLatch(2);
+                        QuoteLookupExecutor.Batch batch = executor.batch();
+
+                        QuoteLookupExecutor.Lookup<String> first = batch.fork(() -> awaitBoth(started, "first"));
+                        QuoteLookupExecutor.Lookup<String> second = batch.fork(() -> awaitBoth(started, "second"));
+                        batch.join();
+
+                        assertThat(first.get()).isEqualTo("first");
+                        assertThat(second.get()).isEqualTo("second");
+                }
+
+                @Test
+                @DisplayName("Should rethrow a failed lookup unwrapped and skip lookups not yet started")
+                void shouldRethrowFirstFailure() {
+                        AtomicBoolean ranAfterFailure = new AtomicBoolean();
+                        QuoteLookupExecutor.Batch batch = executor.batch();
+
+                        batch.fork(() -> {
+                                throw new ResourceNotFoundException("Customer", "id", 99L);
+                        });
+                        assertThatThrownBy(batch::join)
+                                        .isInstanceOf(ResourceNotFoundException.class)
+                                        .hasMessageContaining("Customer");
+
+                        batch.fork(() -> {
+                                ranAfterFailure.set(true);
+                                return 1.0;
+                        });
+
+                        assertThatThrownBy(batch::join).isInstanceOf(ResourceNotFoundException.class);
+                        assertThat(ranAfterFailure).isFalse();
+                }
+
+                @Test
+                @DisplayName("Should reject lookups beyond the pool and its queue instead of running them inline")
+                void shouldRejectWhenSaturated() {
+                        QuoteLookupExecutor single = new QuoteLookupExecutor(1);
+                        CountDownLatch release = new CountDownLatch(1);
+                        try {
+                                QuoteLookupExecutor.Batch batch = single.batch();
+                                // One lookup holds the only thread, 64 fill its queue
+                                for (int i = 0; i <= 64; i++) {
+                                        batch.fork(() -> {
+                                                try {
+                                                        return release.await(5, TimeUnit.SECONDS);
+                                                } catch (InterruptedException e) {
+                                                        Thread.currentThread().interrupt();
+                                                        return false;
+                                                }
+                                        });
+                                }
+
+                                assertThatThrownBy(() -> batch.fork(Thread::currentThread))
+                                                .isInstanceOf(RejectedExecutionException.class);
+                        } finally {
+                                release.countDown();
+                                single.shutdown();
+                        }
+                }
+        }
+
+        @Nested
+        @DisplayName("Inline Batch Tests")
+        class InlineBatchTests {
+
+                @Test
+                @DisplayName("Should run lookups on the calling thread inside a transaction")
+                void shouldRunInlineInsideTransaction() {
+                        TransactionSynchronizationManager.setActualTransactionActive(true);
+                        try {
+                                Thread caller = Thread.currentThread();
+                                QuoteLookupExecutor.Batch batch = executor.batch();
+
+                                QuoteLookupExecutor.Lookup<Thread> thread = batch.fork(Thread::currentThread);
+                                batch.join();
+
+                                assertThat(thread.get()).isSameAs(caller);
+                        } finally {
+                                TransactionSynchronizationManager.setActualTransactionActive(false);
+                        }
+                }
+
+                @Test
+                @DisplayName("Should throw from fork when the pool is disabled")
+                void shouldThrowFromForkWhenDisabled() {
+                        QuoteLookupExecutor.Batch batch = new QuoteLookupExecutor(0).batch();
+
+                        assertThatThrownBy(() -> batch.fork(() -> {
+                                throw new ResourceNotFoundException("Seller", "id", 7L);
+                        })).isInstanceOf(ResourceNotFoundException.class);
+                }
+        }
+
+        private static String awaitBoth(CountDownLatch started, String value) {
+                started.countDown();
+                try {
+                        if (!started.await(5, TimeUnit.SECONDS)) {
+                                throw new IllegalStateException("Lookups did not run concurrently");
+                        }
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                }
+                return value;
+        }
+}
@@ -0,0 +1,223 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.config.RateCardProperties;
+import com.jumbotail.shipping.entity.CourierSurcharge;
+import com.jumbotail.shipping.entity.RateBand;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.enums.TransportMode;
+import com.jumbotail.shipping.event.RateCardChangedEvent;
+import com.jumbotail.shipping.repository.CourierSurchargeRepository;
+import com.jumbotail.shipping.repository.RateBandRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RateCardStore and the compiled RateCard.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateCardStore Tests")
+class RateCardStoreTest {
+
+        @Mock
+        private RateBandRepository rateBandRepository;
+
+        @Mock
+        private CourierSurchargeRepository courierSurchargeRepository;
+
+        @Mock
+        private ApplicationEventPublisher eventPublisher;
+
+        private RateCardStore store;
+
+        @BeforeEach
+        void setUp() {
+                store = new RateCardStore(configuredRates(), rateBandRepository, courierSurchargeRepository,
+                                eventPublisher);
+        }
+
+        @Nested
+        @DisplayName("Compiled Rate Card Tests")
+        class CompiledRateCardTests {
+
+                @Test
+                @DisplayName("Should select the band with the greatest minimum not above the distance")
+                void shouldSelectBandByDistance() {
+                        RateCard card = store.current();
+
+                        assertThat(card.version()).isEqualTo(1);
+                        assertThat(card.source()).isEqualTo("config");
+                        assertThat(card.transportMode(0.0)).isEqualTo(TransportMode.MINI_VAN);
+                        assertThat(card.transportMode(99.99)).isEqualTo(TransportMode.MINI_VAN);
+                        assertThat(card.transportMode(100.0)).isEqualTo(TransportMode.TRUCK);
+                        assertThat(card.transportMode(499.99)).isEqualTo(TransportMode.TRUCK);
+                        assertThat(card.transportMode(500.0)).isEqualTo(TransportMode.AEROPLANE);
+                        assertThat(card.transportMode(3000.0)).isEqualTo(TransportMode.AEROPLANE);
+                }
+
+                @Test
+                @DisplayName("Should charge the configured rates")
+                void shouldChargeConfiguredRates() {
+                        RateCard card = store.current();
+
+                        // 3 * 50 * 5 = 750, 10 + 1.2 * 5 = 16
+                        assertThat(card.transportChargePaise(50.0, 5.0)).isEqualTo(75000L);
+                        assertThat(card.deliveryChargePaise(DeliverySpeed.EXPRESS, 5.0)).isEqualTo(1600L);
+                        assertThat(card.chargePaise(50.0, 5.0, DeliverySpeed.EXPRESS)).isEqualTo(76600L);
+                        assertThat(card.chargePerKg(250.0, DeliverySpeed.EXPRESS)).isEqualTo(501.2);
+                }
+
+                @Test
+                @DisplayName("Should round the exact total half up to paise once")
+                void shouldRoundExactTotalOnce() {
+                        RateCard card = store.current();
+
+                        // 3 * 0.005 km * 1 kg = 1.5 paise, 10 + 1.2 * 1 = 11.2 -> 1121.5 paise
+                        assertThat(card.chargePaise(0.005, 1.0, DeliverySpeed.EXPRESS)).isEqualTo(1122L);
+                        // 3 * 0.005 km * 0.1 kg = 0.15 paise, 10 + 1.2 * 0.1 = 10.12 -> 1012.15 paise
+                        assertThat(card.chargePaise(0.005, 0.1, DeliverySpeed.EXPRESS)).isEqualTo(1012L);
+                }
+
+                @Test
+                @DisplayName("Should price weights below a gram exactly")
+                void shouldPriceSubGramWeights() {
+                        RateCard card = store.current();
+                        // Volumetric weight of a 33 x 27 x 11 cm product
+                        double weightKg = 33 * 27 * 11 / 5000.0;
+
+                        // 1 * 1000 km * 1.9602 kg = 1960.20, + 10 = 1970.20
+                        assertThat(card.transportChargePaise(1000.0, weightKg)).isEqualTo(196020L);
+                        assertThat(card.chargePaise(1000.0, weightKg, DeliverySpeed.STANDARD)).isEqualTo(197020L);
+                }
+
+                @Test
+                @DisplayName("Should price shipments whose exact product exceeds a long")
+                void shouldPriceBeyondLongProduct() {
+                        RateCard card = store.current();
+
+                        // 100 paise * 3,000,000 m * 40,000,000,000 mg is above 2^63
+                        assertThat(card.transportChargePaise(3000.0, 40_000.0)).isEqualTo(12_000_000_000L);
+                        // + 10 + 1.2 * 40,000 = 48,010
+                        assertThat(card.chargePaise(3000.0, 40_000.0, DeliverySpeed.EXPRESS))
+                                        .isEqualTo(12_004_801_000L);
+                }
+
+                @Test
+                @DisplayName("Should reject rates that are not whole paise")
+                void shouldRejectFractionalPaise() {
+                        assertThatThrownBy(() -> RateCard.compile(1, "config",
+                                        List.of(new RateCard.Band(0.0, TransportMode.MINI_VAN, 2.995)),
+                                        store.current().surcharges()))
+                                        .isInstanceOf(IllegalArgumentException.class)
+                                        .hasMessageContaining("paise");
+                }
+
+                @Test
+                @DisplayName("Should reject a card without a band starting at 0 km")
+                void shouldRejectCardWithoutZeroBand() {
+                        assertThatThrownBy(() -> RateCard.compile(1, "config",
+                                        List.of(new RateCard.Band(100.0, TransportMode.TRUCK, 2.0)),
+                                        store.current().surcharges()))
+                                        .isInstanceOf(IllegalArgumentException.class)
+                                        .hasMessageContaining("0 km");
+                }
+        }
+
+        @Nested
+        @DisplayName("Reload Tests")
+        class ReloadTests {
+
+                @Test
+                @DisplayName("Should swap in rates from the rate tables and announce the change")
+                void shouldSwapInDatabaseRates() {
+                        when(rateBandRepository.findByIsActiveTrue()).thenReturn(List.of(
+                                        band(0.0, TransportMode.MINI_VAN, 4.0),
+                                        band(300.0, TransportMode.AEROPLANE, 1.5)));
+                        when(courierSurchargeRepository.findByIsActiveTrue()).thenReturn(List.of(
+                                        CourierSurcharge.builder()
+                                                        .deliverySpeed(DeliverySpeed.EXPRESS)
+                                                        .baseCourierCharge(15.0)
+                                                        .extraChargePerKg(2.0)
+                                                        .build()));
+                        RateCard previous = store.current();
+
+                        RateCard card = store.reload();
+
+                        assertThat(store.current()).isSameAs(card);
+                        assertThat(card.version()).isEqualTo(2);
+                        assertThat(card.source()).isEqualTo("database");
+                        assertThat(card.transportMode(250.0)).isEqualTo(TransportMode.MINI_VAN);
+                        assertThat(card.transportMode(300.0)).isEqualTo(TransportMode.AEROPLANE);
+                        assertThat(card.surcharge(DeliverySpeed.EXPRESS)).isEqualTo(new RateCard.Surcharge(15.0, 2.0));
+                        // Speeds without a row keep the configured surcharge
+                        assertThat(card.surcharge(DeliverySpeed.STANDARD)).isEqualTo(new RateCard.Surcharge(10.0, 0.0));
+                        verify(eventPublisher).publishEvent(new RateCardChangedEvent(previous, card));
+                }
+
+                @Test
+                @DisplayName("Should keep the current card when no rate changed")
+                void shouldKeepCardWhenUnchanged() {
+                        when(rateBandRepository.findByIsActiveTrue()).thenReturn(List.of());
+                        when(courierSurchargeRepository.findByIsActiveTrue()).thenReturn(List.of());
+                        RateCard previous = store.current();
+
+                        assertThat(store.reload()).isSameAs(previous);
+                        verify(eventPublisher, never()).publishEvent(any(Object.class));
+                }
+
+                @Test
+                @DisplayName("Should keep the current card when the rate tables are invalid")
+                void shouldKeepCardWhenInvalid() {
+                        when(rateBandRepository.findByIsActiveTrue()).thenReturn(List.of(
+                                        band(50.0, TransportMode.MINI_VAN, 3.0)));
+                        when(courierSurchargeRepository.findByIsActiveTrue()).thenReturn(List.of());
+                        RateCard previous = store.current();
+
+                        assertThat(store.reload()).isSameAs(previous);
+                        verify(eventPublisher, never()).publishEvent(any(Object.class));
+                }
+        }
+
+        private static RateBand band(double minDistanceKm, TransportMode transportMode, double ratePerKmPerKg) {
+                return RateBand.builder()
+                                .minDistanceKm(minDistanceKm)
+                                .transportMode(transportMode)
+                                .ratePerKmPerKg(ratePerKmPerKg)
+                                .build();
+        }
+
+        private static RateCardProperties configuredRates() {
+                RateCardProperties properties = new RateCardProperties();
+                properties.getTransport().put(TransportMode.AEROPLANE, transport(1.0, 500.0));
+                properties.getTransport().put(TransportMode.TRUCK, transport(2.0, 100.0));
+                properties.getTransport().put(TransportMode.MINI_VAN, transport(3.0, 0.0));
+                properties.getDelivery().put(DeliverySpeed.STANDARD, delivery(10.0, 0.0));
+                properties.getDelivery().put(DeliverySpeed.EXPRESS, delivery(10.0, 1.2));
+                return properties;
+        }
+
+        private static RateCardProperties.Transport transport(double ratePerKmPerKg, double minDistanceKm) {
+                RateCardProperties.Transport transport = new RateCardProperties.Transport();
+                transport.setRatePerKmPerKg(ratePerKmPerKg);
+                transport.setMinDistanceKm(minDistanceKm);
+                return transport;
+        }
+
+        private static RateCardProperties.Delivery delivery(double baseCourierCharge, double extraChargePerKg) {
+                RateCardProperties.Delivery delivery = new RateCardProperties.Delivery();
+                delivery.setBaseCourierCharge(baseCourierCharge);
+                delivery.setExtraChargePerKg(extraChargePerKg);
+                return delivery;
+        }
+}
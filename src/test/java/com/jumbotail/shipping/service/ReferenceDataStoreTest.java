@@ -0,0 +1,180 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Product;
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.event.EntityChangedEvent;
+import com.jumbotail.shipping.exception.InvalidRequestException;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.repository.CustomerRepository;
+import com.jumbotail.shipping.repository.ProductRepository;
+import com.jumbotail.shipping.repository.SellerRepository;
+import com.jumbotail.shipping.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReferenceDataStore.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReferenceDataStore Tests")
+class ReferenceDataStoreTest {
+
+        @Mock
+        private SellerRepository sellerRepository;
+
+        @Mock
+        private CustomerRepository customerRepository;
+
+        @Mock
+        private WarehouseRepository warehouseRepository;
+
+        @Mock
+        private ProductRepository productRepository;
+
+        private ReferenceDataStore store;
+
+        @BeforeEach
+        void setUp() {
+                store = new ReferenceDataStore(true, sellerRepository, customerRepository,
+                                warehouseRepository, productRepository);
+        }
+
+        @Nested
+        @DisplayName("Lookup Tests")
+        class LookupTests {
+
+                @Test
+                @DisplayName("Should serve loaded reference data without the repositories")
+                void shouldServeLoadedReferenceData() {
+                        // Arrange
+                        stubRepositories();
+
+                        // Act
+                        store.load();
+                        ReferenceData data = store.current();
+
+                        // Assert
+                        assertThat(data.sellerLocation(3L)).isEqualTo(location(12.9165, 77.6101));
+                        assertThat(data.customerLocation(1L)).isEqualTo(location(19.0760, 72.8777));
+                        assertThat(data.chargeableWeight(1L)).isEqualTo(5.0);
+                        assertThat(data.warehouse(1L))
+                                        .isEqualTo(new WarehouseSnapshot(1L, "BLR_WH_01", "Bangalore Warehouse",
+                                                        12.9716, 77.5946));
+
+                        verify(sellerRepository, times(1)).findAll();
+                        verifyNoMoreInteractions(sellerRepository, customerRepository, productRepository);
+                }
+
+                @Test
+                @DisplayName("Should fail lookups with the repository error messages")
+                void shouldFailLookupsLikeRepositories() {
+                        // Arrange
+                        stubRepositories();
+                        store.load();
+                        ReferenceData data = store.current();
+
+                        // Act & Assert
+                        assertThatThrownBy(() -> data.sellerLocation(99L))
+                                        .isInstanceOf(ResourceNotFoundException.class)
+                                        .hasMessageContaining("Seller");
+                        assertThatThrownBy(() -> data.sellerLocation(null))
+                                        .isInstanceOf(ResourceNotFoundException.class);
+                        assertThatThrownBy(() -> data.customerLocation(2L))
+                                        .isInstanceOf(InvalidRequestException.class)
+                                        .hasMessageContaining("CUST-002");
+                        assertThatThrownBy(() -> data.chargeableWeight(99L))
+                                        .isInstanceOf(ResourceNotFoundException.class)
+                                        .hasMessageContaining("Product");
+                }
+        }
+
+        @Nested
+        @DisplayName("Publish Tests")
+        class PublishTests {
+
+                @Test
+                @DisplayName("Should publish writes as a new version and leave the old one intact")
+                void shouldPublishNewVersion() {
+                        // Arrange
+                        stubRepositories();
+                        store.load();
+                        ReferenceData before = store.current();
+
+                        Seller newSeller = Seller.builder()
+                                        .id(2L)
+                                        .sellerId("SELLER-002")
+                                        .location(location(17.3850, 78.4867))
+                                        .build();
+
+                        // Act
+                        store.onSellerChanged(EntityChangedEvent.of(newSeller));
+                        ReferenceData after = store.current();
+
+                        // Assert
+                        assertThat(after.version()).isEqualTo(before.version() + 1);
+                        assertThat(after.sellerLocation(2L)).isEqualTo(location(17.3850, 78.4867));
+                        assertThat(after.sellerLocation(3L)).isEqualTo(location(12.9165, 77.6101));
+                        assertThat(after.sellerCount()).isEqualTo(2);
+                        assertThatThrownBy(() -> before.sellerLocation(2L))
+                                        .isInstanceOf(ResourceNotFoundException.class);
+                }
+
+                @Test
+                @DisplayName("Should ignore writes until loaded and never load when disabled")
+                void shouldStayEmptyWhenDisabled() {
+                        ReferenceDataStore disabled = new ReferenceDataStore(false, sellerRepository,
+                                        customerRepository, warehouseRepository, productRepository);
+
+                        disabled.load();
+                        disabled.onSellerChanged(EntityChangedEvent.of(Seller.builder().id(1L).build()));
+
+                        assertThat(disabled.current()).isNull();
+                        verifyNoInteractions(sellerRepository);
+                }
+        }
+
+        private void stubRepositories() {
+                when(sellerRepository.findAll()).thenReturn(List.of(Seller.builder()
+                                .id(3L)
+                                .sellerId("SELLER-003")
+                                .location(location(12.9165, 77.6101))
+                                .build()));
+                when(customerRepository.findAll()).thenReturn(List.of(
+                                Customer.builder()
+                                                .id(2L)
+                                                .customerId("CUST-002")
+                                                .build(),
+                                Customer.builder()
+                                                .id(1L)
+                                                .customerId("CUST-001")
+                                                .location(location(19.0760, 72.8777))
+                                                .build()));
+                when(warehouseRepository.findAll()).thenReturn(List.of(Warehouse.builder()
+                                .id(1L)
+                                .warehouseCode("BLR_WH_01")
+                                .name("Bangalore Warehouse")
+                                .location(location(12.9716, 77.5946))
+                                .build()));
+                when(productRepository.findAll()).thenReturn(List.of(Product.builder()
+                                .id(1L)
+                                .weightInKg(5.0)
+                                .build()));
+        }
+
+        private static GeoLocation location(double latitude, double longitude) {
+                return GeoLocation.builder().latitude(latitude).longitude(longitude).build();
+        }
+}
@@ -2,6 +2,7 @@ package com.jumbotail.shipping.service;
 
 import com.jumbotail.shipping.entity.Customer;
 import com.jumbotail.shipping.entity.Product;
+import com.jumbotail.shipping.entity.Seller;
 import com.jumbotail.shipping.entity.Warehouse;
 import com.jumbotail.shipping.entity.embeddable.GeoLocation;
 import com.jumbotail.shipping.enums.DeliverySpeed;
@@ -10,6 +11,7 @@ import com.jumbotail.shipping.exception.ResourceNotFoundException;
 import com.jumbotail.shipping.repository.CustomerRepository;
 import com.jumbotail.shipping.repository.ProductRepository;
 import com.jumbotail.shipping.repository.SellerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,9 +19,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -48,15 +55,47 @@ class ShippingCalculatorServiceTest {
     @Mock
     private GeoLocationService geoLocationService;
 
+    @Mock
+    private ReferenceDataStore referenceDataStore;
+
+    @Mock
+    private DistanceMatrixStore distanceMatrixStore;
+
+    @Mock
+    private RateCardStore rateCardStore;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private QuoteCache quoteCache = new QuoteCache(new ConcurrentMapCacheManager(), meterRegistry);
+
+    @Spy
+    private QuoteLookupExecutor quoteLookupExecutor = new QuoteLookupExecutor(0);
+
+    @Spy
+    private KnownIds knownIds = new KnownIds(false, 1, Duration.ofMinutes(1), null, null, meterRegistry);
+
     @InjectMocks
     private ShippingCalculatorService shippingCalculatorService;
 
+    /**
+     * The rates configured in application.yml.
+     */
+    private static final RateCard RATE_CARD = RateCard.compile(1, "config",
+            List.of(new RateCard.Band(500.0, TransportMode.AEROPLANE, 1.0),
+                    new RateCard.Band(100.0, TransportMode.TRUCK, 2.0),
+                    new RateCard.Band(0.0, TransportMode.MINI_VAN, 3.0)),
+            Map.of(DeliverySpeed.STANDARD, new RateCard.Surcharge(10.0, 0.0),
+                    DeliverySpeed.EXPRESS, new RateCard.Surcharge(10.0, 1.2)));
+
     private Warehouse testWarehouse;
     private Customer testCustomer;
     private Product testProduct;
 
     @BeforeEach
     void setUp() {
+        lenient().when(rateCardStore.current()).thenReturn(RATE_CARD);
+
         // Setup test warehouse
         testWarehouse = Warehouse.builder()
                 .id(1L)
@@ -102,10 +141,10 @@ class ShippingCalculatorServiceTest {
 
             // Expected: Transport = 3 * 50 * 5 = 750, Delivery = 10 + 0 = 10, Total = 760
             // Act
-            BigDecimal charge = shippingCalculatorService.calculateTotalCharge(distanceKm, weightKg, speed);
+            long charge = shippingCalculatorService.calculateTotalChargePaise(distanceKm, weightKg, speed);
 
             // Assert
-            assertThat(charge).isEqualByComparingTo(new BigDecimal("760.00"));
+            assertThat(charge).isEqualTo(76000L);
         }
 
         @Test
@@ -119,10 +158,10 @@ class ShippingCalculatorServiceTest {
             // Expected: Transport = 2 * 250 * 10 = 5000, Delivery = 10 + 0 = 10, Total =
             // 5010
             // Act
-            BigDecimal charge = shippingCalculatorService.calculateTotalCharge(distanceKm, weightKg, speed);
+            long charge = shippingCalculatorService.calculateTotalChargePaise(distanceKm, weightKg, speed);
 
             // Assert
-            assertThat(charge).isEqualByComparingTo(new BigDecimal("5010.00"));
+            assertThat(charge).isEqualTo(501000L);
         }
 
         @Test
@@ -136,10 +175,10 @@ class ShippingCalculatorServiceTest {
             // Expected: Transport = 1 * 800 * 2 = 1600, Delivery = 10 + 0 = 10, Total =
             // 1610
             // Act
-            BigDecimal charge = shippingCalculatorService.calculateTotalCharge(distanceKm, weightKg, speed);
+            long charge = shippingCalculatorService.calculateTotalChargePaise(distanceKm, weightKg, speed);
 
             // Assert
-            assertThat(charge).isEqualByComparingTo(new BigDecimal("1610.00"));
+            assertThat(charge).isEqualTo(161000L);
         }
 
         @Test
@@ -153,25 +192,25 @@ class ShippingCalculatorServiceTest {
             // Expected: Transport = 3 * 50 * 5 = 750, Delivery = 10 + (1.2 * 5) = 16, Total
             // = 766
             // Act
-            BigDecimal charge = shippingCalculatorService.calculateTotalCharge(distanceKm, weightKg, speed);
+            long charge = shippingCalculatorService.calculateTotalChargePaise(distanceKm, weightKg, speed);
 
             // Assert
-            assertThat(charge).isEqualByComparingTo(new BigDecimal("766.00"));
+            assertThat(charge).isEqualTo(76600L);
         }
 
         @Test
         @DisplayName("Should handle boundary distance for transport mode selection")
         void shouldHandleBoundaryDistanceCorrectly() {
             // At exactly 100 km, should use TRUCK (100+)
-            BigDecimal chargeAt100 = shippingCalculatorService.calculateTotalCharge(100.0, 1.0, DeliverySpeed.STANDARD);
+            long chargeAt100 = shippingCalculatorService.calculateTotalChargePaise(100.0, 1.0, DeliverySpeed.STANDARD);
             // Transport = 2 * 100 * 1 = 200, Delivery = 10, Total = 210
 
             // At 99 km, should use MINI_VAN
-            BigDecimal chargeAt99 = shippingCalculatorService.calculateTotalCharge(99.0, 1.0, DeliverySpeed.STANDARD);
+            long chargeAt99 = shippingCalculatorService.calculateTotalChargePaise(99.0, 1.0, DeliverySpeed.STANDARD);
             // Transport = 3 * 99 * 1 = 297, Delivery = 10, Total = 307
 
-            assertThat(chargeAt100).isEqualByComparingTo(new BigDecimal("210.00"));
-            assertThat(chargeAt99).isEqualByComparingTo(new BigDecimal("307.00"));
+            assertThat(chargeAt100).isEqualTo(21000L);
+            assertThat(chargeAt99).isEqualTo(30700L);
         }
     }
 
@@ -246,6 +285,88 @@ class ShippingCalculatorServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Single-Pass Quote Tests")
+    class QuoteShippingTests {
+
+        @Test
+        @DisplayName("Should load each entity once and return the full breakdown")
+        void shouldQuoteInSinglePass() {
+            // Arrange
+            Seller seller = Seller.builder()
+                    .id(1L)
+                    .sellerId("SELLER-001")
+                    .location(GeoLocation.builder()
+                            .latitude(12.9165)
+                            .longitude(77.6101)
+                            .build())
+                    .build();
+            when(sellerRepository.findById(1L)).thenReturn(Optional.of(seller));
+            when(warehouseService.findNearestWarehouseToLocation(seller.getLocation()))
+                    .thenReturn(WarehouseSnapshot.of(testWarehouse));
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+            when(geoLocationService.calculateDistanceInKm(seller.getLocation(), testWarehouse.getLocation()))
+                    .thenReturn(7.0);
+            when(geoLocationService.calculateDistanceInKm(testWarehouse.getLocation(), testCustomer.getLocation()))
+                    .thenReturn(250.0);
+
+            // Act
+            ShippingQuote quote = shippingCalculatorService.quoteShipping(1L, 1L, DeliverySpeed.STANDARD, 1L);
+
+            // Assert
+            // Transport = 2 * 250 * 5 = 2500, Delivery = 10, Total = 2510
+            assertThat(quote.shippingCharge()).isEqualByComparingTo(new BigDecimal("2510.00"));
+            assertThat(quote.warehouse()).isEqualTo(WarehouseSnapshot.of(testWarehouse));
+            assertThat(quote.sellerToWarehouseKm()).isEqualTo(7.0);
+            assertThat(quote.warehouseToCustomerKm()).isEqualTo(250.0);
+            assertThat(quote.weightKg()).isEqualTo(5.0);
+            assertThat(quote.transportMode()).isEqualTo(TransportMode.TRUCK);
+
+            verify(sellerRepository, times(1)).findById(1L);
+            verify(customerRepository, times(1)).findById(1L);
+            verify(productRepository, times(1)).findById(1L);
+            verify(warehouseService, never()).findNearestWarehouse(any());
+            verify(warehouseService, never()).getWarehouseById(any());
+            verify(geoLocationService, times(2)).calculateDistanceInKm(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should serve repeat quotes from the cache and count hits per flow")
+        void shouldServeRepeatQuotesFromCache() {
+            // Arrange
+            when(warehouseService.getWarehouseById(1L)).thenReturn(testWarehouse);
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+            when(geoLocationService.calculateDistanceInKm(any(), any())).thenReturn(50.0);
+
+            // Act
+            ShippingQuote first = shippingCalculatorService.quoteFromWarehouse(1L, 1L, DeliverySpeed.STANDARD, null);
+            ShippingQuote second = shippingCalculatorService.quoteFromWarehouse(1L, 1L, DeliverySpeed.STANDARD, null);
+            shippingCalculatorService.quoteFromWarehouse(1L, 1L, DeliverySpeed.EXPRESS, null);
+
+            // Assert
+            assertThat(second).isSameAs(first);
+            verify(warehouseService, times(2)).getWarehouseById(1L);
+            assertThat(meterRegistry.get("shipping.quote.cache")
+                    .tags("flow", "warehouse", "result", "hit").counter().count()).isEqualTo(1.0);
+            assertThat(meterRegistry.get("shipping.quote.cache")
+                    .tags("flow", "warehouse", "result", "miss").counter().count()).isEqualTo(2.0);
+            assertThat(meterRegistry.get("shipping.quote.cache")
+                    .tags("flow", "seller", "result", "miss").counter().count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should throw exception when seller not found")
+        void shouldThrowExceptionWhenSellerNotFound() {
+            when(sellerRepository.findById(999L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> shippingCalculatorService.quoteShipping(
+                    999L, 1L, DeliverySpeed.STANDARD, null))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessageContaining("Seller");
+        }
+    }
+
     @Nested
     @DisplayName("Transport Mode Selection Tests")
     class TransportModeSelectionTests {
@@ -253,21 +374,21 @@ class ShippingCalculatorServiceTest {
         @Test
         @DisplayName("Should select AEROPLANE for 500+ km")
         void shouldSelectAeroplaneForLongDistance() {
-            TransportMode mode = TransportMode.getByDistance(500.0);
+            TransportMode mode = RATE_CARD.transportMode(500.0);
             assertThat(mode).isEqualTo(TransportMode.AEROPLANE);
         }
 
         @Test
         @DisplayName("Should select TRUCK for 100-499 km")
         void shouldSelectTruckForMediumDistance() {
-            TransportMode mode = TransportMode.getByDistance(250.0);
+            TransportMode mode = RATE_CARD.transportMode(250.0);
             assertThat(mode).isEqualTo(TransportMode.TRUCK);
         }
 
         @Test
         @DisplayName("Should select MINI_VAN for 0-99 km")
         void shouldSelectMiniVanForShortDistance() {
-            TransportMode mode = TransportMode.getByDistance(50.0);
+            TransportMode mode = RATE_CARD.transportMode(50.0);
             assertThat(mode).isEqualTo(TransportMode.MINI_VAN);
         }
     }
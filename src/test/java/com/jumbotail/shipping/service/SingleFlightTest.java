@@ -0,0 +1,122 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+        private static final int CALLERS = 8;
+
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        private final SingleFlight<Long, String> flights = new SingleFlight<>("region", meterRegistry);
+        private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+        @AfterEach
+        void tearDown() {
+                executor.shutdownNow();
+        }
+
+        @Test
+        @DisplayName("Should run one computation for concurrent callers of a key")
+        void shouldCoalesceConcurrentCallers() throws Exception {
+                // Arrange
+                AtomicInteger computations = new AtomicInteger();
+                CountDownLatch leaderStarted = new CountDownLatch(1);
+                CountDownLatch release = new CountDownLatch(1);
+
+                // Act
+                Future<String> leader = executor.submit(() -> flights.run(1L, () -> {
+                        computations.incrementAndGet();
+                        leaderStarted.countDown();
+                        await(release);
+                        return "warehouse";
+                }));
+                assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+                List<Future<String>> followers = new ArrayList<>();
+                for (int i = 1; i < CALLERS; i++) {
+                        followers.add(executor.submit(() -> flights.run(1L, () -> {
+                                computations.incrementAndGet();
+                                return "recomputed";
+                        })));
+                }
+                awaitCoalesced(CALLERS - 1);
+                release.countDown();
+
+                // Assert
+                assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("warehouse");
+                for (Future<String> follower : followers) {
+                        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("warehouse");
+                }
+                assertThat(computations).hasValue(1);
+                assertThat(meterRegistry.get("shipping.cache.in-flight").gauge().value()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should hand the computation's exception to waiting callers")
+        void shouldShareFailures() throws Exception {
+                CountDownLatch leaderStarted = new CountDownLatch(1);
+                CountDownLatch release = new CountDownLatch(1);
+
+                Future<String> leader = executor.submit(() -> flights.run(1L, () -> {
+                        leaderStarted.countDown();
+                        await(release);
+                        throw new ResourceNotFoundException("Seller", "id", 1L);
+                }));
+                assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+                Future<String> follower = executor.submit(() -> flights.run(1L, () -> "recomputed"));
+                awaitCoalesced(1);
+                release.countDown();
+
+                assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                                .hasCauseInstanceOf(ResourceNotFoundException.class);
+                assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                                .hasCauseInstanceOf(ResourceNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("Should compute again once the previous computation finished")
+        void shouldNotKeepResults() {
+                assertThat(flights.run(1L, () -> "first")).isEqualTo("first");
+                assertThat(flights.run(1L, () -> "second")).isEqualTo("second");
+                assertThat(coalesced()).isZero();
+        }
+
+        private void awaitCoalesced(int callers) throws InterruptedException {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (coalesced() < callers && System.nanoTime() < deadline) {
+                        Thread.sleep(1);
+                }
+                assertThat(coalesced()).isEqualTo(callers);
+        }
+
+        private double coalesced() {
+                return meterRegistry.get("shipping.cache.coalesced").tag("region", "region").counter().count();
+        }
+
+        private static void await(CountDownLatch latch) {
+                try {
+                        latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+        }
+}
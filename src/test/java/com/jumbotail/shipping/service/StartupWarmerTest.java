@@ -0,0 +1,164 @@
+package com.jumbotail.shipping.service;
+
+import com.jumbotail.shipping.entity.Customer;
+import com.jumbotail.shipping.entity.Seller;
+import com.jumbotail.shipping.entity.Warehouse;
+import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.enums.DeliverySpeed;
+import com.jumbotail.shipping.enums.TransportMode;
+import com.jumbotail.shipping.exception.ResourceNotFoundException;
+import com.jumbotail.shipping.repository.SellerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StartupWarmer.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StartupWarmer Tests")
+class StartupWarmerTest {
+
+        private static final Warehouse BANGALORE = Warehouse.builder()
+                        .id(1L)
+                        .warehouseCode("BLR_WH_01")
+                        .name("Bangalore Warehouse")
+                        .location(GeoLocation.builder().latitude(12.9716).longitude(77.5946).build())
+                        .isActive(true)
+                        .build();
+
+        private static final ShippingQuote QUOTE = new ShippingQuote(1000L, WarehouseSnapshot.of(BANGALORE), 0.0,
+                        10.0, 1.0, TransportMode.MINI_VAN, DeliverySpeed.STANDARD);
+
+        @Mock
+        private SellerRepository sellerRepository;
+
+        @Mock
+        private WarehouseService warehouseService;
+
+        @Mock
+        private ShippingCalculatorService shippingCalculatorService;
+
+        @Mock
+        private ReferenceDataStore referenceDataStore;
+
+        @Mock
+        private DistanceMatrixStore distanceMatrixStore;
+
+        @Mock
+        private LoggingSystem loggingSystem;
+
+        private final WarehouseSpatialIndex warehouseIndex = new WarehouseSpatialIndex(true, 0.1);
+
+        @Test
+        @DisplayName("Should resolve the nearest warehouse of every active seller")
+        void shouldWarmEveryActiveSeller() {
+                // Arrange
+                when(sellerRepository.findByIsActiveTrue()).thenReturn(List.of(seller(1L), seller(2L), seller(3L)));
+                when(warehouseService.findNearestWarehouse(anyLong())).thenAnswer(invocation -> {
+                        Long sellerId = invocation.getArgument(0);
+                        if (sellerId == 2L) {
+                                throw new ResourceNotFoundException("Seller", "id", sellerId);
+                        }
+                        return null;
+                });
+
+                // Act
+                warmer(true, 0).warmUp();
+
+                // Assert
+                verify(warehouseService).loadWarehouseIndex();
+                verify(warehouseService).findNearestWarehouse(1L);
+                verify(warehouseService).findNearestWarehouse(2L);
+                verify(warehouseService).findNearestWarehouse(3L);
+        }
+
+        @Test
+        @DisplayName("Should quote the synthetic workload through the uncached quote path")
+        void shouldRunSyntheticWorkload() {
+                // Arrange
+                Customer customer = Customer.builder()
+                                .id(10L)
+                                .customerId("CUST-010")
+                                .location(GeoLocation.builder().latitude(13.0827).longitude(80.2707).build())
+                                .build();
+                warehouseIndex.load(List.of(BANGALORE));
+                when(sellerRepository.findByIsActiveTrue()).thenReturn(List.of());
+                when(warehouseService.findNearestWarehouseToLocation(any()))
+                                .thenReturn(WarehouseSnapshot.of(BANGALORE));
+                when(referenceDataStore.current())
+                                .thenReturn(ReferenceData.of(List.of(), List.of(customer), List.of(BANGALORE), List.of()));
+                when(distanceMatrixStore.current()).thenReturn(DistanceMatrix.build(DistanceMatrix.empty(),
+                                List.of(new DistanceMatrix.Point(1L, 12.9716, 77.5946)),
+                                List.of(new DistanceMatrix.Point(10L, 13.0827, 80.2707)),
+                                new GeoLocationService().getDefaultEngine()));
+                when(shippingCalculatorService.buildQuote(any(), any(), any(), anyDouble(), anyDouble(), any()))
+                                .thenReturn(QUOTE);
+
+                // Act
+                warmer(true, 100).warmUp();
+
+                // Assert
+                verify(warehouseService, times(100)).findNearestWarehouseToLocation(any());
+                // Half the trips go to a matrix customer, half to a random point
+                verify(shippingCalculatorService, times(50)).buildQuote(any(), eq(10L),
+                                eq(customer.getLocation()), anyDouble(), anyDouble(), any());
+                verify(shippingCalculatorService, times(50)).buildQuote(any(), isNull(), any(), anyDouble(),
+                                anyDouble(), any());
+        }
+
+        @Test
+        @DisplayName("Should quiet the quote loggers while warming and restore them after")
+        void shouldQuietQuoteLoggers() {
+                when(sellerRepository.findByIsActiveTrue()).thenReturn(List.of());
+
+                warmer(true, 0).warmUp();
+
+                verify(loggingSystem).setLogLevel(WarehouseService.class.getName(), LogLevel.WARN);
+                verify(loggingSystem).setLogLevel(ShippingCalculatorService.class.getName(), LogLevel.WARN);
+                verify(loggingSystem).setLogLevel(WarehouseService.class.getName(), null);
+                verify(loggingSystem).setLogLevel(ShippingCalculatorService.class.getName(), null);
+        }
+
+        @Test
+        @DisplayName("Should go ready when the warm-up fails")
+        void shouldSurviveFailure() {
+                when(sellerRepository.findByIsActiveTrue()).thenThrow(new IllegalStateException("database down"));
+
+                assertThatCode(() -> warmer(true, 100).warmUp()).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Should do nothing when disabled")
+        void shouldSkipWhenDisabled() {
+                warmer(false, 100).warmUp();
+
+                verifyNoInteractions(sellerRepository, warehouseService, shippingCalculatorService, loggingSystem);
+        }
+
+        private StartupWarmer warmer(boolean enabled, int syntheticQuotes) {
+                return new StartupWarmer(enabled, 2, syntheticQuotes, Duration.ofSeconds(10), sellerRepository,
+                                warehouseService, warehouseIndex, new GeoLocationService(), shippingCalculatorService,
+                                referenceDataStore, distanceMatrixStore, loggingSystem);
+        }
+
+        private static Seller seller(Long id) {
+                return Seller.builder()
+                                .id(id)
+                                .sellerId("SELLER-00" + id)
+                                .companyName("Seller " + id)
+                                .location(GeoLocation.builder().latitude(17.3850).longitude(78.4867).build())
+                                .isActive(true)
+                                .build();
+        }
+}
@@ -0,0 +1,130 @@
+package com.jumbotail.shipping.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jumbotail.shipping.dto.request.ShippingCalculateRequest;
+import com.jumbotail.shipping.service.BatchShippingService.BatchQuoteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StreamingShippingService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StreamingShippingService Tests")
+class StreamingShippingServiceTest {
+
+        @Mock
+        private BatchShippingService batchShippingService;
+
+        @Spy
+        private ObjectMapper objectMapper = new ObjectMapper();
+
+        private StreamingShippingService streamingShippingService;
+
+        @BeforeEach
+        void setUp() {
+                streamingShippingService = new StreamingShippingService(batchShippingService, objectMapper, 64);
+        }
+
+        @Test
+        @DisplayName("Should quote in bounded chunks and keep stream positions")
+        void shouldQuoteInBoundedChunks() {
+                // Arrange - every quoted item fails with 404 so results are easy to build
+                when(batchShippingService.calculateBatch(anyList())).thenAnswer(invocation -> {
+                        List<ShippingCalculateRequest> requests = invocation.getArgument(0);
+                        return IntStream.range(0, requests.size())
+                                        .mapToObj(i -> BatchQuoteResult.failure(i, HttpStatus.NOT_FOUND, "missing"))
+                                        .toList();
+                });
+
+                int lineCount = StreamingShippingService.CHUNK_SIZE * 2 + 3;
+                StringBuilder input = new StringBuilder();
+                for (int i = 0; i < lineCount; i++) {
+                        input.append("{\"sellerId\":").append(i + 1).append(",\"customerId\":1,\"deliverySpeed\":\"STANDARD\"}\n");
+                }
+
+                List<List<BatchQuoteResult>> chunks = new ArrayList<>();
+
+                // Act
+                long total = streamingShippingService.process(
+                                new BufferedReader(new StringReader(input.toString())), chunks::add);
+
+                // Assert
+                assertThat(total).isEqualTo(lineCount);
+                assertThat(chunks).extracting(List::size)
+                                .containsExactly(StreamingShippingService.CHUNK_SIZE,
+                                                StreamingShippingService.CHUNK_SIZE, 3);
+                assertThat(chunks.stream().flatMap(List::stream).map(BatchQuoteResult::index).toList())
+                                .isEqualTo(LongStream.range(0, lineCount).boxed().toList());
+                verify(batchShippingService, times(3)).calculateBatch(anyList());
+        }
+
+        @Test
+        @DisplayName("Should report malformed lines in place and skip blank lines")
+        void shouldReportMalformedLinesInPlace() {
+                // Arrange
+                when(batchShippingService.calculateBatch(anyList())).thenAnswer(invocation -> {
+                        List<ShippingCalculateRequest> requests = invocation.getArgument(0);
+                        assertThat(requests).hasSize(2);
+                        return List.of(
+                                        BatchQuoteResult.failure(0, HttpStatus.NOT_FOUND, "first"),
+                                        BatchQuoteResult.failure(1, HttpStatus.NOT_FOUND, "second"));
+                });
+
+                String input = "{\"sellerId\":1}\n\nnot json\n{\"sellerId\":2}\n";
+                List<BatchQuoteResult> results = new ArrayList<>();
+
+                // Act
+                streamingShippingService.process(new BufferedReader(new StringReader(input)), results::addAll);
+
+                // Assert
+                assertThat(results).extracting(BatchQuoteResult::index).containsExactly(0L, 1L, 2L);
+                assertThat(results).extracting(BatchQuoteResult::status)
+                                .containsExactly(HttpStatus.NOT_FOUND, HttpStatus.BAD_REQUEST, HttpStatus.NOT_FOUND);
+                assertThat(results.get(0).errorMessage()).isEqualTo("first");
+                assertThat(results.get(2).errorMessage()).isEqualTo("second");
+        }
+
+        @Test
+        @DisplayName("Should reject lines longer than the maximum in place and keep reading")
+        void shouldRejectOverlongLinesInPlace() {
+                // Arrange
+                when(batchShippingService.calculateBatch(anyList())).thenAnswer(invocation -> {
+                        List<ShippingCalculateRequest> requests = invocation.getArgument(0);
+                        assertThat(requests).extracting(ShippingCalculateRequest::getSellerId).containsExactly(1L, 2L);
+                        return List.of(
+                                        BatchQuoteResult.failure(0, HttpStatus.NOT_FOUND, "first"),
+                                        BatchQuoteResult.failure(1, HttpStatus.NOT_FOUND, "second"));
+                });
+
+                String overlong = "{\"sellerId\":3,\"padding\":\"" + "x".repeat(1_000) + "\"}";
+                String input = "{\"sellerId\":1}\r\n" + overlong + "\r\n{\"sellerId\":2}";
+                List<BatchQuoteResult> results = new ArrayList<>();
+
+                // Act
+                long total = streamingShippingService.process(new StringReader(input), results::addAll);
+
+                // Assert
+                assertThat(total).isEqualTo(3);
+                assertThat(results).extracting(BatchQuoteResult::status)
+                                .containsExactly(HttpStatus.NOT_FOUND, HttpStatus.BAD_REQUEST, HttpStatus.NOT_FOUND);
+                assertThat(results.get(1).errorMessage()).contains("longer than 64 characters");
+        }
+}
@@ -3,9 +3,11 @@ package com.jumbotail.shipping.service;
 import com.jumbotail.shipping.entity.Seller;
 import com.jumbotail.shipping.entity.Warehouse;
 import com.jumbotail.shipping.entity.embeddable.GeoLocation;
+import com.jumbotail.shipping.event.EntityChangedEvent;
 import com.jumbotail.shipping.exception.ResourceNotFoundException;
 import com.jumbotail.shipping.repository.SellerRepository;
 import com.jumbotail.shipping.repository.WarehouseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,15 +15,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -40,6 +44,19 @@ class WarehouseServiceTest {
         @Mock
         private GeoLocationService geoLocationService;
 
+        @Spy
+        private WarehouseSpatialIndex warehouseIndex = new WarehouseSpatialIndex(true, 0.1);
+
+        @Spy
+        private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        @Spy
+        private KnownIds knownIds = new KnownIds(false, 1, Duration.ofMinutes(1), null, null, meterRegistry);
+
+        @Spy
+        private NearestWarehouseCache nearestWarehouseCache = new NearestWarehouseCache(
+                        new ConcurrentMapCacheManager(), meterRegistry);
+
         @InjectMocks
         private WarehouseService warehouseService;
 
@@ -109,23 +126,64 @@ class WarehouseServiceTest {
                         when(sellerRepository.findById(1L)).thenReturn(Optional.of(testSeller));
                         when(warehouseRepository.findByIsActiveTrue()).thenReturn(warehouses);
 
-                        // Hyderabad to Bangalore ~500km, to Mumbai ~710km, to Delhi ~1260km
-                        when(geoLocationService.calculateDistanceInKm(testSeller.getLocation(),
-                                        bangaloreWarehouse.getLocation()))
-                                        .thenReturn(500.0);
-                        when(geoLocationService.calculateDistanceInKm(testSeller.getLocation(),
-                                        mumbaiWarehouse.getLocation()))
-                                        .thenReturn(710.0);
-                        when(geoLocationService.calculateDistanceInKm(testSeller.getLocation(),
-                                        delhiWarehouse.getLocation()))
-                                        .thenReturn(1260.0);
+                        // Act - Hyderabad to Bangalore ~500km, to Mumbai ~620km, to Delhi ~1250km
+                        WarehouseSnapshot nearest = warehouseService.findNearestWarehouse(1L);
+
+                        // Assert
+                        assertThat(nearest).isEqualTo(WarehouseSnapshot.of(bangaloreWarehouse));
+                }
+
+                @Test
+                @DisplayName("Should serve repeated lookups from the spatial index")
+                void shouldServeRepeatedLookupsFromIndex() {
+                        // Arrange
+                        when(warehouseRepository.findByIsActiveTrue())
+                                        .thenReturn(Arrays.asList(bangaloreWarehouse, mumbaiWarehouse, delhiWarehouse));
+
+                        GeoLocation delhiCustomer = GeoLocation.builder().latitude(28.6419).longitude(77.1219).build();
+                        GeoLocation mumbaiCustomer = GeoLocation.builder().latitude(19.1136).longitude(72.8697).build();
 
                         // Act
-                        Warehouse nearest = warehouseService.findNearestWarehouse(1L);
+                        WarehouseSnapshot first = warehouseService.findNearestWarehouseToLocation(delhiCustomer);
+                        WarehouseSnapshot second = warehouseService.findNearestWarehouseToLocation(mumbaiCustomer);
 
                         // Assert
-                        assertThat(nearest).isEqualTo(bangaloreWarehouse);
-                        verify(geoLocationService, atLeast(3)).calculateDistanceInKm(any(), any());
+                        assertThat(first).isEqualTo(WarehouseSnapshot.of(delhiWarehouse));
+                        assertThat(second).isEqualTo(WarehouseSnapshot.of(mumbaiWarehouse));
+                        verify(warehouseRepository, times(1)).findByIsActiveTrue();
+                }
+
+                @Test
+                @DisplayName("Should apply created and deactivated warehouses to the index")
+                void shouldApplySavedWarehousesToIndex() {
+                        // Arrange
+                        when(warehouseRepository.findByIsActiveTrue())
+                                        .thenReturn(Arrays.asList(bangaloreWarehouse, mumbaiWarehouse));
+                        warehouseService.loadWarehouseIndex();
+
+                        Warehouse hyderabadWarehouse = Warehouse.builder()
+                                        .id(4L)
+                                        .warehouseCode("HYD_WH_01")
+                                        .name("Hyderabad Warehouse")
+                                        .location(GeoLocation.builder()
+                                                        .latitude(17.4400)
+                                                        .longitude(78.3489)
+                                                        .build())
+                                        .isActive(true)
+                                        .build();
+
+                        // Act & Assert - new warehouse becomes nearest without a reload
+                        warehouseService.onWarehouseChanged(EntityChangedEvent.of(hyderabadWarehouse));
+                        assertThat(warehouseService.findNearestWarehouseToLocation(testSeller.getLocation()))
+                                        .isEqualTo(WarehouseSnapshot.of(hyderabadWarehouse));
+
+                        // Deactivating it removes it again
+                        hyderabadWarehouse.setIsActive(false);
+                        warehouseService.onWarehouseChanged(EntityChangedEvent.of(hyderabadWarehouse));
+                        assertThat(warehouseService.findNearestWarehouseToLocation(testSeller.getLocation()))
+                                        .isEqualTo(WarehouseSnapshot.of(bangaloreWarehouse));
+
+                        verify(warehouseRepository, times(1)).findByIsActiveTrue();
                 }
 
                 @Test